@@ -0,0 +1,220 @@
+package com.exasol.bucketfs;
+
+import static com.exasol.errorreporting.ExaError.messageBuilder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.*;
+
+/**
+ * Table of contents of an archive that BucketFS extracts automatically.
+ * <p>
+ * BucketFS extracts an archive {@code dir/name.tar.gz} into the directory {@code dir/name/}. Knowing the regular files
+ * contained in the archive allows checking if the extraction is complete by comparing them with a listing of that
+ * directory.
+ * </p>
+ */
+final class ArchiveTableOfContents {
+    private static final int TAR_BLOCK_SIZE = 512;
+    private static final String[] ARCHIVE_EXTENSIONS = { ".tar.gz", ".tgz", ".tar", ".zip" };
+    private final List<String> files;
+
+    private ArchiveTableOfContents(final List<String> files) {
+        this.files = Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Read the table of contents of a local archive.
+     *
+     * @param archive path to a local archive of one of the {@link UnsynchronizedBucket#SUPPORTED_ARCHIVE_EXTENSIONS
+     *                supported types}
+     * @return table of contents
+     * @throws IOException if reading the archive fails
+     */
+    static ArchiveTableOfContents read(final Path archive) throws IOException {
+        final String extension = getArchiveExtension(archive.getFileName().toString()) //
+                .orElseThrow(() -> new IllegalArgumentException(messageBuilder("E-BFSJ-33")
+                        .message("Unsupported archive type of file {{file}}.", archive)
+                        .mitigation("Use one of the supported archive types {{types}}.",
+                                UnsynchronizedBucket.SUPPORTED_ARCHIVE_EXTENSIONS)
+                        .toString()));
+        switch (extension) {
+        case ".zip":
+            return readZip(archive);
+        case ".tar":
+            return readTar(archive, false);
+        default:
+            return readTar(archive, true);
+        }
+    }
+
+    /**
+     * Get the directory into which BucketFS extracts an archive.
+     *
+     * @param pathInBucket path of the archive inside the bucket
+     * @return path of the extraction directory inside the bucket, ending with a path separator
+     */
+    static String getExtractionDirectory(final String pathInBucket) {
+        final String extension = getArchiveExtension(pathInBucket).orElse("");
+        return pathInBucket.substring(0, pathInBucket.length() - extension.length()) + BucketConstants.PATH_SEPARATOR;
+    }
+
+    private static Optional<String> getArchiveExtension(final String fileName) {
+        final String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        return Arrays.stream(ARCHIVE_EXTENSIONS).filter(lowerCaseName::endsWith).findFirst();
+    }
+
+    /**
+     * Get the paths of the regular files in the archive relative to the extraction directory.
+     *
+     * @return paths of regular files
+     */
+    List<String> getFiles() {
+        return this.files;
+    }
+
+    // ZipFile only reads the central directory at the end of the archive, not the compressed entries.
+    private static ArchiveTableOfContents readZip(final Path archive) throws IOException {
+        final List<String> files = new ArrayList<>();
+        try (final ZipFile zipFile = new ZipFile(archive.toFile())) {
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    files.add(normalize(entry.getName()));
+                }
+            }
+        }
+        return new ArchiveTableOfContents(files);
+    }
+
+    private static ArchiveTableOfContents readTar(final Path archive, final boolean compressed) throws IOException {
+        try (final InputStream fileStream = new BufferedInputStream(Files.newInputStream(archive));
+                final InputStream tarStream = compressed ? new GZIPInputStream(fileStream) : fileStream) {
+            return new ArchiveTableOfContents(readTarEntries(tarStream));
+        }
+    }
+
+    // Reads only the entry headers and skips the entry data.
+    private static List<String> readTarEntries(final InputStream stream) throws IOException {
+        final List<String> files = new ArrayList<>();
+        final byte[] header = new byte[TAR_BLOCK_SIZE];
+        String longName = null;
+        while (readBlock(stream, header) && !isZeroBlock(header)) {
+            final char type = (char) header[156];
+            final long size = parseOctal(header, 124, 12);
+            if ((type == 'L') || (type == 'x')) {
+                final String extendedName = readExtendedName(stream, size, type);
+                longName = (extendedName != null) ? extendedName : longName;
+                continue;
+            }
+            if ((type == '0') || (type == '\0') || (type == '7')) {
+                files.add(normalize((longName != null) ? longName : readHeaderName(header)));
+            }
+            longName = null;
+            skipFully(stream, paddedSize(size));
+        }
+        return files;
+    }
+
+    private static String readExtendedName(final InputStream stream, final long size, final char type)
+            throws IOException {
+        final byte[] data = stream.readNBytes((int) size);
+        skipFully(stream, paddedSize(size) - size);
+        if (type == 'L') {
+            return readString(data, 0, data.length);
+        }
+        // PAX records have the format "<length> <key>=<value>\n"
+        for (final String line : new String(data, StandardCharsets.UTF_8).split("\n")) {
+            final int keyStart = line.indexOf(' ') + 1;
+            if (line.startsWith("path=", keyStart)) {
+                return line.substring(keyStart + "path=".length());
+            }
+        }
+        return null;
+    }
+
+    private static String readHeaderName(final byte[] header) {
+        final String name = readString(header, 0, 100);
+        final boolean isUstar = readString(header, 257, 5).equals("ustar");
+        final String prefix = isUstar ? readString(header, 345, 155) : "";
+        return prefix.isEmpty() ? name : (prefix + BucketConstants.PATH_SEPARATOR + name);
+    }
+
+    private static String readString(final byte[] buffer, final int offset, final int maxLength) {
+        int end = offset;
+        while ((end < (offset + maxLength)) && (buffer[end] != 0)) {
+            ++end;
+        }
+        return new String(buffer, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static long parseOctal(final byte[] buffer, final int offset, final int length) {
+        if ((buffer[offset] & 0x80) != 0) {
+            return parseBase256(buffer, offset, length);
+        }
+        long result = 0;
+        for (int i = offset; i < (offset + length); ++i) {
+            final byte digit = buffer[i];
+            if ((digit >= '0') && (digit <= '7')) {
+                result = (result << 3) + (digit - '0');
+            } else if ((digit == 0) || ((digit == ' ') && (result > 0))) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    // GNU tar stores sizes of 8 GiB and above as big-endian binary number marked by the highest bit.
+    private static long parseBase256(final byte[] buffer, final int offset, final int length) {
+        long result = buffer[offset] & 0x7f;
+        for (int i = offset + 1; i < (offset + length); ++i) {
+            result = (result << 8) + (buffer[i] & 0xff);
+        }
+        return result;
+    }
+
+    private static long paddedSize(final long size) {
+        return ((size + TAR_BLOCK_SIZE - 1) / TAR_BLOCK_SIZE) * TAR_BLOCK_SIZE;
+    }
+
+    private static boolean readBlock(final InputStream stream, final byte[] block) throws IOException {
+        return stream.readNBytes(block, 0, block.length) == block.length;
+    }
+
+    private static boolean isZeroBlock(final byte[] block) {
+        for (final byte value : block) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void skipFully(final InputStream stream, final long bytes) throws IOException {
+        long remaining = bytes;
+        while (remaining > 0) {
+            final long skipped = stream.skip(remaining);
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (stream.read() >= 0) {
+                --remaining;
+            } else {
+                throw new EOFException(messageBuilder("E-BFSJ-34")
+                        .message("Unexpected end of tar archive while skipping {{bytes}} bytes.", remaining)
+                        .toString());
+            }
+        }
+    }
+
+    private static String normalize(final String entryName) {
+        String name = entryName;
+        while (name.startsWith("./") || name.startsWith(BucketConstants.PATH_SEPARATOR)) {
+            name = name.substring(name.startsWith("./") ? 2 : 1);
+        }
+        return name;
+    }
+}
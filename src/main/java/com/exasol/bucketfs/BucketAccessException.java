@@ -5,6 +5,8 @@ import static com.exasol.errorreporting.ExaError.messageBuilder;
 import java.io.IOException;
 import java.net.URI;
 
+import com.exasol.bucketfs.http.CircuitOpenException;
+
 /**
  * Exception for problems when accessing buckets or their contents in Exasol's BucketFS.
  *
@@ -29,10 +31,14 @@ public class BucketAccessException extends Exception {
      * @param uri        URI of the request
      * @param operation  operation initially requested {@link BucketOperation}
      * @param exception cause of the current exception
-     * @return new instance of {@link BucketAccessException} indicating an IO failure during download
+     * @return new instance of {@link BucketAccessException} indicating an IO failure during download or a
+     *         {@link BucketUnavailableException} if the circuit breaker of the endpoint rejected the request
      */
     public static BucketAccessException downloadIoException(final URI uri, final BucketOperation operation,
             final IOException exception) {
+        if (exception instanceof CircuitOpenException) {
+            return new BucketUnavailableException(uri, operation, (CircuitOpenException) exception);
+        }
         return new BucketAccessException(messageBuilder("E-BFSJ-5")
                 .message("I/O error trying to {{operation|uq}} {{URI}}", operation, uri).toString(), exception);
     }
@@ -0,0 +1,18 @@
+package com.exasol.bucketfs;
+
+/**
+ * Listener that a {@link WriteEnabledBucket} notifies about changes it made to files in the bucket.
+ */
+@FunctionalInterface
+public interface BucketChangeListener {
+    /**
+     * Called after a file in the bucket was uploaded or deleted.
+     * <p>
+     * The notification happens when BucketFS accepted the request, not when the change is synchronized.
+     * </p>
+     *
+     * @param bucket       bucket that changed
+     * @param pathInBucket path of the changed file inside the bucket
+     */
+    void onChange(ReadOnlyBucket bucket, String pathInBucket);
+}
@@ -0,0 +1,41 @@
+package com.exasol.bucketfs;
+
+import static com.exasol.errorreporting.ExaError.messageBuilder;
+
+import java.net.URI;
+
+import com.exasol.bucketfs.http.CircuitOpenException;
+
+/**
+ * Exception for bucket operations that were rejected without contacting BucketFS because the circuit breaker of the
+ * endpoint is open.
+ *
+ * @serial exclude
+ */
+public class BucketUnavailableException extends BucketAccessException {
+    private static final long serialVersionUID = -3021466731420374565L;
+    private final String endpoint;
+
+    /**
+     * Create a new instance of a {@link BucketUnavailableException}.
+     *
+     * @param uri       URI that was attempted to access
+     * @param operation operation that was rejected
+     * @param cause     rejection by the circuit breaker
+     */
+    public BucketUnavailableException(final URI uri, final BucketOperation operation,
+            final CircuitOpenException cause) {
+        super(messageBuilder("E-BFSJ-58")
+                .message("BucketFS endpoint {{endpoint}} is unavailable, not trying to {{operation|uq}}.",
+                        cause.getEndpoint(), operation)
+                .toString(), uri, cause);
+        this.endpoint = cause.getEndpoint();
+    }
+
+    /**
+     * @return endpoint of the open circuit breaker ({@code host:port})
+     */
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+}
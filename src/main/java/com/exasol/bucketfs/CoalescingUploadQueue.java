@@ -0,0 +1,215 @@
+package com.exasol.bucketfs;
+
+import static com.exasol.bucketfs.BucketConstants.PATH_SEPARATOR;
+import static com.exasol.bucketfs.list.ListingRetriever.removeLeadingSeparator;
+import static com.exasol.errorreporting.ExaError.messageBuilder;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Queue that uploads to a {@link Bucket} asynchronously and coalesces pending uploads to the same path.
+ * <p>
+ * If an upload to a path is submitted while an earlier upload to the same path has not started yet, the queue only
+ * sends the latest content. The futures of all superseded submissions complete together with the upload that replaced
+ * them. Uploads to the same path never run concurrently, so the overwrite throttle of the bucket still applies to the
+ * uploads that are sent. Paths are compared after resolving "directory" targets of file uploads and ignoring a leading
+ * separator, so {@code "jars/"} with local file {@code a.jar} and {@code "/jars/a.jar"} are the same path.
+ * </p>
+ */
+public class CoalescingUploadQueue implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(CoalescingUploadQueue.class.getName());
+    private final Bucket bucket;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Map<String, PathState> paths = new HashMap<>();
+    private boolean closed = false;
+
+    /**
+     * Create a new {@link CoalescingUploadQueue} that uploads with a single background thread.
+     *
+     * @param bucket bucket to upload to
+     */
+    public CoalescingUploadQueue(final Bucket bucket) {
+        this(bucket, Executors.newSingleThreadExecutor(CoalescingUploadQueue::createDaemonThread), true);
+    }
+
+    /**
+     * Create a new {@link CoalescingUploadQueue} that uploads using the given executor.
+     * <p>
+     * The queue does not shut down the executor on {@link #close()}.
+     * </p>
+     *
+     * @param bucket   bucket to upload to
+     * @param executor executor that runs the uploads
+     */
+    public CoalescingUploadQueue(final Bucket bucket, final ExecutorService executor) {
+        this(bucket, executor, false);
+    }
+
+    private CoalescingUploadQueue(final Bucket bucket, final ExecutorService executor, final boolean ownsExecutor) {
+        this.bucket = bucket;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    private static Thread createDaemonThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "bucketfs-coalescing-upload");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Submit the upload of a local file.
+     * <p>
+     * If the path inside the bucket ends with a separator, the file keeps its local name in this "directory" and the
+     * upload is coalesced with other uploads to the same file only.
+     * </p>
+     *
+     * @param localPath    path of the file to be uploaded
+     * @param pathInBucket path inside the bucket
+     * @return future that completes when the latest content submitted for the path is uploaded and synchronized
+     * @throws RejectedExecutionException if the executor does not accept the upload
+     */
+    public CompletableFuture<Void> uploadFile(final Path localPath, final String pathInBucket) {
+        final String filePathInBucket = pathInBucket.endsWith(PATH_SEPARATOR)
+                ? pathInBucket + localPath.getFileName()
+                : pathInBucket;
+        return submit(filePathInBucket, bucket -> bucket.uploadFile(localPath, filePathInBucket));
+    }
+
+    /**
+     * Submit the upload of string content.
+     *
+     * @param content      string to write
+     * @param pathInBucket path inside the bucket
+     * @return future that completes when the latest content submitted for the path is uploaded and synchronized
+     * @throws RejectedExecutionException if the executor does not accept the upload
+     */
+    public CompletableFuture<Void> uploadStringContent(final String content, final String pathInBucket) {
+        return submit(pathInBucket, bucket -> bucket.uploadStringContent(content, pathInBucket));
+    }
+
+    private CompletableFuture<Void> submit(final String pathInBucket, final Upload upload) {
+        synchronized (this.paths) {
+            if (this.closed) {
+                throw new IllegalStateException(messageBuilder("E-BFSJ-37")
+                        .message("Unable to submit upload to {{path}} because the upload queue is closed.",
+                                pathInBucket)
+                        .toString());
+            }
+            final String key = removeLeadingSeparator(pathInBucket);
+            final PathState state = this.paths.computeIfAbsent(key, path -> new PathState());
+            if (state.pending != null) {
+                LOGGER.fine(() -> "Superseding pending upload to '" + pathInBucket + "' with newer content");
+                state.pending.upload = upload;
+                return state.pending.future;
+            }
+            state.pending = new PendingUpload(upload);
+            if (!state.running) {
+                startDraining(key, state);
+            }
+            return state.pending.future;
+        }
+    }
+
+    // Must be called while holding the lock on the paths. Cleans up if the executor rejects the task, so that later
+    // submissions to the same path do not join an upload that never runs.
+    private void startDraining(final String key, final PathState state) {
+        state.running = true;
+        try {
+            this.executor.execute(() -> drain(key));
+        } catch (final RejectedExecutionException exception) {
+            state.running = false;
+            state.pending.future.completeExceptionally(exception);
+            state.pending = null;
+            this.paths.remove(key);
+            throw exception;
+        }
+    }
+
+    // Runs the pending uploads of one path one after another until no more uploads are pending.
+    private void drain(final String key) {
+        while (true) {
+            final PendingUpload next;
+            synchronized (this.paths) {
+                final PathState state = this.paths.get(key);
+                if (state.pending == null) {
+                    this.paths.remove(key);
+                    return;
+                }
+                next = state.pending;
+                state.pending = null;
+                state.current = next;
+            }
+            run(next);
+        }
+    }
+
+    private void run(final PendingUpload pendingUpload) {
+        try {
+            pendingUpload.upload.run(this.bucket);
+            pendingUpload.future.complete(null);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            pendingUpload.future.completeExceptionally(exception);
+        } catch (final Exception exception) {
+            pendingUpload.future.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * Stop accepting new uploads and wait until all submitted uploads are done.
+     * <p>
+     * If the queue was created with its own executor, this method also shuts the executor down. If the calling thread
+     * is interrupted while waiting, the method returns early and keeps the interrupt flag set.
+     * </p>
+     */
+    @Override
+    public void close() {
+        final CompletableFuture<?>[] outstanding;
+        synchronized (this.paths) {
+            this.closed = true;
+            outstanding = this.paths.values().stream() //
+                    .flatMap(state -> Stream.of(state.current, state.pending)) //
+                    .filter(Objects::nonNull) //
+                    .map(upload -> upload.future.handle((result, exception) -> null)) //
+                    .toArray(CompletableFuture<?>[]::new);
+        }
+        try {
+            if (this.ownsExecutor) {
+                this.executor.shutdown();
+                this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } else {
+                CompletableFuture.allOf(outstanding).get();
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException exception) {
+            // Cannot happen since failures of the uploads are handled above and reported via their own futures.
+        }
+    }
+
+    @FunctionalInterface
+    private interface Upload {
+        void run(Bucket bucket) throws Exception;
+    }
+
+    private static final class PendingUpload {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private Upload upload;
+
+        private PendingUpload(final Upload upload) {
+            this.upload = upload;
+        }
+    }
+
+    private static final class PathState {
+        private PendingUpload current;
+        private PendingUpload pending;
+        private boolean running;
+    }
+}
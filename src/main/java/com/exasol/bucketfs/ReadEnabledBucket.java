@@ -4,19 +4,26 @@ import static com.exasol.bucketfs.BucketOperation.DOWNLOAD;
 import static com.exasol.bucketfs.list.ListingRetriever.removeLeadingSeparator;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.*;
+import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.file.Path;
 import java.security.cert.X509Certificate;
-import java.time.Instant;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import com.exasol.bucketfs.http.HttpClientBuilder;
+import com.exasol.bucketfs.http.*;
 import com.exasol.bucketfs.jsonrpc.CommandFactory;
 import com.exasol.bucketfs.list.BucketContentLister;
 import com.exasol.bucketfs.list.ListingRetriever;
+import com.exasol.errorreporting.ExaError;
 
 /**
  * Bucket that supports read access like listing contents and downloading files.
@@ -24,6 +31,7 @@ import com.exasol.bucketfs.list.ListingRetriever;
 public class ReadEnabledBucket implements ReadOnlyBucket {
     private static final Logger LOGGER = Logger.getLogger(ReadEnabledBucket.class.getName());
     private static final String BUCKET_ROOT = "";
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(30);
 
     /** BucketFs name  */
     protected final String serviceName;
@@ -38,9 +46,13 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
     /** Read password */
     protected final String readPassword;
     /** Upload history */
-    protected final Map<String, Instant> uploadHistory = new HashMap<>();
+    protected final UploadHistory uploadHistory = new UploadHistory();
     /** HTTP client that executes the underlying commands */
     protected final HttpClient client;
+    private final RequestExecutor requestExecutor;
+    private final RequestExecutor readRequestExecutor;
+    private final List<String> nodeHosts;
+    private final Map<BucketOperation, RequestTimeouts> requestTimeouts;
 
     /**
      * Create a new instance of a bucket that supports reading.
@@ -54,7 +66,85 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
         this.host = Objects.requireNonNull(builder.host, "host");
         this.port = builder.port;
         this.readPassword = builder.readPassword;
-        this.client = builder.httpClientBuilder.build();
+        this.client = createHttpClient(builder);
+        this.requestExecutor = RequestExecutor.builder(this.client).circuitBreakers(builder.circuitBreakers).build();
+        this.readRequestExecutor = createReadRequestExecutor(this.client, builder);
+        this.nodeHosts = builder.hosts.isEmpty() ? List.of(this.host) : builder.hosts;
+        this.requestTimeouts = new EnumMap<>(builder.requestTimeouts);
+        if (builder.warmUpConnections > 0) {
+            sendWarmUpRequests(builder.warmUpConnections);
+        }
+    }
+
+    private static HttpClient createHttpClient(final Builder<? extends Builder<?>> builder) {
+        if (builder.httpClient != null) {
+            return builder.httpClient;
+        }
+        final HttpClientRegistry registry = builder.httpClientRegistry;
+        final HttpClientBuilder httpClientBuilder = builder.httpClientBuilder;
+        if (builder.lazyHttpClient) {
+            return new LazyHttpClient(() -> createHttpClient(registry, httpClientBuilder));
+        }
+        return createHttpClient(registry, httpClientBuilder);
+    }
+
+    private static HttpClient createHttpClient(final HttpClientRegistry registry,
+            final HttpClientBuilder httpClientBuilder) {
+        return (registry != null) ? registry.getClient(httpClientBuilder) : httpClientBuilder.build();
+    }
+
+    private static RequestExecutor createReadRequestExecutor(final HttpClient client,
+            final Builder<? extends Builder<?>> builder) {
+        final NodeSelector nodeSelector = (builder.hosts.size() < 2) ? null
+                : new NodeSelector(builder.hosts, builder.nodeSelectionStrategy, builder.nodeFailureThreshold,
+                        builder.nodeEjectionDuration);
+        return RequestExecutor.builder(client) //
+                .nodeSelector(nodeSelector) //
+                .hedgingPolicy(builder.hedgingPolicy) //
+                .circuitBreakers(builder.circuitBreakers) //
+                .build();
+    }
+
+    /**
+     * Open connections to all nodes of this bucket in the background, so that the first operations do not wait for
+     * DNS lookup, TCP and TLS handshake.
+     * <p>
+     * The bucket sends the given number of concurrent {@code HEAD} requests to the root of the BucketFS service on
+     * each node. The HTTP client keeps the connections open for reuse until its keep-alive timeout expires (see
+     * system property {@code jdk.httpclient.keepalive.timeout}). Failed warm-up requests are only logged.
+     * </p>
+     * <p>
+     * Warm-up requests carry the read credentials of the bucket but go to each node directly instead of through the
+     * node selection of the bucket. Their results therefore neither open circuit breakers nor eject nodes.
+     * </p>
+     *
+     * @param connections number of connections per node
+     * @return future that completes when all warm-up requests finished
+     */
+    public CompletableFuture<Void> warmUp(final int connections) {
+        return sendWarmUpRequests(connections);
+    }
+
+    private CompletableFuture<Void> sendWarmUpRequests(final int connections) {
+        final List<CompletableFuture<?>> responses = new ArrayList<>();
+        for (final String nodeHost : this.nodeHosts) {
+            final URI uri = ListingRetriever.publicReadUri(this.protocol, nodeHost, this.port, "");
+            final HttpRequest request = HttpRequest.newBuilder(uri) //
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody()) //
+                    .header("Authorization", encodeBasicAuthForReading()) //
+                    .timeout(WARM_UP_TIMEOUT) //
+                    .build();
+            for (int i = 0; i < connections; ++i) {
+                responses.add(this.client.sendAsync(request, BodyHandlers.discarding()).handle((response, failure) -> {
+                    if (failure != null) {
+                        LOGGER.fine(() -> "Warm-up request to '" + uri + "' failed: " + failure.getMessage());
+                    }
+                    return null;
+                }));
+            }
+        }
+        LOGGER.finest(() -> "Warming up " + responses.size() + " connections for bucket '" + this + "'");
+        return CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0]));
     }
 
     @Override
@@ -123,11 +213,81 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
         return listContents(path, true);
     }
 
-    private List<String> listContents(final String path, final boolean recursive) throws BucketAccessException {
+    /**
+     * List the contents of a path inside the bucket.
+     *
+     * @param path      relative path from the bucket root
+     * @param recursive {@code true} if the result should include entries in subdirectories, too
+     * @return list of file system entries
+     * @throws BucketAccessException if the contents are not accessible or the path is invalid
+     */
+    protected List<String> listContents(final String path, final boolean recursive) throws BucketAccessException {
+        return createContentLister().retrieve(removeLeadingSeparator(path), recursive);
+    }
+
+    /**
+     * Create a lister for the contents of this bucket.
+     *
+     * @return content lister
+     */
+    protected BucketContentLister createContentLister() {
         final URI uri = createPublicReadURI("");
-        final ListingRetriever contentLister = new ListingRetriever(this.client);
-        return new BucketContentLister(uri, contentLister, this.readPassword) //
-                .retrieve(removeLeadingSeparator(path), recursive);
+        final ListingRetriever contentLister = createListingRetriever();
+        return new BucketContentLister(uri, contentLister, this.readPassword);
+    }
+
+    private ListingRetriever createListingRetriever() {
+        return new ListingRetriever(this.readRequestExecutor, getRequestTimeouts(BucketOperation.LIST));
+    }
+
+    /**
+     * Get the timeouts for requests of the given operation.
+     *
+     * @param operation bucket operation
+     * @return request timeouts
+     */
+    protected RequestTimeouts getRequestTimeouts(final BucketOperation operation) {
+        return this.requestTimeouts.getOrDefault(operation, RequestTimeouts.none());
+    }
+
+    /**
+     * Send a request with the timeouts configured for the given operation and the active {@link Deadline}.
+     * <p>
+     * If the bucket knows several nodes, downloads go to any healthy node while all other requests go to the
+     * configured {@link #getHost() host}.
+     * </p>
+     *
+     * @param <R>            type of the response body
+     * @param operation      bucket operation the request belongs to
+     * @param requestBuilder builder of the request to send
+     * @param bodyHandler    handler for the response body
+     * @return response
+     * @throws IOException          if sending or receiving fails or a timeout expired
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    protected <R> HttpResponse<R> send(final BucketOperation operation, final HttpRequest.Builder requestBuilder,
+            final BodyHandler<R> bodyHandler) throws IOException, InterruptedException {
+        final RequestExecutor executor = (operation == DOWNLOAD) ? this.readRequestExecutor : this.requestExecutor;
+        return executor.send(requestBuilder, bodyHandler, getRequestTimeouts(operation));
+    }
+
+    @Override
+    public Set<String> listAllFilePaths() throws BucketAccessException {
+        return retrieveAllFilePaths().collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Retrieve the paths of all files in the bucket with a single listing request.
+     * <p>
+     * In contrast to {@link #listContentsRecursively()} this method returns an empty stream for an empty bucket.
+     * </p>
+     *
+     * @return paths of all files in the bucket
+     * @throws BucketAccessException if the contents are not accessible
+     */
+    protected Stream<String> retrieveAllFilePaths() throws BucketAccessException {
+        return createListingRetriever().retrieve(createPublicReadURI(""), this.readPassword) //
+                .filter(path -> !path.isEmpty());
     }
 
     // [impl->dsn~tls-configuration~1]
@@ -159,8 +319,7 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
 
     private void requestFileOnBucket(final URI uri, final Path localPath) throws BucketAccessException {
         try {
-            final var request = createGetRequest(uri);
-            final var response = this.client.send(request, BodyHandlers.ofFile(localPath));
+            final var response = send(DOWNLOAD, createGetRequest(uri), BodyHandlers.ofFile(localPath));
             HttpResponseEvaluator.evaluate(uri, DOWNLOAD, response.statusCode());
         } catch (final IOException exception) {
             throw BucketAccessException.downloadIoException(uri, DOWNLOAD, exception);
@@ -170,11 +329,10 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
         }
     }
 
-    private HttpRequest createGetRequest(final URI uri) {
+    private HttpRequest.Builder createGetRequest(final URI uri) {
         return HttpRequest.newBuilder(uri) //
                 .GET() //
-                .header("Authorization", encodeBasicAuthForReading()) //
-                .build();
+                .header("Authorization", encodeBasicAuthForReading());
     }
 
     // [impl->dsn~downloading-a-file-from-a-bucket-as-string~1]
@@ -189,8 +347,40 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
 
     private HttpResponse<String> requestFileOnBucketAsString(final URI uri) throws BucketAccessException {
         try {
-            final var request = createGetRequest(uri);
-            return this.client.send(request, BodyHandlers.ofString());
+            return this.readRequestExecutor.sendHedged(createGetRequest(uri), BodyHandlers.ofString(),
+                    getRequestTimeouts(DOWNLOAD));
+        } catch (final IOException exception) {
+            throw BucketAccessException.downloadIoException(uri, DOWNLOAD, exception);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw BucketAccessException.downloadInterruptedException(uri, DOWNLOAD);
+        }
+    }
+
+    @Override
+    public OptionalLong getFileSize(final String pathInBucket) throws BucketAccessException {
+        final var uri = createPublicReadURI(pathInBucket);
+        LOGGER.finest(() -> "Requesting size of file in bucket '" + this + "' at '" + uri + "'");
+        final HttpResponse<Void> response = requestFileMetadata(uri);
+        if (response.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+            return OptionalLong.empty();
+        }
+        HttpResponseEvaluator.evaluate(uri, DOWNLOAD, response.statusCode());
+        final OptionalLong size = response.headers().firstValueAsLong("Content-Length");
+        if (size.isEmpty()) {
+            throw new BucketAccessException(ExaError.messageBuilder("E-BFSJ-42")
+                    .message("BucketFS did not report the size of {{URI}}.", uri)
+                    .mitigation("Use a strategy that does not depend on file sizes reported by BucketFS.").toString());
+        }
+        return size;
+    }
+
+    private HttpResponse<Void> requestFileMetadata(final URI uri) throws BucketAccessException {
+        try {
+            final var request = HttpRequest.newBuilder(uri) //
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody()) //
+                    .header("Authorization", encodeBasicAuthForReading());
+            return send(DOWNLOAD, request, BodyHandlers.discarding());
         } catch (final IOException exception) {
             throw BucketAccessException.downloadIoException(uri, DOWNLOAD, exception);
         } catch (final InterruptedException exception) {
@@ -241,6 +431,18 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
         private int port;
         private String readPassword;
         private final HttpClientBuilder httpClientBuilder;
+        private HttpClientRegistry httpClientRegistry;
+        private HttpClient httpClient;
+        private List<String> hosts = List.of();
+        private NodeSelector.Strategy nodeSelectionStrategy = NodeSelector.Strategy.ROUND_ROBIN;
+        private int nodeFailureThreshold = NodeSelector.DEFAULT_FAILURE_THRESHOLD;
+        private Duration nodeEjectionDuration = NodeSelector.DEFAULT_EJECTION_DURATION;
+        private HedgingPolicy hedgingPolicy;
+        private CircuitBreakerRegistry circuitBreakers;
+        private boolean lazyHttpClient = false;
+        private int warmUpConnections = 0;
+        private final Map<BucketOperation, RequestTimeouts> requestTimeouts = new EnumMap<>(
+                Map.of(BucketOperation.LIST, ListingRetriever.DEFAULT_LIST_TIMEOUTS));
 
         Builder(final HttpClientBuilder httpClientBuilder) {
             this.httpClientBuilder = httpClientBuilder;
@@ -308,6 +510,112 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
             return self();
         }
 
+        /**
+         * Set the hosts of all cluster nodes that serve the BucketFS service.
+         * <p>
+         * Downloads and listings are spread across the healthy nodes, while uploads and deletions go to the first
+         * host, which also becomes the {@link #host(String) host} of the bucket. All nodes must use the same port and
+         * TLS configuration.
+         *
+         * @param hosts host names or IP addresses of the nodes
+         * @return Builder instance for fluent programming
+         */
+        public T hosts(final List<String> hosts) {
+            this.hosts = List.copyOf(hosts);
+            this.host = this.hosts.isEmpty() ? null : this.hosts.get(0);
+            return self();
+        }
+
+        /**
+         * Choose the node for each read request with the given strategy.
+         * <p>
+         * Defaults to {@link NodeSelector.Strategy#ROUND_ROBIN}. Only relevant with several {@link #hosts(List)
+         * hosts}.
+         *
+         * @param strategy node selection strategy
+         * @return Builder instance for fluent programming
+         */
+        public T nodeSelectionStrategy(final NodeSelector.Strategy strategy) {
+            this.nodeSelectionStrategy = strategy;
+            return self();
+        }
+
+        /**
+         * Stop sending requests to a node for the given duration after the given number of consecutive connection
+         * failures or server errors.
+         * <p>
+         * Defaults to ejecting a node for {@link NodeSelector#DEFAULT_EJECTION_DURATION 30 seconds} after
+         * {@value NodeSelector#DEFAULT_FAILURE_THRESHOLD} failures. Only relevant with several {@link #hosts(List)
+         * hosts}.
+         *
+         * @param failureThreshold number of consecutive failures after which a node is ejected
+         * @param duration         time for which a failing node is ejected
+         * @return Builder instance for fluent programming
+         */
+        public T nodeEjection(final int failureThreshold, final Duration duration) {
+            this.nodeFailureThreshold = failureThreshold;
+            this.nodeEjectionDuration = duration;
+            return self();
+        }
+
+        /**
+         * Hedge slow listings and downloads of text files according to the given policy.
+         * <p>
+         * A hedged request is sent a second time, to another node if several {@link #hosts(List) hosts} are
+         * configured, and the first response wins. Defaults to no hedging.
+         *
+         * @param hedgingPolicy policy that decides when to hedge
+         * @return Builder instance for fluent programming
+         */
+        public T hedging(final HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return self();
+        }
+
+        /**
+         * Guard each BucketFS endpoint ({@code host:port}) with a circuit breaker from the given registry.
+         * <p>
+         * While the breaker of an endpoint is open, requests fail immediately with a
+         * {@link BucketUnavailableException} instead of waiting for connection failures. Buckets that use the same
+         * registry share the breakers. Defaults to no circuit breakers.
+         *
+         * @param circuitBreakers registry of circuit breakers
+         * @return Builder instance for fluent programming
+         */
+        public T circuitBreakers(final CircuitBreakerRegistry circuitBreakers) {
+            this.circuitBreakers = circuitBreakers;
+            return self();
+        }
+
+        /**
+         * Define if the HTTP client is created on the first request instead of when building the bucket.
+         * <p>
+         * A lazy client makes building buckets cheap, because the {@link javax.net.ssl.SSLContext} and the threads of
+         * the client are only created for buckets that are actually used. Do not change this builder after building
+         * the bucket, because the client is created from its settings later. Defaults to {@code false}.
+         *
+         * @param lazyHttpClient {@code true} to create the HTTP client on first use
+         * @return Builder instance for fluent programming
+         */
+        public T lazyHttpClient(final boolean lazyHttpClient) {
+            this.lazyHttpClient = lazyHttpClient;
+            return self();
+        }
+
+        /**
+         * Open the given number of connections to each node in the background when building the bucket, so that the
+         * first operations use established connections.
+         * <p>
+         * See {@link ReadEnabledBucket#warmUp(int)}. Defaults to 0, i.e. no warm-up.
+         *
+         * @param connections number of connections per node
+         * @return Builder instance for fluent programming
+         */
+        public T warmUpConnections(final int connections) {
+            this.warmUpConnections = connections;
+            return self();
+        }
+
         /**
          * Set the port the BucketFS service listens on. Make sure to also call {@link #useTls(boolean)} with argument
          * {@code false} if this is an HTTP port or {@code true} if this is an HTTPS port.
@@ -359,6 +667,23 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
             return self();
         }
 
+        /**
+         * Define if the certificate specified via {@link #certificate(X509Certificate)} is pinned.
+         * <p>
+         * A pinned certificate is only compared with the certificate of the server instead of validating the
+         * certificate chain. This is faster and sufficient for self-signed certificates. The host name is still
+         * verified.
+         * <p>
+         * Defaults to {@code false}. Requires a certificate.
+         *
+         * @param pinCertificate {@code true} to accept only the exact configured certificate
+         * @return Builder instance for fluent programming
+         */
+        public T pinCertificate(final boolean pinCertificate) {
+            this.httpClientBuilder.pinCertificate(pinCertificate);
+            return self();
+        }
+
         /**
          * Update the certificate specified via {@link #certificate(X509Certificate)} to allow an additional host name,
          * e.g. {@code localhost}.
@@ -387,6 +712,114 @@ public class ReadEnabledBucket implements ReadOnlyBucket {
             return self();
         }
 
+        /**
+         * Share the HTTP client with other buckets that use the same registry and TLS configuration.
+         * <p>
+         * Defaults to creating a separate client for each bucket. Use {@link HttpClientRegistry#shared()} to reuse
+         * connections, TLS sessions and threads across all buckets on the same BucketFS service.
+         *
+         * @param httpClientRegistry registry to get the HTTP client from
+         * @return Builder instance for fluent programming
+         */
+        public T httpClientRegistry(final HttpClientRegistry httpClientRegistry) {
+            this.httpClientRegistry = httpClientRegistry;
+            return self();
+        }
+
+        /**
+         * Use the given executor for asynchronous tasks of the HTTP client.
+         * <p>
+         * Defaults to an unbounded thread pool created by the JDK. See {@link HttpClientBuilder#executor(Executor)}.
+         *
+         * @param executor executor for the HTTP client
+         * @return Builder instance for fluent programming
+         */
+        public T executor(final Executor executor) {
+            this.httpClientBuilder.executor(executor);
+            return self();
+        }
+
+        /**
+         * Fail connecting to BucketFS if the connection is not established within the given duration.
+         * <p>
+         * Defaults to no timeout.
+         *
+         * @param connectTimeout maximum duration for establishing a connection
+         * @return Builder instance for fluent programming
+         */
+        public T connectTimeout(final Duration connectTimeout) {
+            this.httpClientBuilder.connectTimeout(connectTimeout);
+            return self();
+        }
+
+        /**
+         * Request the given HTTP protocol version.
+         * <p>
+         * Defaults to {@link HttpClient.Version#HTTP_2} with fallback to HTTP/1.1.
+         *
+         * @param version HTTP protocol version
+         * @return Builder instance for fluent programming
+         */
+        public T httpVersion(final HttpClient.Version version) {
+            this.httpClientBuilder.version(version);
+            return self();
+        }
+
+        /**
+         * Follow redirects according to the given policy.
+         * <p>
+         * Defaults to {@link HttpClient.Redirect#NEVER}.
+         *
+         * @param redirect redirect policy
+         * @return Builder instance for fluent programming
+         */
+        public T followRedirects(final HttpClient.Redirect redirect) {
+            this.httpClientBuilder.followRedirects(redirect);
+            return self();
+        }
+
+        /**
+         * Use the given pre-built HTTP client.
+         * <p>
+         * The client takes precedence over all other HTTP and TLS settings of this builder, including
+         * {@link #httpClientRegistry(HttpClientRegistry)}.
+         *
+         * @param httpClient HTTP client to use
+         * @return Builder instance for fluent programming
+         */
+        public T httpClient(final HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return self();
+        }
+
+        /**
+         * Use the given timeouts for all requests of this bucket.
+         * <p>
+         * Defaults to no timeouts except for listing, which waits at most
+         * {@value ListingRetriever#LIST_TIMEOUT_SECONDS} seconds for the response.
+         *
+         * @param timeouts request timeouts
+         * @return Builder instance for fluent programming
+         */
+        public T requestTimeouts(final RequestTimeouts timeouts) {
+            for (final BucketOperation operation : BucketOperation.values()) {
+                this.requestTimeouts.put(operation, timeouts);
+            }
+            return self();
+        }
+
+        /**
+         * Use the given timeouts for requests of the given operation.
+         *
+         * @param operation bucket operation
+         * @param timeouts  request timeouts
+         * @return Builder instance for fluent programming
+         */
+        public T requestTimeouts(final BucketOperation operation, final RequestTimeouts timeouts) {
+            this.requestTimeouts.put(operation, timeouts);
+            return self();
+        }
+
         /**
          * Build a new {@link ReadEnabledBucket} instance.
          *
@@ -2,7 +2,10 @@ package com.exasol.bucketfs;
 
 import java.net.http.HttpClient;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.*;
+
+import com.exasol.bucketfs.list.ListingRetriever;
+import com.exasol.errorreporting.ExaError;
 
 import static com.exasol.bucketfs.BucketConstants.PATH_SEPARATOR;
 
@@ -94,6 +97,30 @@ public interface ReadOnlyBucket {
      */
     List<String> listContentsRecursively(String path) throws BucketAccessException;
 
+    /**
+     * List the paths of all files in the bucket with a single listing request.
+     * <p>
+     * In contrast to {@link #listContentsRecursively()} this method returns an empty set for an empty bucket and only
+     * contains files that BucketFS reports.
+     * </p>
+     * <p>
+     * The default implementation filters the result of {@link #listContentsRecursively()} and therefore fails for an
+     * empty bucket. Implementations should override it.
+     * </p>
+     *
+     * @return paths of all files relative to the bucket root
+     * @throws BucketAccessException if the contents are not accessible
+     */
+    default Set<String> listAllFilePaths() throws BucketAccessException {
+        final Set<String> paths = new LinkedHashSet<>();
+        for (final String path : listContentsRecursively()) {
+            if (!path.isEmpty() && !path.endsWith(PATH_SEPARATOR)) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
     /**
      * Download a file from a bucket to a local filesystem.
      *
@@ -112,6 +139,32 @@ public interface ReadOnlyBucket {
      */
     String downloadFileAsString(String pathInBucket) throws BucketAccessException;
 
+    /**
+     * Get the size of a file in a bucket without downloading it.
+     * <p>
+     * This sends a single {@code HEAD} request and reads the size from the {@code Content-Length} header of the
+     * response.
+     * </p>
+     * <p>
+     * The default implementation only looks the file up in {@link #listAllFilePaths()}. It returns an empty optional
+     * for missing files and fails for existing files, since the listing does not contain sizes. Implementations should
+     * override it.
+     * </p>
+     *
+     * @param pathInBucket path of the file in BucketFS
+     * @return size of the file in bytes or an empty optional if the file does not exist
+     * @throws BucketAccessException if the request failed or BucketFS did not report the size
+     */
+    default OptionalLong getFileSize(final String pathInBucket) throws BucketAccessException {
+        if (!listAllFilePaths().contains(ListingRetriever.removeLeadingSeparator(pathInBucket))) {
+            return OptionalLong.empty();
+        }
+        throw new BucketAccessException(ExaError.messageBuilder("E-BFSJ-60")
+                .message("Bucket {{bucket}} does not report the size of {{path}}.", getFullyQualifiedBucketName(),
+                        pathInBucket)
+                .mitigation("Use a strategy that does not depend on file sizes reported by BucketFS.").toString());
+    }
+
     /**
      * Return the UDF-visible path to the root of this bucket within BucketFS.
      * <p>
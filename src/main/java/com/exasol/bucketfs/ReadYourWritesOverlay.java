@@ -0,0 +1,169 @@
+package com.exasol.bucketfs;
+
+import static com.exasol.bucketfs.list.ListingRetriever.removeLeadingSeparator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.exasol.bucketfs.monitor.BucketFsMonitor.State;
+
+/**
+ * Local overlay that remembers the sources of recent uploads until BucketFS has synchronized them.
+ * <p>
+ * The overlay only keeps references to the local sources: the path of an uploaded file or the bytes of uploaded string
+ * content. Reading a pending object therefore returns the current content of the local file.
+ * </p>
+ */
+final class ReadYourWritesOverlay {
+    private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Remember an upload from a local file.
+     *
+     * @param pathInBucket path of the uploaded object inside the bucket
+     * @param localPath    local file that was uploaded
+     * @param state        monitor state before the upload
+     */
+    void put(final String pathInBucket, final Path localPath, final State state) {
+        this.pendingWrites.put(normalize(pathInBucket), new PendingWrite(pathInBucket, state, localPath, null));
+    }
+
+    /**
+     * Remember an upload of in-memory content.
+     *
+     * @param pathInBucket path of the uploaded object inside the bucket
+     * @param content      content that was uploaded
+     * @param state        monitor state before the upload
+     */
+    void put(final String pathInBucket, final byte[] content, final State state) {
+        this.pendingWrites.put(normalize(pathInBucket), new PendingWrite(pathInBucket, state, null, content));
+    }
+
+    /**
+     * Forget the pending upload to a path, e.g. because it was synchronized or overwritten by a source the overlay
+     * cannot serve.
+     *
+     * @param pathInBucket path inside the bucket
+     */
+    void remove(final String pathInBucket) {
+        this.pendingWrites.remove(normalize(pathInBucket));
+    }
+
+    /**
+     * Forget the given pending upload unless it was replaced by a newer one in the meantime.
+     *
+     * @param pendingWrite pending upload to forget
+     */
+    void remove(final PendingWrite pendingWrite) {
+        this.pendingWrites.remove(normalize(pendingWrite.getPathInBucket()), pendingWrite);
+    }
+
+    /**
+     * Get the pending upload to a path.
+     *
+     * @param pathInBucket path inside the bucket
+     * @return pending upload or an empty {@link Optional} if there is none
+     */
+    Optional<PendingWrite> get(final String pathInBucket) {
+        return Optional.ofNullable(this.pendingWrites.get(normalize(pathInBucket)));
+    }
+
+    /**
+     * Get all pending uploads.
+     *
+     * @return pending uploads
+     */
+    Collection<PendingWrite> getAll() {
+        return new ArrayList<>(this.pendingWrites.values());
+    }
+
+    /**
+     * Check if the overlay contains no pending uploads.
+     *
+     * @return {@code true} if there are no pending uploads
+     */
+    boolean isEmpty() {
+        return this.pendingWrites.isEmpty();
+    }
+
+    private static String normalize(final String pathInBucket) {
+        return removeLeadingSeparator(pathInBucket);
+    }
+
+    /**
+     * Upload that may not yet be synchronized in BucketFS.
+     */
+    static final class PendingWrite {
+        private final String pathInBucket;
+        private final State state;
+        private final Path localPath;
+        private final byte[] content;
+
+        private PendingWrite(final String pathInBucket, final State state, final Path localPath,
+                final byte[] content) {
+            this.pathInBucket = pathInBucket;
+            this.state = state;
+            this.localPath = localPath;
+            this.content = content;
+        }
+
+        /**
+         * @return path of the object inside the bucket as used for the upload
+         */
+        String getPathInBucket() {
+            return this.pathInBucket;
+        }
+
+        /**
+         * @return normalized path of the object inside the bucket without leading separator
+         */
+        String getNormalizedPath() {
+            return normalize(this.pathInBucket);
+        }
+
+        /**
+         * @return monitor state before the upload
+         */
+        State getState() {
+            return this.state;
+        }
+
+        /**
+         * Copy the content of the upload to a local file.
+         *
+         * @param target local file to write
+         * @throws IOException if reading the source or writing the target fails
+         */
+        void copyTo(final Path target) throws IOException {
+            if (this.localPath != null) {
+                Files.copy(this.localPath, target, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.write(target, this.content);
+            }
+        }
+
+        /**
+         * Get the size of the upload.
+         *
+         * @return size in bytes
+         * @throws IOException if reading the size of the source fails
+         */
+        long size() throws IOException {
+            return (this.localPath != null) ? Files.size(this.localPath) : this.content.length;
+        }
+
+        /**
+         * Read the content of the upload as string.
+         *
+         * @return content
+         * @throws IOException if reading the source fails
+         */
+        String readString() throws IOException {
+            final byte[] bytes = (this.localPath != null) ? Files.readAllBytes(this.localPath) : this.content;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -2,16 +2,21 @@ package com.exasol.bucketfs;
 
 import static com.exasol.errorreporting.ExaError.messageBuilder;
 
-import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.temporal.ChronoField;
-import java.util.Objects;
+import java.util.*;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 
+import com.exasol.bucketfs.ReadYourWritesOverlay.PendingWrite;
+import com.exasol.bucketfs.http.Deadline;
+import com.exasol.bucketfs.http.HttpClientBuilder;
+import com.exasol.bucketfs.list.ListingRetriever;
 import com.exasol.bucketfs.monitor.BucketFsMonitor;
 import com.exasol.bucketfs.monitor.BucketFsMonitor.State;
 import com.exasol.bucketfs.monitor.BucketFsMonitor.StateRetriever;
@@ -25,6 +30,7 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
     private static final long FILE_SYNC_POLLING_DELAY_IN_MILLISECONDS = 200;
     private final BucketFsMonitor monitor;
     private final StateRetriever stateRetriever;
+    private final ReadYourWritesOverlay overlay;
 
     /**
      * Sync aware bucket.
@@ -37,6 +43,7 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
         Objects.requireNonNull(builder.stateRetriever);
         this.monitor = builder.monitor;
         this.stateRetriever = builder.stateRetriever;
+        this.overlay = builder.readYourWrites ? new ReadYourWritesOverlay() : null;
     }
 
     // [impl->dsn~validating-bucketfs-object-synchronization-via-monitoring-api~1]
@@ -56,6 +63,7 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
         if (uploadResult.wasUploadNecessary()) {
             waitForFileToBeSynchronized(pathInBucket, state);
             recordUploadInHistory(pathInBucket);
+            forgetPendingWrite(extendPathInBucketDownToFilename(localPath, pathInBucket));
         }
     }
 
@@ -63,9 +71,9 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
     // upload success.
     // [impl->dsn~bucketfs-object-overwrite-throttle~1]
     private void delayRepeatedUploadToSamePath(final String extendedPathInBucket) throws BucketAccessException {
-        if (this.uploadHistory.containsKey(extendedPathInBucket)) {
-            final Instant lastUploadAt = this.uploadHistory.get(extendedPathInBucket) //
-                    .with(ChronoField.NANO_OF_SECOND, 0);
+        final Optional<Instant> lastUpload = this.uploadHistory.getLastUpload(extendedPathInBucket);
+        if (lastUpload.isPresent()) {
+            final Instant lastUploadAt = lastUpload.get().with(ChronoField.NANO_OF_SECOND, 0);
             final Instant now = Instant.now();
             if (now.isAfter(lastUploadAt.plusSeconds(1))) {
                 LOGGER.finest(() -> "Last upload to '" + extendedPathInBucket + "' was at " + lastUploadAt
@@ -83,7 +91,7 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
                 }
             }
         } else {
-            LOGGER.finest(() -> "No previous uploads to '" + extendedPathInBucket
+            LOGGER.finest(() -> "No recent uploads to '" + extendedPathInBucket
                     + "' recorded in upload history. No upload delay required.");
         }
     }
@@ -97,6 +105,7 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
         uploadStringContentNonBlocking(content, pathInBucket);
         waitForFileToBeSynchronized(pathInBucket, state);
         recordUploadInHistory(pathInBucket);
+        forgetPendingWrite(pathInBucket);
     }
 
     // [impl->dsn~uploading-input-stream-to-bucket~1]
@@ -110,6 +119,363 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
         recordUploadInHistory(pathInBucket);
     }
 
+    @Override
+    protected UploadResult uploadFileNonBlocking(final Path localPath, final String pathInBucket,
+            final boolean checkNecessity) throws BucketAccessException, FileNotFoundException {
+        final BucketFsMonitor.State state = isReadYourWritesEnabled() ? this.stateRetriever.getState() : null;
+        final UploadResult uploadResult = super.uploadFileNonBlocking(localPath, pathInBucket, checkNecessity);
+        if (isReadYourWritesEnabled() && uploadResult.wasUploadNecessary()) {
+            this.overlay.put(extendPathInBucketDownToFilename(localPath, pathInBucket), localPath, state);
+        }
+        return uploadResult;
+    }
+
+    @Override
+    public void uploadStringContentNonBlocking(final String content, final String pathInBucket)
+            throws BucketAccessException, TimeoutException {
+        final BucketFsMonitor.State state = isReadYourWritesEnabled() ? this.stateRetriever.getState() : null;
+        super.uploadStringContentNonBlocking(content, pathInBucket);
+        if (isReadYourWritesEnabled()) {
+            this.overlay.put(pathInBucket, content.getBytes(StandardCharsets.UTF_8), state);
+        }
+    }
+
+    @Override
+    public void uploadInputStreamNonBlocking(final Supplier<InputStream> inputStreamSupplier,
+            final String pathInBucket) throws BucketAccessException, TimeoutException {
+        forgetPendingWrite(pathInBucket);
+        super.uploadInputStreamNonBlocking(inputStreamSupplier, pathInBucket);
+    }
+
+    @Override
+    public void deleteFileNonBlocking(final String filenameInBucket) throws BucketAccessException {
+        forgetPendingWrite(filenameInBucket);
+        super.deleteFileNonBlocking(filenameInBucket);
+    }
+
+    @Override
+    public void downloadFile(final String pathInBucket, final Path localPath) throws BucketAccessException {
+        final Optional<PendingWrite> pendingWrite = getUnsynchronizedPendingWrite(pathInBucket);
+        if (pendingWrite.isPresent()) {
+            LOGGER.fine(() -> "Serving download of '" + pathInBucket + "' from local source of pending upload");
+            try {
+                pendingWrite.get().copyTo(localPath);
+            } catch (final IOException exception) {
+                throw createPendingWriteReadException(pathInBucket, exception);
+            }
+        } else {
+            super.downloadFile(pathInBucket, localPath);
+        }
+    }
+
+    @Override
+    public String downloadFileAsString(final String pathInBucket) throws BucketAccessException {
+        final Optional<PendingWrite> pendingWrite = getUnsynchronizedPendingWrite(pathInBucket);
+        if (pendingWrite.isPresent()) {
+            LOGGER.fine(() -> "Serving download of '" + pathInBucket + "' from local source of pending upload");
+            try {
+                return pendingWrite.get().readString();
+            } catch (final IOException exception) {
+                throw createPendingWriteReadException(pathInBucket, exception);
+            }
+        } else {
+            return super.downloadFileAsString(pathInBucket);
+        }
+    }
+
+    @Override
+    public OptionalLong getFileSize(final String pathInBucket) throws BucketAccessException {
+        final Optional<PendingWrite> pendingWrite = getUnsynchronizedPendingWrite(pathInBucket);
+        if (pendingWrite.isPresent()) {
+            try {
+                return OptionalLong.of(pendingWrite.get().size());
+            } catch (final IOException exception) {
+                throw createPendingWriteReadException(pathInBucket, exception);
+            }
+        } else {
+            return super.getFileSize(pathInBucket);
+        }
+    }
+
+    @Override
+    protected List<String> listContents(final String path, final boolean recursive) throws BucketAccessException {
+        final List<String> pendingPaths = getUnsynchronizedPendingPaths();
+        if (pendingPaths.isEmpty()) {
+            return super.listContents(path, recursive);
+        } else {
+            return createContentLister().retrieve(ListingRetriever.removeLeadingSeparator(path), recursive,
+                    pendingPaths);
+        }
+    }
+
+    private boolean isReadYourWritesEnabled() {
+        return this.overlay != null;
+    }
+
+    private void forgetPendingWrite(final String pathInBucket) {
+        if (isReadYourWritesEnabled()) {
+            this.overlay.remove(pathInBucket);
+        }
+    }
+
+    private Optional<PendingWrite> getUnsynchronizedPendingWrite(final String pathInBucket)
+            throws BucketAccessException {
+        if (!isReadYourWritesEnabled()) {
+            return Optional.empty();
+        }
+        final Optional<PendingWrite> pendingWrite = this.overlay.get(pathInBucket);
+        if (pendingWrite.isPresent() && isSynchronized(pendingWrite.get())) {
+            return Optional.empty();
+        }
+        return pendingWrite;
+    }
+
+    private List<String> getUnsynchronizedPendingPaths() throws BucketAccessException {
+        if (!isReadYourWritesEnabled() || this.overlay.isEmpty()) {
+            return List.of();
+        }
+        final List<String> paths = new ArrayList<>();
+        for (final PendingWrite pendingWrite : this.overlay.getAll()) {
+            if (!isSynchronized(pendingWrite)) {
+                paths.add(pendingWrite.getNormalizedPath());
+            }
+        }
+        return paths;
+    }
+
+    // Forgets the pending write as soon as the monitor reports the synchronization.
+    private boolean isSynchronized(final PendingWrite pendingWrite) throws BucketAccessException {
+        if (this.monitor.isObjectSynchronized(this, pendingWrite.getPathInBucket(), pendingWrite.getState())) {
+            this.overlay.remove(pendingWrite);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private static BucketAccessException createPendingWriteReadException(final String pathInBucket,
+            final IOException exception) {
+        return new BucketAccessException(messageBuilder("E-BFSJ-36")
+                .message("Unable to read local source of pending upload to {{path}}.", pathInBucket).toString(),
+                exception);
+    }
+
+    /**
+     * Upload an archive to the bucket and block until BucketFS has extracted all of its files.
+     * <p>
+     * This method reads the table of contents of the local archive before uploading it. After the upload it waits
+     * until the {@link BucketFsMonitor} reports the archive as synchronized since the upload was started. It then
+     * compares the files from the table of contents with one listing of the bucket per polling round until all files
+     * appeared in the extraction directory. BucketFS extracts an archive {@code dir/name.tar.gz} into the directory
+     * {@code dir/name/}.
+     * </p>
+     * <p>
+     * Checking the monitor first ensures that files left over from a previous extraction of an archive with the same
+     * name do not end the wait early. If a {@link Deadline} is active, the method gives up when it expires.
+     * </p>
+     *
+     * @param localArchive path of the local archive, must have one of the
+     *                     {@link UnsynchronizedBucket#SUPPORTED_ARCHIVE_EXTENSIONS supported extensions}
+     * @param pathInBucket path inside the bucket
+     * @throws TimeoutException      if the extraction takes too long
+     * @throws BucketAccessException if the archive cannot be read or uploaded
+     * @throws FileNotFoundException if the archive is not found
+     */
+    // [impl->dsn~waiting-until-archive-extracted~1]
+    public void uploadArchive(final Path localArchive, final String pathInBucket)
+            throws TimeoutException, BucketAccessException, FileNotFoundException {
+        final String extendedPathInBucket = extendPathInBucketDownToFilename(localArchive, pathInBucket);
+        final ArchiveTableOfContents tableOfContents = readTableOfContents(localArchive);
+        delayRepeatedUploadToSamePath(pathInBucket);
+        final BucketFsMonitor.State state = this.stateRetriever.getState();
+        final UploadResult uploadResult = uploadFileNonBlocking(localArchive, pathInBucket);
+        if (uploadResult.wasUploadNecessary()) {
+            waitForArchiveToBeExtracted(extendedPathInBucket, state, tableOfContents);
+            recordUploadInHistory(pathInBucket);
+            forgetPendingWrite(extendedPathInBucket);
+        }
+    }
+
+    private static ArchiveTableOfContents readTableOfContents(final Path localArchive)
+            throws BucketAccessException, FileNotFoundException {
+        if (!Files.exists(localArchive)) {
+            throw new FileNotFoundException(localArchive.toString());
+        }
+        try {
+            return ArchiveTableOfContents.read(localArchive);
+        } catch (final IOException exception) {
+            throw new BucketAccessException(messageBuilder("E-BFSJ-35")
+                    .message("Unable to read table of contents of archive {{archive}}.", localArchive).toString(),
+                    exception);
+        }
+    }
+
+    private void waitForArchiveToBeExtracted(final String pathInBucket, final BucketFsMonitor.State state,
+            final ArchiveTableOfContents tableOfContents) throws TimeoutException, BucketAccessException {
+        final String extractionDirectory = ListingRetriever
+                .removeLeadingSeparator(ArchiveTableOfContents.getExtractionDirectory(pathInBucket));
+        final Set<String> missingFiles = new HashSet<>(tableOfContents.getFiles());
+        final Deadline deadline = Deadline.current().orElse(null);
+        final var expiry = System.currentTimeMillis() + BUCKET_SYNC_TIMEOUT_IN_MILLISECONDS;
+        boolean archiveSynchronized = false;
+        while (System.currentTimeMillis() < expiry) {
+            if ((deadline != null) && deadline.isExpired()) {
+                throw new TimeoutException(messageBuilder("E-BFSJ-61")
+                        .message("Deadline expired while waiting for archive {{archive}} to be extracted in bucket"
+                                + " {{bucket}}.", pathInBucket, getFullyQualifiedBucketName())
+                        .toString());
+            }
+            archiveSynchronized = archiveSynchronized || this.monitor.isObjectSynchronized(this, pathInBucket, state);
+            if (archiveSynchronized) {
+                retrieveAllFilePaths() //
+                        .filter(path -> path.startsWith(extractionDirectory)) //
+                        .map(path -> path.substring(extractionDirectory.length())) //
+                        .forEach(missingFiles::remove);
+                if (missingFiles.isEmpty()) {
+                    LOGGER.fine(() -> "All " + tableOfContents.getFiles().size() + " files of archive '"
+                            + pathInBucket + "' are extracted to '" + extractionDirectory + "'");
+                    return;
+                }
+                LOGGER.finest(() -> missingFiles.size() + " files of archive '" + pathInBucket + "' not yet extracted");
+            }
+            pauseBeforeNextSyncCheck(pathInBucket);
+        }
+        if (!archiveSynchronized) {
+            throw createSyncTimeoutException(pathInBucket, state);
+        }
+        final String message = String.format(
+                "Timeout waiting for archive '%s' to be extracted in bucket '%s'. %d of %d files are missing in '%s'.",
+                pathInBucket, getFullyQualifiedBucketName(), missingFiles.size(), tableOfContents.getFiles().size(),
+                extractionDirectory);
+        LOGGER.severe(() -> message);
+        throw new TimeoutException(message);
+    }
+
+    /**
+     * Upload multiple files to the bucket and block until all of them are synchronized.
+     * <p>
+     * In contrast to calling {@link #uploadFile(Path, String)} in a loop, this method does not wait for the
+     * synchronization of a file before it starts transferring the next one. Instead it keeps up to
+     * {@code maxPendingSyncs} uploaded files waiting for synchronization while the transfer of the following files
+     * continues. The method only returns after all files are synchronized.
+     * </p>
+     * <p>
+     * Files are uploaded in the iteration order of the given map. If a path in the bucket appears more than once, the
+     * upload to that path waits until the previous upload to the same path is synchronized.
+     * </p>
+     * <p>
+     * The method checks the necessity of all uploads at once before the first transfer, so that strategies like the
+     * {@link com.exasol.bucketfs.uploadnecessity.ChecksumUploadNecessityCheckStrategy checksum strategy} can compare
+     * all files in a single round trip.
+     * </p>
+     *
+     * @param files           map of local file paths to the corresponding paths inside the bucket
+     * @param maxPendingSyncs maximum number of uploaded files that wait for synchronization at the same time
+     * @throws TimeoutException      if the synchronization check of any file takes too long
+     * @throws BucketAccessException if a file cannot be uploaded
+     * @throws FileNotFoundException if a source file is not found
+     */
+    // [impl->dsn~uploading-to-bucket~1]
+    public void uploadFilesPipelined(final Map<Path, String> files, final int maxPendingSyncs)
+            throws TimeoutException, BucketAccessException, FileNotFoundException {
+        uploadFilesPipelinedWithinDeadline(files, maxPendingSyncs);
+    }
+
+    /**
+     * Upload multiple files to the bucket like {@link #uploadFilesPipelined(Map, int)} and finish before the given
+     * deadline.
+     * <p>
+     * The deadline limits every request the upload makes, including the upload necessity check, as well as the time
+     * spent waiting for synchronization.
+     * </p>
+     *
+     * @param files           map of local file paths to the corresponding paths inside the bucket
+     * @param maxPendingSyncs maximum number of uploaded files that wait for synchronization at the same time
+     * @param deadline        deadline for the complete operation
+     * @throws TimeoutException      if the deadline expires while waiting for synchronization or the synchronization
+     *                               check of any file takes too long
+     * @throws BucketAccessException if a file cannot be uploaded, e.g. because the deadline expired during a request
+     * @throws FileNotFoundException if a source file is not found
+     */
+    public void uploadFilesPipelined(final Map<Path, String> files, final int maxPendingSyncs,
+            final Deadline deadline) throws TimeoutException, BucketAccessException, FileNotFoundException {
+        final Deadline.Scope scope = deadline.activate();
+        try {
+            uploadFilesPipelinedWithinDeadline(files, maxPendingSyncs);
+        } finally {
+            scope.close();
+        }
+    }
+
+    private void uploadFilesPipelinedWithinDeadline(final Map<Path, String> files, final int maxPendingSyncs)
+            throws TimeoutException, BucketAccessException, FileNotFoundException {
+        if (maxPendingSyncs < 1) {
+            throw new IllegalArgumentException(messageBuilder("E-BFSJ-32")
+                    .message("Invalid maximum number of pending synchronizations {{maxPendingSyncs}}.", maxPendingSyncs)
+                    .mitigation("Specify a value of at least 1.").toString());
+        }
+        final Map<Path, String> necessaryUploads = getUploadNecessityCheckStrategy().filterNecessaryUploads(files,
+                this);
+        final List<PendingSync> pendingSyncs = new ArrayList<>();
+        for (final Map.Entry<Path, String> file : necessaryUploads.entrySet()) {
+            final String pathInBucket = file.getValue();
+            while (isPending(pendingSyncs, pathInBucket)) {
+                waitForAnyPendingSync(pendingSyncs);
+            }
+            delayRepeatedUploadToSamePath(pathInBucket);
+            final BucketFsMonitor.State state = this.stateRetriever.getState();
+            uploadFileNonBlocking(file.getKey(), pathInBucket, false);
+            pendingSyncs.add(new PendingSync(pathInBucket,
+                    extendPathInBucketDownToFilename(file.getKey(), pathInBucket), state));
+            removeSynchronized(pendingSyncs);
+            while (pendingSyncs.size() >= maxPendingSyncs) {
+                waitForAnyPendingSync(pendingSyncs);
+            }
+        }
+        while (!pendingSyncs.isEmpty()) {
+            waitForAnyPendingSync(pendingSyncs);
+        }
+    }
+
+    private static boolean isPending(final List<PendingSync> pendingSyncs, final String pathInBucket) {
+        return pendingSyncs.stream().anyMatch(pending -> pending.pathInBucket.equals(pathInBucket));
+    }
+
+    private void waitForAnyPendingSync(final List<PendingSync> pendingSyncs)
+            throws TimeoutException, BucketAccessException {
+        while (!removeSynchronized(pendingSyncs)) {
+            final Optional<Deadline> deadline = Deadline.current();
+            if (deadline.isPresent() && deadline.get().isExpired()) {
+                throw new TimeoutException(messageBuilder("E-BFSJ-53")
+                        .message("Deadline expired while waiting for {{count}} uploads to be synchronized in bucket"
+                                + " {{bucket}}.", pendingSyncs.size(), getFullyQualifiedBucketName())
+                        .toString());
+            }
+            for (final PendingSync pending : pendingSyncs) {
+                if (pending.isExpired()) {
+                    throw createSyncTimeoutException(pending.pathInBucket, pending.state);
+                }
+            }
+            pauseBeforeNextSyncCheck(pendingSyncs.get(0).pathInBucket);
+        }
+    }
+
+    private boolean removeSynchronized(final List<PendingSync> pendingSyncs) throws BucketAccessException {
+        boolean removedAny = false;
+        final Iterator<PendingSync> iterator = pendingSyncs.iterator();
+        while (iterator.hasNext()) {
+            final PendingSync pending = iterator.next();
+            if (this.monitor.isObjectSynchronized(this, pending.pathInBucket, pending.state)) {
+                LOGGER.finest(() -> "Pipelined upload to '" + pending.pathInBucket + "' is synchronized");
+                recordUploadInHistory(pending.pathInBucket);
+                forgetPendingWrite(pending.filePathInBucket);
+                iterator.remove();
+                removedAny = true;
+            }
+        }
+        return removedAny;
+    }
+
     // [impl->dsn~waiting-until-archive-extracted~1]
     // [impl->dsn~waiting-until-file-appears-in-target-directory~1]
     private void waitForFileToBeSynchronized(final String pathInBucket, final BucketFsMonitor.State state)
@@ -119,20 +485,47 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
             if (this.monitor.isObjectSynchronized(this, pathInBucket, state)) {
                 return;
             }
-            try {
-                Thread.sleep(FILE_SYNC_POLLING_DELAY_IN_MILLISECONDS);
-            } catch (final InterruptedException exception) {
-                Thread.currentThread().interrupt();
-                throw new BucketAccessException(messageBuilder("E-BFSJ-10")
-                        .message("Interrupted while waiting for {{path}} to be synchronized on BucketFS.", pathInBucket)
-                        .toString());
-            }
+            pauseBeforeNextSyncCheck(pathInBucket);
         }
+        throw createSyncTimeoutException(pathInBucket, state);
+    }
+
+    private void pauseBeforeNextSyncCheck(final String pathInBucket) throws BucketAccessException {
+        try {
+            Thread.sleep(FILE_SYNC_POLLING_DELAY_IN_MILLISECONDS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new BucketAccessException(messageBuilder("E-BFSJ-10")
+                    .message("Interrupted while waiting for {{path}} to be synchronized on BucketFS.", pathInBucket)
+                    .toString());
+        }
+    }
+
+    private TimeoutException createSyncTimeoutException(final String pathInBucket, final BucketFsMonitor.State state) {
         final String message = String.format(
                 "Timeout waiting for object '%s' to be synchronized in bucket '%s' after %s.", //
                 pathInBucket, getFullyQualifiedBucketName(), state.toString());
         LOGGER.severe(() -> message);
-        throw new TimeoutException(message);
+        return new TimeoutException(message);
+    }
+
+    private static final class PendingSync {
+        private final String pathInBucket;
+        private final String filePathInBucket;
+        private final BucketFsMonitor.State state;
+        private final long expiry;
+
+        private PendingSync(final String pathInBucket, final String filePathInBucket,
+                final BucketFsMonitor.State state) {
+            this.pathInBucket = pathInBucket;
+            this.filePathInBucket = filePathInBucket;
+            this.state = state;
+            this.expiry = System.currentTimeMillis() + BUCKET_SYNC_TIMEOUT_IN_MILLISECONDS;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= this.expiry;
+        }
     }
 
     /**
@@ -153,6 +546,18 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
     public static class Builder<T extends Builder<T>> extends WriteEnabledBucket.Builder<Builder<T>> {
         private BucketFsMonitor monitor;
         private StateRetriever stateRetriever;
+        private boolean readYourWrites = false;
+
+        Builder(final HttpClientBuilder httpClientBuilder) {
+            super(httpClientBuilder);
+        }
+
+        /**
+         * Create a new instance of {@link Builder}.
+         */
+        protected Builder() {
+            super();
+        }
 
         @SuppressWarnings("unchecked")
         @Override
@@ -184,6 +589,23 @@ public class SyncAwareBucket extends WriteEnabledBucket implements Bucket {
             return self();
         }
 
+        /**
+         * Define if reads should see the bucket's own uploads before BucketFS has synchronized them. Defaults to
+         * {@code false}.
+         * <p>
+         * If enabled, the bucket remembers the local source of each non-blocking file or string upload until the
+         * monitor reports its synchronization. Until then downloads and listings of that path are served from the local
+         * source. Uploads from an input stream are not covered, since the stream cannot be read twice.
+         * </p>
+         *
+         * @param value {@code true} to enable read-your-writes consistency for uploads through this bucket
+         * @return Builder instance for fluent programming
+         */
+        public T readYourWrites(final boolean value) {
+            this.readYourWrites = value;
+            return self();
+        }
+
         /**
          * Build a new {@link SyncAwareBucket} instance.
          *
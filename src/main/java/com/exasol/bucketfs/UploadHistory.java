@@ -0,0 +1,110 @@
+package com.exasol.bucketfs;
+
+import java.time.*;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe history of the latest upload to each path in a bucket.
+ * <p>
+ * The history is only needed for the overwrite throttle that delays repeated uploads to the same path. Entries that
+ * are older than the retention period can no longer cause a delay, so the history evicts them. This keeps the history
+ * small in long-running applications that upload many files with unique names.
+ * </p>
+ */
+// [impl->dsn~bucketfs-object-overwrite-throttle~1]
+public final class UploadHistory {
+    /**
+     * Default retention period of history entries.
+     * <p>
+     * The overwrite throttle works with a resolution of one second, so entries older than two seconds are never
+     * relevant.
+     * </p>
+     */
+    public static final Duration DEFAULT_RETENTION = Duration.ofSeconds(2);
+    private static final Logger LOGGER = Logger.getLogger(UploadHistory.class.getName());
+    private final Map<String, Instant> lastUploads = new ConcurrentHashMap<>();
+    private final AtomicLong nextEvictionAtMillis;
+    private final Duration retention;
+    private final Clock clock;
+
+    /**
+     * Create a new {@link UploadHistory} with the {@link #DEFAULT_RETENTION default retention}.
+     */
+    public UploadHistory() {
+        this(DEFAULT_RETENTION, Clock.systemUTC());
+    }
+
+    /**
+     * Create a new {@link UploadHistory}.
+     *
+     * @param retention period after which entries are evicted
+     * @param clock     clock used for timestamps
+     */
+    UploadHistory(final Duration retention, final Clock clock) {
+        this.retention = retention;
+        this.clock = clock;
+        this.nextEvictionAtMillis = new AtomicLong(clock.millis() + retention.toMillis());
+    }
+
+    /**
+     * Record an upload to the given path at the current point in time.
+     *
+     * @param pathInBucket path in the bucket to which an upload happened
+     * @return time of the recorded upload
+     */
+    public Instant record(final String pathInBucket) {
+        final Instant now = this.clock.instant();
+        this.lastUploads.put(pathInBucket, now);
+        evictExpiredEntriesIfDue(now);
+        return now;
+    }
+
+    /**
+     * Get the time of the latest upload to the given path.
+     *
+     * @param pathInBucket path in the bucket
+     * @return time of the latest upload or an empty {@link Optional} if the history has no entry for the path or the
+     *         entry is older than the retention period
+     */
+    public Optional<Instant> getLastUpload(final String pathInBucket) {
+        final Instant lastUpload = this.lastUploads.get(pathInBucket);
+        if (lastUpload == null) {
+            return Optional.empty();
+        } else if (isExpired(lastUpload, this.clock.instant())) {
+            this.lastUploads.remove(pathInBucket, lastUpload);
+            return Optional.empty();
+        } else {
+            return Optional.of(lastUpload);
+        }
+    }
+
+    /**
+     * Get the number of entries currently held by the history, including expired entries not yet evicted.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return this.lastUploads.size();
+    }
+
+    private boolean isExpired(final Instant uploadTime, final Instant now) {
+        return uploadTime.plus(this.retention).isBefore(now);
+    }
+
+    // Only one thread evicts per retention period. Removing by value keeps entries that were updated concurrently.
+    private void evictExpiredEntriesIfDue(final Instant now) {
+        final long nowMillis = now.toEpochMilli();
+        final long dueAt = this.nextEvictionAtMillis.get();
+        if ((nowMillis >= dueAt)
+                && this.nextEvictionAtMillis.compareAndSet(dueAt, nowMillis + this.retention.toMillis())) {
+            final int sizeBefore = this.lastUploads.size();
+            this.lastUploads.values().removeIf(uploadTime -> isExpired(uploadTime, now));
+            LOGGER.finest(() -> "Evicted " + (sizeBefore - this.lastUploads.size())
+                    + " expired entries from upload history");
+        }
+    }
+}
@@ -5,6 +5,7 @@ import static com.exasol.bucketfs.BucketOperation.UPLOAD;
 import static com.exasol.errorreporting.ExaError.messageBuilder;
 
 import java.io.*;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpRequest;
@@ -12,12 +13,18 @@ import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.file.Path;
-import java.time.Instant;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 
+import com.exasol.bucketfs.http.CircuitOpenException;
+import com.exasol.bucketfs.http.HttpClientBuilder;
 import com.exasol.bucketfs.uploadnecessity.UploadAlwaysStrategy;
 import com.exasol.bucketfs.uploadnecessity.UploadNecessityCheckStrategy;
 
@@ -25,9 +32,25 @@ import com.exasol.bucketfs.uploadnecessity.UploadNecessityCheckStrategy;
  * An abstraction for a bucket inside Exasol's BucketFS.
  */
 public class WriteEnabledBucket extends ReadEnabledBucket implements UnsynchronizedBucket {
+    /** Default minimum size of uploads that wait for the server to accept the request: disabled */
+    public static final long DEFAULT_EXPECT_CONTINUE_THRESHOLD = Long.MAX_VALUE;
+    /** Default time for which a failed write permission check is cached */
+    public static final Duration DEFAULT_WRITE_PERMISSION_DENIAL_EXPIRY = Duration.ofMinutes(1);
+    /**
+     * Path reserved for the write permission check. The check deletes this file, so do not store data under this
+     * path if you enable the check.
+     */
+    public static final String WRITE_PERMISSION_CHECK_PATH = ".bfsj-write-permission-check";
     private static final Logger LOGGER = Logger.getLogger(WriteEnabledBucket.class.getName());
     private final String writePassword;
+    private final long expectContinueThreshold;
+    private final boolean writePermissionPreflight;
+    private final long writePermissionDenialExpiryNanos;
+    private final LongSupplier nanoClock;
+    private volatile boolean writePermissionConfirmed = false;
+    private WritePermissionDenial writePermissionDenial = null;
     private UploadNecessityCheckStrategy uploadNecessityCheckStrategy = new UploadAlwaysStrategy();
+    private final List<BucketChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     /**
      * @param builder builder
@@ -35,6 +58,10 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
     protected WriteEnabledBucket(final Builder<? extends Builder<?>> builder) {
         super(builder);
         this.writePassword = builder.writePassword;
+        this.expectContinueThreshold = builder.expectContinueThreshold;
+        this.writePermissionPreflight = builder.writePermissionPreflight;
+        this.writePermissionDenialExpiryNanos = builder.writePermissionDenialExpiry.toNanos();
+        this.nanoClock = builder.nanoClock;
     }
 
     @Override
@@ -46,11 +73,28 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
     @Override
     public UploadResult uploadFileNonBlocking(final Path localPath, final String pathInBucket)
             throws BucketAccessException, FileNotFoundException {
+        return uploadFileNonBlocking(localPath, pathInBucket, true);
+    }
+
+    /**
+     * Upload a file without waiting for the synchronization.
+     *
+     * @param localPath      path of the file to be uploaded
+     * @param pathInBucket   path inside the bucket
+     * @param checkNecessity {@code true} to ask the {@link UploadNecessityCheckStrategy} before uploading,
+     *                       {@code false} if the caller already checked the necessity
+     * @return upload result
+     * @throws BucketAccessException if the file cannot be uploaded to the given URI
+     * @throws FileNotFoundException in case the source file is not found
+     */
+    protected UploadResult uploadFileNonBlocking(final Path localPath, final String pathInBucket,
+            final boolean checkNecessity) throws BucketAccessException, FileNotFoundException {
         final var extendedPathInBucket = extendPathInBucketDownToFilename(localPath, pathInBucket);
-        if (this.uploadNecessityCheckStrategy.isUploadNecessary(localPath, pathInBucket, this)) {
+        if (!checkNecessity || this.uploadNecessityCheckStrategy.isUploadNecessary(localPath, pathInBucket, this)) {
             final var uri = createWriteUri(extendedPathInBucket);
             uploadWithBodyPublisher(uri, BodyPublishers.ofFile(localPath), "file '" + localPath + "'");
             recordUploadInHistory(pathInBucket);
+            notifyChangeListeners(extendedPathInBucket);
             return new UploadResult(true);
         } else {
             LOGGER.fine("Skipping upload since the " + this.uploadNecessityCheckStrategy.getClass().getSimpleName()
@@ -85,13 +129,20 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
     }
 
     private void requestUpload(final URI uri, final BodyPublisher bodyPublisher) throws BucketAccessException {
+        if (this.writePermissionPreflight) {
+            checkWritePermission();
+        }
         try {
             final var request = HttpRequest.newBuilder(uri) //
                     .PUT(bodyPublisher) //
-                    .header("Authorization", encodeBasicAuth(true)) //
-                    .build();
-            final var response = getClient().send(request, BodyHandlers.ofString());
+                    .expectContinue(isExpectContinueRequired(bodyPublisher)) //
+                    .header("Authorization", encodeBasicAuth(true));
+            final var response = send(UPLOAD, request, BodyHandlers.ofString());
             final var statusCode = response.statusCode();
+            if ((statusCode == HttpURLConnection.HTTP_UNAUTHORIZED)
+                    || (statusCode == HttpURLConnection.HTTP_FORBIDDEN)) {
+                this.writePermissionConfirmed = false;
+            }
             HttpResponseEvaluator.evaluate(uri, UPLOAD, statusCode);
         } catch (final IOException exception) {
             throw createUploadIoException(uri, exception);
@@ -101,6 +152,80 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
         }
     }
 
+    private boolean isExpectContinueRequired(final BodyPublisher bodyPublisher) {
+        final long contentLength = bodyPublisher.contentLength();
+        return (contentLength >= 0) && (contentLength >= this.expectContinueThreshold);
+    }
+
+    /**
+     * Check if BucketFS accepts the write password of this bucket.
+     * <p>
+     * BucketFS has no endpoint for checking permissions, so the check sends a request to delete the file
+     * {@link #WRITE_PERMISSION_CHECK_PATH}, which is reserved for this purpose and normally does not exist. Do not
+     * store data under this path. The result is cached: after a successful check this method returns immediately until
+     * an upload is rejected with status 401 or 403. After the write password was rejected it fails immediately until
+     * the {@link Builder#writePermissionDenialExpiry(Duration) denial expiry} has passed. I/O errors are not cached.
+     * </p>
+     *
+     * @throws BucketAccessException if BucketFS rejects the write password or the check fails
+     */
+    public void checkWritePermission() throws BucketAccessException {
+        if (this.writePermissionConfirmed) {
+            return;
+        }
+        final URI uri = createWriteUri(WRITE_PERMISSION_CHECK_PATH);
+        final WritePermissionDenial denial = getCachedWritePermissionDenial();
+        if (denial != null) {
+            throw createWritePermissionDeniedException(uri, denial.statusCode);
+        }
+        final int statusCode = requestWritePermissionCheck(uri);
+        if ((statusCode == HttpURLConnection.HTTP_OK) || (statusCode == HttpURLConnection.HTTP_NOT_FOUND)) {
+            LOGGER.finest(() -> "Write permission check for bucket '" + this + "' succeeded");
+            this.writePermissionConfirmed = true;
+        } else if ((statusCode == HttpURLConnection.HTTP_UNAUTHORIZED)
+                || (statusCode == HttpURLConnection.HTTP_FORBIDDEN)) {
+            cacheWritePermissionDenial(statusCode);
+            throw createWritePermissionDeniedException(uri, statusCode);
+        } else {
+            HttpResponseEvaluator.evaluate(uri, DELETE, statusCode);
+        }
+    }
+
+    private synchronized WritePermissionDenial getCachedWritePermissionDenial() {
+        if ((this.writePermissionDenial != null)
+                && ((this.nanoClock.getAsLong() - this.writePermissionDenial.expiresAtNanos) >= 0)) {
+            this.writePermissionDenial = null;
+        }
+        return this.writePermissionDenial;
+    }
+
+    private synchronized void cacheWritePermissionDenial(final int statusCode) {
+        this.writePermissionDenial = new WritePermissionDenial(statusCode,
+                this.nanoClock.getAsLong() + this.writePermissionDenialExpiryNanos);
+    }
+
+    private int requestWritePermissionCheck(final URI uri) throws BucketAccessException {
+        try {
+            final var request = HttpRequest.newBuilder(uri) //
+                    .DELETE() //
+                    .header("Authorization", encodeBasicAuth(true));
+            return send(DELETE, request, BodyHandlers.discarding()).statusCode();
+        } catch (final CircuitOpenException exception) {
+            throw new BucketUnavailableException(uri, DELETE, exception);
+        } catch (final IOException exception) {
+            throw createUploadIoException(uri, exception);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw createUploadInterruptedException(uri);
+        }
+    }
+
+    private BucketAccessException createWritePermissionDeniedException(final URI uri, final int statusCode) {
+        return new BucketAccessException(messageBuilder("E-BFSJ-59")
+                .message("BucketFS denied write access to bucket {{bucket}}.", getFullyQualifiedBucketName())
+                .mitigation("Check the write password.").toString() + " ", statusCode, uri);
+    }
+
     /**
      * Create UploadIoException.
      *
@@ -109,6 +234,9 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
      * @return BucketAccessException
      */
     protected BucketAccessException createUploadIoException(final URI uri, final IOException exception) {
+        if (exception instanceof CircuitOpenException) {
+            return new BucketUnavailableException(uri, UPLOAD, (CircuitOpenException) exception);
+        }
         return new BucketAccessException(
                 messageBuilder("E-BFSJ-7").message("I/O error trying to upload to {{URI}}", uri).toString(), exception);
     }
@@ -134,9 +262,32 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
      * @param pathInBucket path in the bucket to which an upload happened.
      */
     protected void recordUploadInHistory(final String pathInBucket) {
-        final var now = Instant.now();
+        final var now = this.uploadHistory.record(pathInBucket);
         LOGGER.finest(() -> "Recorded upload to '" + pathInBucket + "' at " + now + " in upload history");
-        this.uploadHistory.put(pathInBucket, now);
+    }
+
+    /**
+     * Register a listener that is notified about every file this bucket uploads or deletes.
+     *
+     * @param listener listener to add
+     */
+    public void addChangeListener(final BucketChangeListener listener) {
+        this.changeListeners.add(listener);
+    }
+
+    /**
+     * Remove a previously registered change listener.
+     *
+     * @param listener listener to remove
+     */
+    public void removeChangeListener(final BucketChangeListener listener) {
+        this.changeListeners.remove(listener);
+    }
+
+    private void notifyChangeListeners(final String pathInBucket) {
+        for (final BucketChangeListener listener : this.changeListeners) {
+            listener.onChange(this, pathInBucket);
+        }
     }
 
     private String encodeBasicAuth(final boolean write) {
@@ -151,6 +302,7 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
         final var excerpt = (content.length() > 20) ? content.substring(0, 20) + "..." : content;
         uploadWithBodyPublisher(uri, BodyPublishers.ofString(content), "string content '" + excerpt + "'");
         recordUploadInHistory(pathInBucket);
+        notifyChangeListeners(pathInBucket);
     }
 
     // [impl->dsn~uploading-input-stream-to-bucket~1]
@@ -160,6 +312,7 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
         final var uri = createWriteUri(pathInBucket);
         uploadWithBodyPublisher(uri, BodyPublishers.ofInputStream(inputStreamSupplier), "content of input stream");
         recordUploadInHistory(pathInBucket);
+        notifyChangeListeners(pathInBucket);
     }
 
     /**
@@ -175,15 +328,17 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
     @Override
     // [impl->dsn~delete-a-file-from-a-bucket~1]
     public void deleteFileNonBlocking(final String filenameInBucket) throws BucketAccessException {
+        final var uri = createWriteUri(filenameInBucket);
         try {
-            final var uri = createWriteUri(filenameInBucket);
             final var request = HttpRequest.newBuilder(uri) //
                     .DELETE() //
-                    .header("Authorization", encodeBasicAuth(true)) //
-                    .build();
-            final var response = getClient().send(request, BodyHandlers.ofString());
+                    .header("Authorization", encodeBasicAuth(true));
+            final var response = send(DELETE, request, BodyHandlers.ofString());
             final var statusCode = response.statusCode();
             HttpResponseEvaluator.evaluate(uri, DELETE, statusCode);
+            notifyChangeListeners(filenameInBucket);
+        } catch (final CircuitOpenException exception) {
+            throw new BucketUnavailableException(uri, DELETE, exception);
         } catch (final IOException exception) {
             throw getDeleteFailedException(filenameInBucket, exception);
         } catch (final InterruptedException exception) {
@@ -202,6 +357,25 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
         this.uploadNecessityCheckStrategy = uploadNecessityCheckStrategy;
     }
 
+    /**
+     * Get the {@link UploadNecessityCheckStrategy} currently in use.
+     *
+     * @return strategy
+     */
+    protected UploadNecessityCheckStrategy getUploadNecessityCheckStrategy() {
+        return this.uploadNecessityCheckStrategy;
+    }
+
+    private static final class WritePermissionDenial {
+        private final int statusCode;
+        private final long expiresAtNanos;
+
+        private WritePermissionDenial(final int statusCode, final long expiresAtNanos) {
+            this.statusCode = statusCode;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
     /**
      * Builder for {@link WriteEnabledBucket} objects.
      *
@@ -209,6 +383,21 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
      */
     public static class Builder<T extends Builder<T>> extends ReadEnabledBucket.Builder<Builder<T>> {
         private String writePassword;
+        private long expectContinueThreshold = DEFAULT_EXPECT_CONTINUE_THRESHOLD;
+        private boolean writePermissionPreflight = false;
+        private Duration writePermissionDenialExpiry = DEFAULT_WRITE_PERMISSION_DENIAL_EXPIRY;
+        private LongSupplier nanoClock = System::nanoTime;
+
+        Builder(final HttpClientBuilder httpClientBuilder) {
+            super(httpClientBuilder);
+        }
+
+        /**
+         * Create a new instance of {@link Builder}.
+         */
+        protected Builder() {
+            super();
+        }
 
         @SuppressWarnings("unchecked")
         @Override
@@ -227,6 +416,58 @@ public class WriteEnabledBucket extends ReadEnabledBucket implements Unsynchroni
             return self();
         }
 
+        /**
+         * Send the header {@code Expect: 100-continue} for uploads of at least the given size, so that BucketFS can
+         * reject an upload, e.g. because of a wrong write password, before the body is transferred.
+         * <p>
+         * Uploads of unknown size, e.g. from input streams, never use {@code Expect: 100-continue}. Defaults to
+         * {@link Long#MAX_VALUE}, i.e. the body of all uploads is sent immediately.
+         *
+         * @param thresholdInBytes minimum upload size in bytes
+         * @return Builder instance for fluent programming
+         */
+        public T expectContinueThreshold(final long thresholdInBytes) {
+            this.expectContinueThreshold = thresholdInBytes;
+            return self();
+        }
+
+        /**
+         * Define if the bucket checks the write password once before the first upload.
+         * <p>
+         * The result of the check is cached, so that bulk uploads with a wrong write password fail immediately
+         * instead of after transferring the first file. The check deletes the reserved file
+         * {@link WriteEnabledBucket#WRITE_PERMISSION_CHECK_PATH}, see
+         * {@link WriteEnabledBucket#checkWritePermission()}.
+         * Defaults to {@code false}.
+         *
+         * @param writePermissionPreflight {@code true} to check the write password before the first upload
+         * @return Builder instance for fluent programming
+         */
+        public T writePermissionPreflight(final boolean writePermissionPreflight) {
+            this.writePermissionPreflight = writePermissionPreflight;
+            return self();
+        }
+
+        /**
+         * Define how long a rejected write permission check is cached.
+         * <p>
+         * During this time {@link WriteEnabledBucket#checkWritePermission()} fails without contacting BucketFS.
+         * Afterwards it checks again, so that changed permissions are picked up. Defaults to
+         * {@link WriteEnabledBucket#DEFAULT_WRITE_PERMISSION_DENIAL_EXPIRY one minute}.
+         *
+         * @param expiry time for which a denial is cached
+         * @return Builder instance for fluent programming
+         */
+        public T writePermissionDenialExpiry(final Duration expiry) {
+            this.writePermissionDenialExpiry = Objects.requireNonNull(expiry, "expiry");
+            return self();
+        }
+
+        T nanoClock(final LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return self();
+        }
+
         /**
          * Build a new {@link WriteEnabledBucket} instance.
          *
@@ -0,0 +1,239 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.errorreporting.ExaError.messageBuilder;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Circuit breaker for a single BucketFS endpoint ({@code host:port}).
+ * <p>
+ * While the breaker is {@link State#CLOSED closed}, it records the outcome of the most recent requests. When the
+ * failure rate reaches the threshold, it {@link State#OPEN opens} and rejects all requests for the open duration
+ * without contacting the endpoint. Afterwards it is {@link State#HALF_OPEN half-open} and lets a limited number of
+ * probe requests through. If all probes succeed, the breaker closes again; if one fails, it opens again.
+ * </p>
+ * <p>
+ * Get instances from a {@link CircuitBreakerRegistry}.
+ * </p>
+ */
+public final class CircuitBreaker {
+    private static final Logger LOGGER = Logger.getLogger(CircuitBreaker.class.getName());
+
+    /**
+     * State of a circuit breaker.
+     */
+    public enum State {
+        /** Requests pass, outcomes are recorded. */
+        CLOSED,
+        /** Requests fail fast. */
+        OPEN,
+        /** Probe requests pass to check if the endpoint recovered. */
+        HALF_OPEN
+    }
+
+    /**
+     * Listener that is notified when a circuit breaker changes its state.
+     */
+    @FunctionalInterface
+    public interface StateListener {
+        /**
+         * Called after the state changed.
+         *
+         * @param endpoint      endpoint of the circuit breaker ({@code host:port})
+         * @param previousState state before the change
+         * @param newState      state after the change
+         */
+        void onStateChange(String endpoint, State previousState, State newState);
+    }
+
+    private final String endpoint;
+    private final CircuitBreakerRegistry.Configuration configuration;
+    private final List<StateListener> listeners;
+    private final LongSupplier nanoClock;
+    private final boolean[] failures;
+    private int recordedCalls = 0;
+    private int nextCallIndex = 0;
+    private int failedCalls = 0;
+    private State state = State.CLOSED;
+    private long openedAtNanos = 0;
+    private int probesInFlight = 0;
+    private int successfulProbes = 0;
+
+    CircuitBreaker(final String endpoint, final CircuitBreakerRegistry.Configuration configuration,
+            final List<StateListener> listeners, final LongSupplier nanoClock) {
+        this.endpoint = endpoint;
+        this.configuration = configuration;
+        this.listeners = listeners;
+        this.nanoClock = nanoClock;
+        this.failures = new boolean[configuration.getSlidingWindowSize()];
+    }
+
+    /**
+     * @return endpoint of this circuit breaker ({@code host:port})
+     */
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Get the current state.
+     * <p>
+     * An open breaker reports {@link State#OPEN} until the next request after the open duration moves it to
+     * {@link State#HALF_OPEN}.
+     * </p>
+     *
+     * @return current state
+     */
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * Get the failure rate of the recorded requests while the breaker is closed.
+     *
+     * @return failure rate between 0 and 1
+     */
+    public synchronized double getFailureRate() {
+        return (this.recordedCalls == 0) ? 0.0 : ((double) this.failedCalls / this.recordedCalls);
+    }
+
+    /**
+     * Ask for permission to send a request.
+     * <p>
+     * Every granted permission must be followed by exactly one call of {@link #recordSuccess()},
+     * {@link #recordFailure()} or {@link #release()}.
+     * </p>
+     *
+     * @throws CircuitOpenException if the breaker rejects the request
+     */
+    void acquirePermission() throws CircuitOpenException {
+        final State previousState;
+        final State newState;
+        final boolean permitted;
+        synchronized (this) {
+            previousState = this.state;
+            if ((this.state == State.OPEN) && ((this.nanoClock.getAsLong() - this.openedAtNanos)
+                    >= this.configuration.getOpenDuration().toNanos())) {
+                this.state = State.HALF_OPEN;
+                this.probesInFlight = 0;
+                this.successfulProbes = 0;
+            }
+            if (this.state == State.CLOSED) {
+                permitted = true;
+            } else if ((this.state == State.HALF_OPEN)
+                    && ((this.probesInFlight + this.successfulProbes) < this.configuration.getHalfOpenProbes())) {
+                ++this.probesInFlight;
+                permitted = true;
+            } else {
+                permitted = false;
+            }
+            newState = this.state;
+        }
+        notifyIfChanged(previousState, newState);
+        if (!permitted) {
+            throw new CircuitOpenException(this.endpoint, messageBuilder("E-BFSJ-56")
+                    .message("Circuit breaker for BucketFS endpoint {{endpoint}} is open.", this.endpoint)
+                    .mitigation("Check the availability of the endpoint. The breaker lets requests pass again"
+                            + " after {{open duration}}.", this.configuration.getOpenDuration())
+                    .toString());
+        }
+    }
+
+    /**
+     * Record a successful request.
+     */
+    void recordSuccess() {
+        final State previousState;
+        final State newState;
+        synchronized (this) {
+            previousState = this.state;
+            if (this.state == State.HALF_OPEN) {
+                this.probesInFlight = Math.max(0, this.probesInFlight - 1);
+                ++this.successfulProbes;
+                if (this.successfulProbes >= this.configuration.getHalfOpenProbes()) {
+                    close();
+                }
+            } else if (this.state == State.CLOSED) {
+                record(false);
+            }
+            newState = this.state;
+        }
+        notifyIfChanged(previousState, newState);
+    }
+
+    /**
+     * Record a failed request.
+     */
+    void recordFailure() {
+        final State previousState;
+        final State newState;
+        synchronized (this) {
+            previousState = this.state;
+            if (this.state == State.HALF_OPEN) {
+                open();
+            } else if (this.state == State.CLOSED) {
+                record(true);
+                if ((this.recordedCalls >= this.configuration.getMinimumCalls())
+                        && (getFailureRate() >= this.configuration.getFailureRateThreshold())) {
+                    open();
+                }
+            }
+            newState = this.state;
+        }
+        notifyIfChanged(previousState, newState);
+    }
+
+    /**
+     * Return a permission without recording an outcome, e.g. because the request was interrupted.
+     */
+    synchronized void release() {
+        if ((this.state == State.HALF_OPEN) && (this.probesInFlight > 0)) {
+            --this.probesInFlight;
+        }
+    }
+
+    private void record(final boolean failure) {
+        if (this.recordedCalls == this.failures.length) {
+            if (this.failures[this.nextCallIndex]) {
+                --this.failedCalls;
+            }
+        } else {
+            ++this.recordedCalls;
+        }
+        this.failures[this.nextCallIndex] = failure;
+        if (failure) {
+            ++this.failedCalls;
+        }
+        this.nextCallIndex = (this.nextCallIndex + 1) % this.failures.length;
+    }
+
+    private void open() {
+        this.state = State.OPEN;
+        this.openedAtNanos = this.nanoClock.getAsLong();
+    }
+
+    private void close() {
+        this.state = State.CLOSED;
+        this.recordedCalls = 0;
+        this.nextCallIndex = 0;
+        this.failedCalls = 0;
+    }
+
+    private void notifyIfChanged(final State previousState, final State newState) {
+        if (previousState == newState) {
+            return;
+        }
+        LOGGER.info(() -> "Circuit breaker for BucketFS endpoint '" + this.endpoint + "' changed from "
+                + previousState + " to " + newState + ".");
+        for (final StateListener listener : this.listeners) {
+            listener.onStateChange(this.endpoint, previousState, newState);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker [endpoint=" + this.endpoint + ", state=" + getState() + "]";
+    }
+}
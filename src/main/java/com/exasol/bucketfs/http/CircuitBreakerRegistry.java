@@ -0,0 +1,225 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.errorreporting.ExaError.messageBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+import com.exasol.bucketfs.http.CircuitBreaker.StateListener;
+
+/**
+ * Registry of {@link CircuitBreaker circuit breakers}, one per BucketFS endpoint ({@code host:port}).
+ * <p>
+ * All breakers of a registry share the same configuration and state listeners. Buckets that use the same registry
+ * also share the breaker of an endpoint, so that a bucket does not need to discover on its own that a node is down.
+ * </p>
+ */
+public final class CircuitBreakerRegistry {
+    private final Configuration configuration;
+    private final List<StateListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    private CircuitBreakerRegistry(final Builder builder) {
+        this.configuration = new Configuration(builder);
+        this.listeners.addAll(builder.listeners);
+        this.nanoClock = builder.nanoClock;
+    }
+
+    /**
+     * Get the circuit breaker for the endpoint of the given URI, creating it on first use.
+     *
+     * @param uri URI of a request
+     * @return circuit breaker for the endpoint
+     */
+    public CircuitBreaker getCircuitBreaker(final URI uri) {
+        return this.circuitBreakers.computeIfAbsent(getEndpoint(uri),
+                endpoint -> new CircuitBreaker(endpoint, this.configuration, this.listeners, this.nanoClock));
+    }
+
+    private static String getEndpoint(final URI uri) {
+        final int port = (uri.getPort() >= 0) ? uri.getPort() : ("https".equals(uri.getScheme()) ? 443 : 80);
+        return uri.getHost() + ":" + port;
+    }
+
+    /**
+     * @return circuit breakers of all endpoints used so far
+     */
+    public Collection<CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableCollection(this.circuitBreakers.values());
+    }
+
+    /**
+     * Notify the given listener about all future state changes of the circuit breakers in this registry.
+     *
+     * @param listener listener to add
+     */
+    public void addStateListener(final StateListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Create a new builder for a {@link CircuitBreakerRegistry}.
+     *
+     * @return new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Settings shared by all circuit breakers of a registry.
+     */
+    static final class Configuration {
+        private final double failureRateThreshold;
+        private final int slidingWindowSize;
+        private final int minimumCalls;
+        private final Duration openDuration;
+        private final int halfOpenProbes;
+
+        private Configuration(final Builder builder) {
+            this.failureRateThreshold = builder.failureRateThreshold;
+            this.slidingWindowSize = builder.slidingWindowSize;
+            this.minimumCalls = Math.min(builder.minimumCalls, builder.slidingWindowSize);
+            this.openDuration = builder.openDuration;
+            this.halfOpenProbes = builder.halfOpenProbes;
+        }
+
+        double getFailureRateThreshold() {
+            return this.failureRateThreshold;
+        }
+
+        int getSlidingWindowSize() {
+            return this.slidingWindowSize;
+        }
+
+        int getMinimumCalls() {
+            return this.minimumCalls;
+        }
+
+        Duration getOpenDuration() {
+            return this.openDuration;
+        }
+
+        int getHalfOpenProbes() {
+            return this.halfOpenProbes;
+        }
+    }
+
+    /**
+     * Builder for {@link CircuitBreakerRegistry} objects.
+     */
+    public static final class Builder {
+        private double failureRateThreshold = 0.5;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenProbes = 1;
+        private final List<StateListener> listeners = new ArrayList<>();
+        private LongSupplier nanoClock = System::nanoTime;
+
+        private Builder() {
+            // use CircuitBreakerRegistry.builder()
+        }
+
+        /**
+         * Open the breaker when the given share of the recorded requests failed.
+         * <p>
+         * Connection failures, timeouts and server errors (HTTP 5xx) count as failures. Defaults to {@code 0.5}.
+         *
+         * @param failureRateThreshold failure rate between 0 (exclusive) and 1 (inclusive)
+         * @return Builder instance for fluent programming
+         */
+        public Builder failureRateThreshold(final double failureRateThreshold) {
+            if ((failureRateThreshold <= 0.0) || (failureRateThreshold > 1.0)) {
+                throw new IllegalArgumentException(messageBuilder("E-BFSJ-57")
+                        .message("Invalid circuit breaker failure rate threshold {{threshold}}.",
+                                failureRateThreshold)
+                        .mitigation("Specify a fraction greater than 0 and at most 1.").toString());
+            }
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Calculate the failure rate from the given number of most recent requests.
+         * <p>
+         * Defaults to 20.
+         *
+         * @param slidingWindowSize number of requests
+         * @return Builder instance for fluent programming
+         */
+        public Builder slidingWindowSize(final int slidingWindowSize) {
+            this.slidingWindowSize = Math.max(1, slidingWindowSize);
+            return this;
+        }
+
+        /**
+         * Only open the breaker after at least the given number of requests were recorded.
+         * <p>
+         * Defaults to 10.
+         *
+         * @param minimumCalls minimum number of requests
+         * @return Builder instance for fluent programming
+         */
+        public Builder minimumCalls(final int minimumCalls) {
+            this.minimumCalls = Math.max(1, minimumCalls);
+            return this;
+        }
+
+        /**
+         * Keep the breaker open for the given duration before letting probe requests through.
+         * <p>
+         * Defaults to 30 seconds.
+         *
+         * @param openDuration time the breaker stays open
+         * @return Builder instance for fluent programming
+         */
+        public Builder openDuration(final Duration openDuration) {
+            this.openDuration = Objects.requireNonNull(openDuration, "openDuration");
+            return this;
+        }
+
+        /**
+         * Close a half-open breaker after the given number of successful probe requests.
+         * <p>
+         * Defaults to 1.
+         *
+         * @param halfOpenProbes number of probe requests
+         * @return Builder instance for fluent programming
+         */
+        public Builder halfOpenProbes(final int halfOpenProbes) {
+            this.halfOpenProbes = Math.max(1, halfOpenProbes);
+            return this;
+        }
+
+        /**
+         * Notify the given listener about state changes of the circuit breakers.
+         *
+         * @param listener listener to add
+         * @return Builder instance for fluent programming
+         */
+        public Builder stateListener(final StateListener listener) {
+            this.listeners.add(listener);
+            return this;
+        }
+
+        Builder nanoClock(final LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        /**
+         * Build a new {@link CircuitBreakerRegistry}.
+         *
+         * @return new registry
+         */
+        public CircuitBreakerRegistry build() {
+            return new CircuitBreakerRegistry(this);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.exasol.bucketfs.http;
+
+import java.io.IOException;
+
+/**
+ * Signals that a request was rejected without contacting the endpoint because its {@link CircuitBreaker} is open.
+ */
+public class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 6417402583217722950L;
+    private final String endpoint;
+
+    /**
+     * Create a new instance of {@link CircuitOpenException}.
+     *
+     * @param endpoint endpoint of the open circuit breaker ({@code host:port})
+     * @param message  error message
+     */
+    public CircuitOpenException(final String endpoint, final String message) {
+        super(message);
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @return endpoint of the open circuit breaker ({@code host:port})
+     */
+    public String getEndpoint() {
+        return this.endpoint;
+    }
+}
@@ -0,0 +1,110 @@
+package com.exasol.bucketfs.http;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Point in time by which an operation including all HTTP requests it makes must be finished.
+ * <p>
+ * {@link #activate() Activate} a deadline for a block of code to limit all requests that the current thread sends via
+ * a {@link RequestExecutor} within that block:
+ * </p>
+ *
+ * <pre>
+ * try (Deadline.Scope scope = Deadline.after(Duration.ofMinutes(5)).activate()) {
+ *     bucket.uploadFileNonBlocking(file, pathInBucket);
+ * }
+ * </pre>
+ * <p>
+ * If scopes are nested, the earlier deadline applies.
+ * </p>
+ */
+public final class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private final long expiryNanos;
+
+    private Deadline(final long expiryNanos) {
+        this.expiryNanos = expiryNanos;
+    }
+
+    /**
+     * Create a deadline that expires after the given duration.
+     *
+     * @param duration duration from now
+     * @return new deadline
+     */
+    public static Deadline after(final Duration duration) {
+        return new Deadline(System.nanoTime() + duration.toNanos());
+    }
+
+    /**
+     * Get the deadline activated for the current thread.
+     *
+     * @return active deadline or an empty optional if there is none
+     */
+    public static Optional<Deadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * @return remaining time until the deadline expires, {@link Duration#ZERO} if it already expired
+     */
+    public Duration remaining() {
+        final long remainingNanos = this.expiryNanos - System.nanoTime();
+        return remainingNanos > 0 ? Duration.ofNanos(remainingNanos) : Duration.ZERO;
+    }
+
+    /**
+     * @return {@code true} if the deadline expired
+     */
+    public boolean isExpired() {
+        return (this.expiryNanos - System.nanoTime()) <= 0;
+    }
+
+    /**
+     * Limit the remaining time of the given duration to this deadline.
+     *
+     * @param duration duration to limit
+     * @return the shorter of the given duration and the remaining time
+     */
+    public Duration limit(final Duration duration) {
+        final Duration remaining = remaining();
+        return duration.compareTo(remaining) < 0 ? duration : remaining;
+    }
+
+    /**
+     * Activate this deadline for the current thread until the returned scope is closed.
+     *
+     * @return scope to close when the operation is finished
+     */
+    public Scope activate() {
+        final Deadline previous = CURRENT.get();
+        CURRENT.set(((previous != null) && ((previous.expiryNanos - this.expiryNanos) < 0)) ? previous : this);
+        return new Scope(previous);
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline [remaining=" + remaining() + "]";
+    }
+
+    /**
+     * Scope of an activated {@link Deadline}. Closing it restores the previously active deadline.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Deadline previous;
+
+        private Scope(final Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (this.previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(this.previous);
+            }
+        }
+    }
+}
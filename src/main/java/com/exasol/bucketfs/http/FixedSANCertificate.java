@@ -13,12 +13,15 @@ import java.util.stream.Stream;
  * Names (SAN).
  * <p>
  * Based on https://stackoverflow.com/a/77538035
+ * <p>
+ * The combined Subject Alternative Names are calculated on first access and then reused.
  */
 // [impl->dsn~custom-tls-certificate.additional-subject-alternative-names~1]
 @SuppressWarnings("serial") // No serialization required
 class FixedSANCertificate extends X509Certificate {
     private final X509Certificate delegate;
     private final transient Collection<SubjectAltName> altNames;
+    private transient volatile Collection<List<?>> subjectAlternativeNames;
 
     FixedSANCertificate(final X509Certificate delegate, final Collection<SubjectAltName> altNames) {
         this.delegate = delegate;
@@ -27,6 +30,15 @@ class FixedSANCertificate extends X509Certificate {
 
     @Override
     public Collection<List<?>> getSubjectAlternativeNames() throws CertificateParsingException {
+        Collection<List<?>> names = this.subjectAlternativeNames;
+        if (names == null) {
+            names = Collections.unmodifiableList(collectSubjectAlternativeNames());
+            this.subjectAlternativeNames = names;
+        }
+        return names;
+    }
+
+    private List<List<?>> collectSubjectAlternativeNames() throws CertificateParsingException {
         final Stream<List<?>> existingAltNames = Optional.ofNullable(delegate.getSubjectAlternativeNames())
                 .map(Collection::stream).orElseGet(Stream::empty);
         final Stream<List<Object>> additionalAltNames = altNames.stream()
@@ -0,0 +1,129 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.errorreporting.ExaError.messageBuilder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Decides when an idempotent read is hedged, i.e. when a duplicate of a slow request is sent and the first response
+ * wins.
+ * <p>
+ * The hedge delay is either fixed or a percentile of the latencies of the most recent responses, but never shorter
+ * than the configured minimum delay. Until enough latencies are known the minimum delay applies.
+ * </p>
+ * <p>
+ * The budget caps the share of requests that are hedged: Each request earns the budget as credit and each hedge costs
+ * one unit. With a budget of {@code 0.05} at most about five percent of the requests are duplicated, even if the
+ * service slows down as a whole.
+ * </p>
+ */
+public final class HedgingPolicy {
+    private static final int LATENCY_WINDOW_SIZE = 128;
+    private static final int MIN_LATENCY_SAMPLES = 16;
+    private static final double MAX_CREDIT = 10.0;
+    private static final double FIXED_DELAY = -1.0;
+    private static final double CREDIT_TOLERANCE = 1e-9;
+    private final double percentile;
+    private final Duration minimumDelay;
+    private final double budget;
+    private final long[] latencyNanos = new long[LATENCY_WINDOW_SIZE];
+    private int latencyCount = 0;
+    private int nextLatencyIndex = 0;
+    private double credit = 0.0;
+
+    private HedgingPolicy(final double percentile, final Duration minimumDelay, final double budget) {
+        if ((budget < 0.0) || (budget > 1.0)) {
+            throw invalidFraction("budget", budget);
+        }
+        this.percentile = percentile;
+        this.minimumDelay = minimumDelay;
+        this.budget = budget;
+    }
+
+    private static IllegalArgumentException invalidFraction(final String name, final double value) {
+        return new IllegalArgumentException(messageBuilder("E-BFSJ-55")
+                .message("Invalid hedging {{parameter}} {{value}}.", name, value)
+                .mitigation("Specify a fraction between 0 and 1, e.g. 0.05 for five percent.").toString());
+    }
+
+    /**
+     * Hedge requests that did not complete within a percentile of the recent latencies.
+     *
+     * @param percentile   latency percentile as fraction, e.g. {@code 0.95}
+     * @param minimumDelay minimum time to wait before hedging
+     * @param budget       maximum share of hedged requests as fraction, e.g. {@code 0.05}
+     * @return new hedging policy
+     */
+    public static HedgingPolicy afterPercentile(final double percentile, final Duration minimumDelay,
+            final double budget) {
+        if ((percentile <= 0.0) || (percentile > 1.0)) {
+            throw invalidFraction("percentile", percentile);
+        }
+        return new HedgingPolicy(percentile, minimumDelay, budget);
+    }
+
+    /**
+     * Hedge requests that did not complete within a fixed delay.
+     *
+     * @param delay  time to wait before hedging
+     * @param budget maximum share of hedged requests as fraction, e.g. {@code 0.05}
+     * @return new hedging policy
+     */
+    public static HedgingPolicy afterDelay(final Duration delay, final double budget) {
+        return new HedgingPolicy(FIXED_DELAY, delay, budget);
+    }
+
+    /**
+     * Get the time to wait for a response before sending a hedged request.
+     *
+     * @return hedge delay
+     */
+    public synchronized Duration getHedgeDelay() {
+        if ((this.percentile == FIXED_DELAY) || (this.latencyCount < MIN_LATENCY_SAMPLES)) {
+            return this.minimumDelay;
+        }
+        final long[] sorted = Arrays.copyOf(this.latencyNanos, this.latencyCount);
+        Arrays.sort(sorted);
+        final int index = Math.max(0, (int) Math.ceil(this.percentile * sorted.length) - 1);
+        final Duration percentileDelay = Duration.ofNanos(sorted[index]);
+        return percentileDelay.compareTo(this.minimumDelay) > 0 ? percentileDelay : this.minimumDelay;
+    }
+
+    /**
+     * Record the latency of a successful request.
+     *
+     * @param latency time between sending the request and receiving the response
+     */
+    public synchronized void recordLatency(final Duration latency) {
+        this.latencyNanos[this.nextLatencyIndex] = latency.toNanos();
+        this.nextLatencyIndex = (this.nextLatencyIndex + 1) % LATENCY_WINDOW_SIZE;
+        this.latencyCount = Math.min(this.latencyCount + 1, LATENCY_WINDOW_SIZE);
+    }
+
+    /**
+     * Record a request that may be hedged and earn its share of the budget.
+     */
+    synchronized void recordRequest() {
+        this.credit = Math.min(MAX_CREDIT, this.credit + this.budget);
+    }
+
+    /**
+     * Try to spend budget on a hedged request.
+     *
+     * @return {@code true} if the budget allows hedging
+     */
+    synchronized boolean tryAcquireHedge() {
+        if (this.credit >= (1.0 - CREDIT_TOLERANCE)) {
+            this.credit -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingPolicy [" + (this.percentile == FIXED_DELAY ? "" : ("percentile=" + this.percentile + ", "))
+                + "minimumDelay=" + this.minimumDelay + ", budget=" + this.budget + "]";
+    }
+}
@@ -7,7 +7,9 @@ import java.net.http.HttpClient;
 import java.security.*;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 import javax.net.ssl.*;
@@ -23,7 +25,12 @@ public class HttpClientBuilder {
 
     private boolean raiseTlsErrors = true;
     private X509Certificate certificate;
+    private boolean pinCertificate = false;
     private final List<SubjectAltName> altNames = new ArrayList<>();
+    private Executor executor;
+    private Duration connectTimeout;
+    private HttpClient.Version version;
+    private HttpClient.Redirect redirect;
 
     /**
      * Define if TLS errors should raise an error when executing requests or if they should be ignored. Setting this to
@@ -57,6 +64,24 @@ public class HttpClientBuilder {
         return this;
     }
 
+    /**
+     * Define if the certificate specified via {@link #certificate(X509Certificate)} is pinned.
+     * <p>
+     * A pinned certificate is only compared with the certificate of the server instead of validating the certificate
+     * chain. This is faster and sufficient for self-signed certificates. The host name is still verified, including
+     * alternative names added with {@link #allowAlternativeHostName(String)} and
+     * {@link #allowAlternativeIPAddress(String)}.
+     * <p>
+     * Defaults to {@code false}. Requires a certificate.
+     *
+     * @param pinCertificate {@code true} to accept only the exact configured certificate
+     * @return this instance for method chaining
+     */
+    public HttpClientBuilder pinCertificate(final boolean pinCertificate) {
+        this.pinCertificate = pinCertificate;
+        return this;
+    }
+
     /**
      * Update the certificate specified via {@link #certificate(X509Certificate)} to allow an additional host name, e.g.
      * {@code localhost}.
@@ -88,6 +113,60 @@ public class HttpClientBuilder {
         return this;
     }
 
+    /**
+     * Use the given executor for asynchronous and dependent tasks of the client.
+     * <p>
+     * Defaults to an unbounded thread pool created by the JDK for each client. Use a bounded pool to limit the number
+     * of threads under load. On Java 21 and later you can also pass
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}.
+     *
+     * @param executor executor for the client
+     * @return this instance for method chaining
+     */
+    public HttpClientBuilder executor(final Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Fail connecting to the server if the connection is not established within the given duration.
+     * <p>
+     * Defaults to no timeout.
+     *
+     * @param connectTimeout maximum duration for establishing a connection
+     * @return this instance for method chaining
+     */
+    public HttpClientBuilder connectTimeout(final Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * Request the given HTTP protocol version.
+     * <p>
+     * Defaults to {@link HttpClient.Version#HTTP_2}, which falls back to HTTP/1.1 if the server does not support it.
+     *
+     * @param version HTTP protocol version
+     * @return this instance for method chaining
+     */
+    public HttpClientBuilder version(final HttpClient.Version version) {
+        this.version = version;
+        return this;
+    }
+
+    /**
+     * Follow redirects according to the given policy.
+     * <p>
+     * Defaults to {@link HttpClient.Redirect#NEVER}.
+     *
+     * @param redirect redirect policy
+     * @return this instance for method chaining
+     */
+    public HttpClientBuilder followRedirects(final HttpClient.Redirect redirect) {
+        this.redirect = redirect;
+        return this;
+    }
+
     /**
      * Creates a new {@link HttpClient} using the specified configuration.
      *
@@ -96,7 +175,30 @@ public class HttpClientBuilder {
     public HttpClient build() {
         final SSLContext sslContext = createSslContext();
         initializeSslContext(sslContext);
-        return HttpClient.newBuilder().sslContext(sslContext).build();
+        final HttpClient.Builder builder = HttpClient.newBuilder().sslContext(sslContext);
+        if (this.executor != null) {
+            builder.executor(this.executor);
+        }
+        if (this.connectTimeout != null) {
+            builder.connectTimeout(this.connectTimeout);
+        }
+        if (this.version != null) {
+            builder.version(this.version);
+        }
+        if (this.redirect != null) {
+            builder.followRedirects(this.redirect);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the configuration of this builder as immutable value, e.g. as key for sharing clients in an
+     * {@link HttpClientRegistry}.
+     *
+     * @return current configuration
+     */
+    Configuration getConfiguration() {
+        return new Configuration(this);
     }
 
     private void initializeSslContext(final SSLContext sslContext) {
@@ -120,8 +222,16 @@ public class HttpClientBuilder {
                     .message("Using alternative subject names requires configuring a certificate.")
                     .mitigation("Either specify a certificate or remove the alternative subject names.").toString());
         }
+        if (this.certificate == null && this.pinCertificate) {
+            throw new IllegalStateException(messageBuilder("E-BFSJ-50")
+                    .message("Pinning a certificate requires configuring a certificate.")
+                    .mitigation("Either specify a certificate or disable certificate pinning.").toString());
+        }
         if (!this.raiseTlsErrors) {
             return Optional.of(createDummyTrustManagers());
+        } else if (this.certificate != null && this.pinCertificate) {
+            return Optional.of(new TrustManager[] { new PinnedCertificateTrustManager(this.certificate) })
+                    .map(this::allowAlternativeNames);
         } else if (this.certificate != null) {
             return Optional.of(createTrustManagerForCertificate(this.certificate)).map(this::allowAlternativeNames);
         } else {
@@ -170,4 +280,51 @@ public class HttpClientBuilder {
                     .toString(), exception);
         }
     }
+
+    /**
+     * Immutable snapshot of the settings that determine the behavior of a client.
+     */
+    static final class Configuration {
+        private final boolean raiseTlsErrors;
+        private final X509Certificate certificate;
+        private final boolean pinCertificate;
+        private final List<SubjectAltName> altNames;
+        private final Executor executor;
+        private final Duration connectTimeout;
+        private final HttpClient.Version version;
+        private final HttpClient.Redirect redirect;
+
+        private Configuration(final HttpClientBuilder builder) {
+            this.raiseTlsErrors = builder.raiseTlsErrors;
+            this.certificate = builder.certificate;
+            this.pinCertificate = builder.pinCertificate;
+            this.altNames = List.copyOf(builder.altNames);
+            this.executor = builder.executor;
+            this.connectTimeout = builder.connectTimeout;
+            this.version = builder.version;
+            this.redirect = builder.redirect;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.raiseTlsErrors, this.certificate, this.pinCertificate, this.altNames,
+                    this.executor, this.connectTimeout, this.version, this.redirect);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if ((obj == null) || (getClass() != obj.getClass())) {
+                return false;
+            }
+            final Configuration other = (Configuration) obj;
+            return (this.raiseTlsErrors == other.raiseTlsErrors) && Objects.equals(this.certificate, other.certificate)
+                    && (this.pinCertificate == other.pinCertificate) && this.altNames.equals(other.altNames)
+                    && Objects.equals(this.executor, other.executor)
+                    && Objects.equals(this.connectTimeout, other.connectTimeout) && (this.version == other.version)
+                    && (this.redirect == other.redirect);
+        }
+    }
 }
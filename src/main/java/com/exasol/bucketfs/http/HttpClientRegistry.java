@@ -0,0 +1,74 @@
+package com.exasol.bucketfs.http;
+
+import java.net.http.HttpClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import com.exasol.bucketfs.http.HttpClientBuilder.Configuration;
+
+/**
+ * Registry that shares {@link HttpClient} instances between buckets with the same configuration.
+ * <p>
+ * Each {@link HttpClient} owns a selector thread, a connection pool and a TLS session cache. Buckets on the same
+ * BucketFS service that share a client reuse connections and TLS sessions, so that threads and sockets do not grow
+ * with the number of buckets.
+ * </p>
+ * <p>
+ * Clients are keyed by all settings of the {@link HttpClientBuilder}, e.g. certificate, {@code raiseTlsErrors},
+ * alternative subject names and timeouts. The registry keeps all clients until {@link #clear()} is called.
+ * </p>
+ */
+public final class HttpClientRegistry {
+    private static final Logger LOGGER = Logger.getLogger(HttpClientRegistry.class.getName());
+    private static final HttpClientRegistry SHARED = new HttpClientRegistry();
+    private final Map<Configuration, HttpClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new, empty registry. Use this instead of {@link #shared()} to limit sharing to a group of buckets.
+     */
+    public HttpClientRegistry() {
+        // empty by intention
+    }
+
+    /**
+     * Get the registry shared by all buckets in this JVM that opt in to sharing clients.
+     *
+     * @return shared registry
+     */
+    public static HttpClientRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Get the client for the configuration of the given builder, creating it on first use.
+     *
+     * @param builder builder with the client configuration
+     * @return shared client
+     */
+    public HttpClient getClient(final HttpClientBuilder builder) {
+        return this.clients.computeIfAbsent(builder.getConfiguration(), configuration -> {
+            LOGGER.finest(() -> "Creating shared HTTP client #" + (this.clients.size() + 1));
+            return builder.build();
+        });
+    }
+
+    /**
+     * Get the number of clients in this registry.
+     *
+     * @return number of clients
+     */
+    public int size() {
+        return this.clients.size();
+    }
+
+    /**
+     * Remove all clients from this registry.
+     * <p>
+     * Buckets keep using the clients they already got. Clients are released once no bucket uses them anymore.
+     * </p>
+     */
+    public void clear() {
+        this.clients.clear();
+    }
+}
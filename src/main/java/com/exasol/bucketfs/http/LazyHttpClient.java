@@ -0,0 +1,136 @@
+package com.exasol.bucketfs.http;
+
+import java.io.IOException;
+import java.net.*;
+import java.net.http.*;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.PushPromiseHandler;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+/**
+ * {@link HttpClient} that creates the actual client on first use and delegates all calls to it.
+ * <p>
+ * Creating a client builds an {@link SSLContext} and starts a selector thread. Buckets that use a lazy client are
+ * cheap to construct, so that applications can create many bucket objects and only pay for the ones they use.
+ * </p>
+ */
+public final class LazyHttpClient extends HttpClient {
+    private final Supplier<HttpClient> factory;
+    private volatile HttpClient delegate;
+
+    /**
+     * Create a new instance of {@link LazyHttpClient}.
+     *
+     * @param factory factory that creates the actual client, called at most once
+     */
+    public LazyHttpClient(final Supplier<HttpClient> factory) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+    }
+
+    /**
+     * @return {@code true} if the actual client was already created
+     */
+    public boolean isInitialized() {
+        return this.delegate != null;
+    }
+
+    /**
+     * Get the actual client, creating it if necessary.
+     *
+     * @return actual client
+     */
+    public HttpClient getDelegate() {
+        HttpClient client = this.delegate;
+        if (client == null) {
+            synchronized (this) {
+                client = this.delegate;
+                if (client == null) {
+                    client = Objects.requireNonNull(this.factory.get(), "client");
+                    this.delegate = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return getDelegate().cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return getDelegate().connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return getDelegate().followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return getDelegate().proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return getDelegate().sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return getDelegate().sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return getDelegate().authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return getDelegate().version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return getDelegate().executor();
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(final HttpRequest request, final BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        return getDelegate().send(request, responseBodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest request,
+            final BodyHandler<T> responseBodyHandler) {
+        return getDelegate().sendAsync(request, responseBodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest request,
+            final BodyHandler<T> responseBodyHandler, final PushPromiseHandler<T> pushPromiseHandler) {
+        return getDelegate().sendAsync(request, responseBodyHandler, pushPromiseHandler);
+    }
+
+    @Override
+    public WebSocket.Builder newWebSocketBuilder() {
+        return getDelegate().newWebSocketBuilder();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyHttpClient [" + (isInitialized() ? this.delegate : "not initialized") + "]";
+    }
+}
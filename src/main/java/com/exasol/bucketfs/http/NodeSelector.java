@@ -0,0 +1,221 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.errorreporting.ExaError.messageBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Spreads requests across the nodes of a cluster that all serve the same BucketFS service.
+ * <p>
+ * The selector tracks the health of the nodes passively: A node that fails the configured number of consecutive
+ * requests is ejected for the ejection duration and receives no requests during this time. If all nodes are ejected,
+ * the selector uses the node that becomes available again first rather than failing without trying.
+ * </p>
+ */
+public final class NodeSelector {
+    private static final Logger LOGGER = Logger.getLogger(NodeSelector.class.getName());
+    /** Number of consecutive failures after which a node is ejected unless configured differently */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    /** Time for which a failing node is ejected unless configured differently */
+    public static final Duration DEFAULT_EJECTION_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * Strategy for choosing one of the healthy nodes.
+     */
+    public enum Strategy {
+        /** Use the healthy nodes in turn. */
+        ROUND_ROBIN,
+        /** Use the healthy node with the fewest requests in flight. */
+        LEAST_OUTSTANDING
+    }
+
+    private final List<Node> nodes;
+    private final Strategy strategy;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    /**
+     * Create a new instance of {@link NodeSelector}.
+     *
+     * @param hosts             host names or IP addresses of the nodes
+     * @param strategy          strategy for choosing one of the healthy nodes
+     * @param failureThreshold  number of consecutive failures after which a node is ejected
+     * @param ejectionDuration  time for which a failing node is ejected
+     */
+    public NodeSelector(final List<String> hosts, final Strategy strategy, final int failureThreshold,
+            final Duration ejectionDuration) {
+        this(hosts, strategy, failureThreshold, ejectionDuration, System::nanoTime);
+    }
+
+    NodeSelector(final List<String> hosts, final Strategy strategy, final int failureThreshold,
+            final Duration ejectionDuration, final LongSupplier nanoClock) {
+        if (hosts.isEmpty()) {
+            throw new IllegalArgumentException(messageBuilder("E-BFSJ-54")
+                    .message("Node selection requires at least one host.").toString());
+        }
+        final List<Node> nodeList = new ArrayList<>(hosts.size());
+        for (final String host : hosts) {
+            nodeList.add(new Node(Objects.requireNonNull(host, "host")));
+        }
+        this.nodes = Collections.unmodifiableList(nodeList);
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.ejectionNanos = ejectionDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return all nodes including the ejected ones
+     */
+    public List<Node> getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Choose the node for the next request.
+     *
+     * @return selected node
+     */
+    public Node select() {
+        final List<Node> availableNodes = getAvailableNodes();
+        if (availableNodes.isEmpty()) {
+            return findNodeReturningFirst();
+        }
+        final int start = Math.floorMod(this.nextIndex.getAndIncrement(), availableNodes.size());
+        if (this.strategy == Strategy.ROUND_ROBIN) {
+            return availableNodes.get(start);
+        }
+        Node selected = availableNodes.get(start);
+        for (int offset = 1; offset < availableNodes.size(); ++offset) {
+            final Node candidate = availableNodes.get((start + offset) % availableNodes.size());
+            if (candidate.getOutstandingRequests() < selected.getOutstandingRequests()) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    private List<Node> getAvailableNodes() {
+        final long now = this.nanoClock.getAsLong();
+        final List<Node> availableNodes = new ArrayList<>(this.nodes.size());
+        for (final Node node : this.nodes) {
+            if (node.isAvailable(now)) {
+                availableNodes.add(node);
+            }
+        }
+        return availableNodes;
+    }
+
+    private Node findNodeReturningFirst() {
+        Node first = this.nodes.get(0);
+        for (final Node node : this.nodes) {
+            if ((node.getEjectedUntil() - first.getEjectedUntil()) < 0) {
+                first = node;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Send a request to the given node instead of the host in the URI.
+     *
+     * @param uri  original URI
+     * @param node node to send the request to
+     * @return URI with the host of the node
+     */
+    static URI resolve(final URI uri, final Node node) {
+        final String port = (uri.getPort() < 0) ? "" : (":" + uri.getPort());
+        final String query = (uri.getRawQuery() == null) ? "" : ("?" + uri.getRawQuery());
+        return URI.create(uri.getScheme() + "://" + node.getHost() + port + uri.getRawPath() + query);
+    }
+
+    @Override
+    public String toString() {
+        return "NodeSelector [nodes=" + this.nodes + ", strategy=" + this.strategy + "]";
+    }
+
+    /**
+     * Node of the cluster with its health state.
+     */
+    public final class Node {
+        private final String host;
+        private final AtomicInteger outstandingRequests = new AtomicInteger();
+        private int consecutiveFailures = 0;
+        private long ejectedUntil = Long.MIN_VALUE;
+
+        private Node(final String host) {
+            this.host = host;
+        }
+
+        /**
+         * @return host name or IP address of the node
+         */
+        public String getHost() {
+            return this.host;
+        }
+
+        /**
+         * @return number of requests in flight to this node
+         */
+        public int getOutstandingRequests() {
+            return this.outstandingRequests.get();
+        }
+
+        /**
+         * @return {@code true} if the node currently receives requests
+         */
+        public boolean isAvailable() {
+            return isAvailable(NodeSelector.this.nanoClock.getAsLong());
+        }
+
+        private synchronized boolean isAvailable(final long now) {
+            return (this.ejectedUntil == Long.MIN_VALUE) || (now - this.ejectedUntil >= 0);
+        }
+
+        private synchronized long getEjectedUntil() {
+            return this.ejectedUntil;
+        }
+
+        void requestStarted() {
+            this.outstandingRequests.incrementAndGet();
+        }
+
+        void requestSucceeded() {
+            this.outstandingRequests.decrementAndGet();
+            synchronized (this) {
+                this.consecutiveFailures = 0;
+                this.ejectedUntil = Long.MIN_VALUE;
+            }
+        }
+
+        void requestAbandoned() {
+            this.outstandingRequests.decrementAndGet();
+        }
+
+        void requestFailed() {
+            this.outstandingRequests.decrementAndGet();
+            synchronized (this) {
+                ++this.consecutiveFailures;
+                if (this.consecutiveFailures >= NodeSelector.this.failureThreshold) {
+                    this.consecutiveFailures = 0;
+                    this.ejectedUntil = NodeSelector.this.nanoClock.getAsLong() + NodeSelector.this.ejectionNanos;
+                    LOGGER.warning(() -> "Ejecting BucketFS node '" + this.host + "' for "
+                            + Duration.ofNanos(NodeSelector.this.ejectionNanos) + " after "
+                            + NodeSelector.this.failureThreshold + " consecutive failures.");
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.host;
+        }
+    }
+}
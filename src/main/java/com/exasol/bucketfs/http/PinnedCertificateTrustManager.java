@@ -0,0 +1,167 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.errorreporting.ExaError.messageBuilder;
+
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.cert.*;
+import java.util.*;
+
+import javax.net.ssl.*;
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * This Trust Manager only accepts a single pinned server certificate.
+ * <p>
+ * Instead of building and validating a PKIX path it compares the encoded leaf certificate with the pinned certificate
+ * in constant time and checks its validity period. If the connection requires endpoint identification (as the
+ * {@link java.net.http.HttpClient} does for HTTPS), the host name is checked against the subject alternative names of
+ * the certificate, so that {@link SubjectAltNameTrustManager} can add alternative names as for the default trust
+ * manager.
+ * </p>
+ */
+// [impl->dsn~custom-tls-certificate~1]
+class PinnedCertificateTrustManager extends X509ExtendedTrustManager {
+    private static final int SAN_TYPE_DNS = 2;
+    private static final int SAN_TYPE_IP = 7;
+    private final X509Certificate pinnedCertificate;
+    private final byte[] pinnedEncoding;
+
+    PinnedCertificateTrustManager(final X509Certificate pinnedCertificate) {
+        this.pinnedCertificate = pinnedCertificate;
+        this.pinnedEncoding = encode(pinnedCertificate);
+    }
+
+    private static byte[] encode(final X509Certificate certificate) {
+        try {
+            return certificate.getEncoded();
+        } catch (final CertificateEncodingException exception) {
+            throw new IllegalStateException(messageBuilder("E-BFSJ-46")
+                    .message("Unable to read encoded form of pinned certificate.").toString(), exception);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(final X509Certificate[] chain, final String authType) throws CertificateException {
+        checkPinnedCertificate(chain);
+    }
+
+    @Override
+    public void checkServerTrusted(final X509Certificate[] chain, final String authType, final Socket socket)
+            throws CertificateException {
+        checkPinnedCertificate(chain);
+        if (socket instanceof SSLSocket) {
+            final SSLSocket sslSocket = (SSLSocket) socket;
+            checkHostName(chain[0], sslSocket.getSSLParameters(), sslSocket.getHandshakeSession());
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(final X509Certificate[] chain, final String authType, final SSLEngine engine)
+            throws CertificateException {
+        checkPinnedCertificate(chain);
+        if (engine != null) {
+            checkHostName(chain[0], engine.getSSLParameters(), engine.getHandshakeSession());
+        }
+    }
+
+    private void checkPinnedCertificate(final X509Certificate[] chain) throws CertificateException {
+        if ((chain == null) || (chain.length < 1)
+                || !MessageDigest.isEqual(this.pinnedEncoding, chain[0].getEncoded())) {
+            throw new CertificateException(messageBuilder("E-BFSJ-47")
+                    .message("Server certificate does not match pinned certificate with subject {{subject}}.",
+                            this.pinnedCertificate.getSubjectX500Principal().getName())
+                    .mitigation("Configure the certificate the server actually uses.").toString());
+        }
+        chain[0].checkValidity();
+    }
+
+    private static void checkHostName(final X509Certificate certificate, final SSLParameters parameters,
+            final SSLSession session) throws CertificateException {
+        if ((parameters == null) || (parameters.getEndpointIdentificationAlgorithm() == null) || (session == null)
+                || (session.getPeerHost() == null)) {
+            return;
+        }
+        final String host = session.getPeerHost();
+        if (!matchesHostName(certificate, host)) {
+            throw new CertificateException(messageBuilder("E-BFSJ-48")
+                    .message("Pinned certificate is not valid for host {{host}}.", host)
+                    .mitigation("Allow the host name as alternative name or connect with a host name from the"
+                            + " certificate.")
+                    .toString());
+        }
+    }
+
+    private static boolean matchesHostName(final X509Certificate certificate, final String host)
+            throws CertificateParsingException {
+        final Collection<List<?>> altNames = Optional.ofNullable(certificate.getSubjectAlternativeNames())
+                .orElse(List.of());
+        final boolean ipAddress = isIpAddress(host);
+        boolean hasDnsNames = false;
+        for (final List<?> altName : altNames) {
+            final int type = (Integer) altName.get(0);
+            final String value = String.valueOf(altName.get(1));
+            if (ipAddress && (type == SAN_TYPE_IP) && value.equalsIgnoreCase(host)) {
+                return true;
+            } else if (type == SAN_TYPE_DNS) {
+                hasDnsNames = true;
+                if (!ipAddress && matchesDnsName(value, host)) {
+                    return true;
+                }
+            }
+        }
+        return !ipAddress && !hasDnsNames && matchesDnsName(getCommonName(certificate), host);
+    }
+
+    private static boolean isIpAddress(final String host) {
+        return host.contains(":") || host.matches("[0-9.]+");
+    }
+
+    private static boolean matchesDnsName(final String pattern, final String host) {
+        if (pattern == null) {
+            return false;
+        }
+        if (pattern.startsWith("*.")) {
+            final int firstDot = host.indexOf('.');
+            return (firstDot > 0) && host.substring(firstDot).equalsIgnoreCase(pattern.substring(1));
+        }
+        return pattern.equalsIgnoreCase(host);
+    }
+
+    private static String getCommonName(final X509Certificate certificate) {
+        final String name = certificate.getSubjectX500Principal().getName(X500Principal.RFC2253);
+        for (final String part : name.split(",")) {
+            if (part.startsWith("CN=")) {
+                return part.substring("CN=".length());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void checkClientTrusted(final X509Certificate[] chain, final String authType) throws CertificateException {
+        throw clientCertificatesNotSupported();
+    }
+
+    @Override
+    public void checkClientTrusted(final X509Certificate[] chain, final String authType, final Socket socket)
+            throws CertificateException {
+        throw clientCertificatesNotSupported();
+    }
+
+    @Override
+    public void checkClientTrusted(final X509Certificate[] chain, final String authType, final SSLEngine engine)
+            throws CertificateException {
+        throw clientCertificatesNotSupported();
+    }
+
+    private static CertificateException clientCertificatesNotSupported() {
+        return new CertificateException(messageBuilder("E-BFSJ-49")
+                .message("Pinned certificate trust manager does not verify client certificates.").toString());
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return new X509Certificate[] { this.pinnedCertificate };
+    }
+}
@@ -0,0 +1,438 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.errorreporting.ExaError.messageBuilder;
+
+import java.io.IOException;
+import java.net.http.*;
+import java.net.http.HttpResponse.BodyHandler;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Sends HTTP requests with {@link RequestTimeouts} and the {@link Deadline#current() active deadline}.
+ * <p>
+ * The first byte timeout is set as {@link HttpRequest.Builder#timeout(Duration) request timeout}. If a total timeout
+ * or a deadline applies, the executor sends the request asynchronously and stops waiting for the response when the
+ * time is up. In both cases it throws an {@link HttpTimeoutException}, so that callers can handle timeouts like any
+ * other {@link IOException}.
+ * </p>
+ * <p>
+ * With a {@link NodeSelector} the executor replaces the host of each request with the selected node and reports
+ * connection failures and server errors to the selector.
+ * </p>
+ * <p>
+ * With a {@link HedgingPolicy} the executor sends a duplicate of a slow idempotent read via
+ * {@link #sendHedged(HttpRequest.Builder, BodyHandler, RequestTimeouts)} and returns the first response.
+ * </p>
+ * <p>
+ * With a {@link CircuitBreakerRegistry} the executor rejects requests to endpoints whose {@link CircuitBreaker} is
+ * open with a {@link CircuitOpenException} and reports the outcome of all other requests to the breaker.
+ * </p>
+ */
+public final class RequestExecutor {
+    private static final Logger LOGGER = Logger.getLogger(RequestExecutor.class.getName());
+    private static final int FIRST_SERVER_ERROR_STATUS = 500;
+    private final HttpClient client;
+    private final NodeSelector nodeSelector;
+    private final HedgingPolicy hedgingPolicy;
+    private final CircuitBreakerRegistry circuitBreakers;
+
+    /**
+     * Create a new instance of {@link RequestExecutor} that sends all requests to the host in the request URI.
+     *
+     * @param client HTTP client that sends the requests
+     */
+    public RequestExecutor(final HttpClient client) {
+        this(builder(client));
+    }
+
+    private RequestExecutor(final Builder builder) {
+        this.client = builder.client;
+        this.nodeSelector = builder.nodeSelector;
+        this.hedgingPolicy = builder.hedgingPolicy;
+        this.circuitBreakers = builder.circuitBreakers;
+    }
+
+    /**
+     * Create a new builder for a {@link RequestExecutor}.
+     *
+     * @param client HTTP client that sends the requests
+     * @return new builder
+     */
+    public static Builder builder(final HttpClient client) {
+        return new Builder(client);
+    }
+
+    /**
+     * @return HTTP client that sends the requests
+     */
+    public HttpClient getClient() {
+        return this.client;
+    }
+
+    /**
+     * Send a request and wait for the response.
+     *
+     * @param <T>            type of the response body
+     * @param requestBuilder builder of the request to send
+     * @param bodyHandler    handler for the response body
+     * @param timeouts       timeouts for this request
+     * @return response
+     * @throws IOException          if sending or receiving fails or a timeout expired
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    public <T> HttpResponse<T> send(final HttpRequest.Builder requestBuilder, final BodyHandler<T> bodyHandler,
+            final RequestTimeouts timeouts) throws IOException, InterruptedException {
+        final Optional<Duration> totalTimeout = applyTimeouts(requestBuilder, timeouts);
+        final Attempt attempt = new Attempt(requestBuilder);
+        final HttpResponse<T> response;
+        try {
+            response = send(requestBuilder.build(), bodyHandler, totalTimeout);
+        } catch (final IOException | InterruptedException | RuntimeException exception) {
+            attempt.failed(exception);
+            throw exception;
+        }
+        attempt.completed(response);
+        return response;
+    }
+
+    /**
+     * Send an idempotent request and wait for the response, sending a duplicate if the response is late.
+     * <p>
+     * Without a {@link HedgingPolicy} this is the same as
+     * {@link #send(HttpRequest.Builder, BodyHandler, RequestTimeouts)}. The body handler must support concurrent
+     * requests, so do not use it for downloading to a file.
+     * </p>
+     *
+     * @param <T>            type of the response body
+     * @param requestBuilder builder of the request to send
+     * @param bodyHandler    handler for the response body
+     * @param timeouts       timeouts for this request
+     * @return first response
+     * @throws IOException          if all requests fail or a timeout expired
+     * @throws InterruptedException if the thread is interrupted while waiting for the response
+     */
+    public <T> HttpResponse<T> sendHedged(final HttpRequest.Builder requestBuilder, final BodyHandler<T> bodyHandler,
+            final RequestTimeouts timeouts) throws IOException, InterruptedException {
+        if (this.hedgingPolicy == null) {
+            return send(requestBuilder, bodyHandler, timeouts);
+        }
+        final Optional<Duration> totalTimeout = applyTimeouts(requestBuilder, timeouts);
+        final long startNanos = System.nanoTime();
+        this.hedgingPolicy.recordRequest();
+        final HedgedExchange<T> exchange = new HedgedExchange<>(bodyHandler);
+        final HttpRequest request = exchange.start(requestBuilder);
+        try {
+            final Duration hedgeDelay = this.hedgingPolicy.getHedgeDelay();
+            if (totalTimeout.isEmpty() || (totalTimeout.get().compareTo(hedgeDelay) > 0)) {
+                final Optional<HttpResponse<T>> earlyResponse = awaitHedgeDelay(exchange.response, hedgeDelay);
+                if (earlyResponse.isPresent()) {
+                    return earlyResponse.get();
+                }
+                if (this.hedgingPolicy.tryAcquireHedge()) {
+                    LOGGER.fine(() -> "Hedging request " + request + " after " + hedgeDelay);
+                    exchange.startHedge(requestBuilder);
+                }
+            }
+            return await(exchange.response, request, totalTimeout, startNanos);
+        } finally {
+            exchange.cancelPendingAttempts();
+        }
+    }
+
+    private Optional<Duration> applyTimeouts(final HttpRequest.Builder requestBuilder, final RequestTimeouts timeouts)
+            throws HttpTimeoutException {
+        final Optional<Deadline> deadline = Deadline.current();
+        final Optional<Duration> firstByteTimeout = limit(timeouts.getFirstByteTimeout(), deadline);
+        final Optional<Duration> totalTimeout = limit(timeouts.getTotalTimeout(), deadline);
+        if (isExpired(firstByteTimeout) || isExpired(totalTimeout)) {
+            throw new HttpTimeoutException(messageBuilder("E-BFSJ-51")
+                    .message("Deadline expired before sending request {{request}}.", requestBuilder.build())
+                    .toString());
+        }
+        firstByteTimeout.ifPresent(requestBuilder::timeout);
+        return totalTimeout;
+    }
+
+    private NodeSelector.Node selectNode(final HttpRequest.Builder requestBuilder) {
+        if (this.nodeSelector == null) {
+            return null;
+        }
+        final NodeSelector.Node node = this.nodeSelector.select();
+        requestBuilder.uri(NodeSelector.resolve(requestBuilder.build().uri(), node));
+        return node;
+    }
+
+    private <T> HttpResponse<T> send(final HttpRequest request, final BodyHandler<T> bodyHandler,
+            final Optional<Duration> totalTimeout) throws IOException, InterruptedException {
+        if (totalTimeout.isEmpty()) {
+            return this.client.send(request, bodyHandler);
+        }
+        return sendWithTotalTimeout(request, bodyHandler, totalTimeout.get());
+    }
+
+    private static Optional<Duration> limit(final Optional<Duration> timeout, final Optional<Deadline> deadline) {
+        if (deadline.isEmpty()) {
+            return timeout;
+        }
+        return Optional.of(timeout.map(deadline.get()::limit).orElseGet(deadline.get()::remaining));
+    }
+
+    private static boolean isExpired(final Optional<Duration> timeout) {
+        return timeout.isPresent() && (timeout.get().isZero() || timeout.get().isNegative());
+    }
+
+    private <T> HttpResponse<T> sendWithTotalTimeout(final HttpRequest request, final BodyHandler<T> bodyHandler,
+            final Duration totalTimeout) throws IOException, InterruptedException {
+        final CompletableFuture<HttpResponse<T>> response = this.client.sendAsync(request, bodyHandler);
+        try {
+            return response.get(totalTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException exception) {
+            response.cancel(true);
+            throw totalTimeoutExpired(request, totalTimeout);
+        } catch (final InterruptedException exception) {
+            response.cancel(true);
+            throw exception;
+        } catch (final ExecutionException exception) {
+            throw unwrap(exception);
+        }
+    }
+
+    private static HttpTimeoutException totalTimeoutExpired(final HttpRequest request, final Duration totalTimeout) {
+        LOGGER.fine(() -> "Request " + request + " did not complete within " + totalTimeout);
+        return new HttpTimeoutException(messageBuilder("E-BFSJ-52")
+                .message("Request {{request}} did not complete within {{timeout}}.", request, totalTimeout)
+                .toString());
+    }
+
+    private static <T> Optional<HttpResponse<T>> awaitHedgeDelay(final CompletableFuture<HttpResponse<T>> response,
+            final Duration hedgeDelay) throws IOException, InterruptedException {
+        try {
+            return Optional.of(response.get(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS));
+        } catch (final TimeoutException exception) {
+            return Optional.empty();
+        } catch (final ExecutionException exception) {
+            throw unwrap(exception);
+        }
+    }
+
+    private static <T> HttpResponse<T> await(final CompletableFuture<HttpResponse<T>> response,
+            final HttpRequest request, final Optional<Duration> totalTimeout, final long startNanos)
+            throws IOException, InterruptedException {
+        try {
+            if (totalTimeout.isEmpty()) {
+                return response.get();
+            }
+            final long remainingNanos = totalTimeout.get().toNanos() - (System.nanoTime() - startNanos);
+            return response.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException exception) {
+            throw totalTimeoutExpired(request, totalTimeout.orElseThrow());
+        } catch (final ExecutionException exception) {
+            throw unwrap(exception);
+        }
+    }
+
+    private static IOException unwrap(final ExecutionException exception) {
+        final Throwable cause = exception.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        } else {
+            return new IOException(cause);
+        }
+    }
+
+    /**
+     * Original request and its hedges. The first successful response completes the exchange, failures only if all
+     * requests failed.
+     */
+    private final class HedgedExchange<T> {
+        private final BodyHandler<T> bodyHandler;
+        private final CompletableFuture<HttpResponse<T>> response = new CompletableFuture<>();
+        private final List<CompletableFuture<HttpResponse<T>>> attempts = new ArrayList<>(2);
+        private final AtomicInteger pendingAttempts = new AtomicInteger();
+
+        private HedgedExchange(final BodyHandler<T> bodyHandler) {
+            this.bodyHandler = bodyHandler;
+        }
+
+        private HttpRequest start(final HttpRequest.Builder requestBuilder) throws CircuitOpenException {
+            final Attempt attempt = new Attempt(requestBuilder);
+            final HttpRequest request = requestBuilder.build();
+            final long startNanos = System.nanoTime();
+            this.pendingAttempts.incrementAndGet();
+            final CompletableFuture<HttpResponse<T>> future = RequestExecutor.this.client.sendAsync(request,
+                    this.bodyHandler);
+            this.attempts.add(future);
+            future.whenComplete((result, failure) -> complete(attempt, startNanos, result, failure));
+            return request;
+        }
+
+        private void startHedge(final HttpRequest.Builder requestBuilder) {
+            try {
+                start(requestBuilder);
+            } catch (final CircuitOpenException exception) {
+                LOGGER.fine(() -> "Skipping hedge: " + exception.getMessage());
+            }
+        }
+
+        private void complete(final Attempt attempt, final long startNanos, final HttpResponse<T> result,
+                final Throwable failure) {
+            if (failure == null) {
+                attempt.completed(result);
+                RequestExecutor.this.hedgingPolicy.recordLatency(Duration.ofNanos(System.nanoTime() - startNanos));
+                this.response.complete(result);
+            } else {
+                final Throwable cause = (failure instanceof CompletionException) && (failure.getCause() != null)
+                        ? failure.getCause()
+                        : failure;
+                attempt.failed(cause);
+                if (this.pendingAttempts.decrementAndGet() == 0) {
+                    this.response.completeExceptionally(cause);
+                }
+            }
+        }
+
+        private void cancelPendingAttempts() {
+            for (final CompletableFuture<HttpResponse<T>> attempt : this.attempts) {
+                if (!attempt.isDone()) {
+                    attempt.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Single request to an endpoint. Reports the outcome to the selected node and the circuit breaker of the endpoint.
+     */
+    private final class Attempt {
+        private final NodeSelector.Node node;
+        private final CircuitBreaker circuitBreaker;
+
+        private Attempt(final HttpRequest.Builder requestBuilder) throws CircuitOpenException {
+            this.node = selectNode(requestBuilder);
+            this.circuitBreaker = (RequestExecutor.this.circuitBreakers == null) ? null
+                    : RequestExecutor.this.circuitBreakers.getCircuitBreaker(requestBuilder.build().uri());
+            if (this.node != null) {
+                this.node.requestStarted();
+            }
+            if (this.circuitBreaker != null) {
+                try {
+                    this.circuitBreaker.acquirePermission();
+                } catch (final CircuitOpenException exception) {
+                    if (this.node != null) {
+                        this.node.requestFailed();
+                    }
+                    throw exception;
+                }
+            }
+        }
+
+        private void completed(final HttpResponse<?> response) {
+            if ((this.node == null) && (this.circuitBreaker == null)) {
+                return;
+            }
+            if (response.statusCode() >= FIRST_SERVER_ERROR_STATUS) {
+                failed();
+            } else {
+                if (this.node != null) {
+                    this.node.requestSucceeded();
+                }
+                if (this.circuitBreaker != null) {
+                    this.circuitBreaker.recordSuccess();
+                }
+            }
+        }
+
+        private void failed(final Throwable failure) {
+            if (failure instanceof IOException) {
+                failed();
+            } else {
+                if (this.node != null) {
+                    this.node.requestAbandoned();
+                }
+                if (this.circuitBreaker != null) {
+                    this.circuitBreaker.release();
+                }
+            }
+        }
+
+        private void failed() {
+            if (this.node != null) {
+                this.node.requestFailed();
+            }
+            if (this.circuitBreaker != null) {
+                this.circuitBreaker.recordFailure();
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link RequestExecutor} objects.
+     */
+    public static final class Builder {
+        private final HttpClient client;
+        private NodeSelector nodeSelector;
+        private HedgingPolicy hedgingPolicy;
+        private CircuitBreakerRegistry circuitBreakers;
+
+        private Builder(final HttpClient client) {
+            this.client = client;
+        }
+
+        /**
+         * Spread requests across cluster nodes.
+         * <p>
+         * Defaults to sending requests to the host in the request URI.
+         *
+         * @param nodeSelector selector for the node of each request
+         * @return Builder instance for fluent programming
+         */
+        public Builder nodeSelector(final NodeSelector nodeSelector) {
+            this.nodeSelector = nodeSelector;
+            return this;
+        }
+
+        /**
+         * Hedge slow requests sent with {@link RequestExecutor#sendHedged(HttpRequest.Builder, BodyHandler,
+         * RequestTimeouts)}.
+         * <p>
+         * Defaults to never hedging.
+         *
+         * @param hedgingPolicy policy for hedging reads
+         * @return Builder instance for fluent programming
+         */
+        public Builder hedgingPolicy(final HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * Guard each endpoint with a circuit breaker from the given registry.
+         * <p>
+         * Defaults to no circuit breakers.
+         *
+         * @param circuitBreakers registry of circuit breakers
+         * @return Builder instance for fluent programming
+         */
+        public Builder circuitBreakers(final CircuitBreakerRegistry circuitBreakers) {
+            this.circuitBreakers = circuitBreakers;
+            return this;
+        }
+
+        /**
+         * Build a new {@link RequestExecutor}.
+         *
+         * @return new request executor
+         */
+        public RequestExecutor build() {
+            return new RequestExecutor(this);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.exasol.bucketfs.http;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Timeouts for a single HTTP request.
+ * <p>
+ * The first byte timeout limits the time until the response headers arrive. The total timeout limits the time until
+ * the complete response body is received. Connect timeouts are a property of the HTTP client, see
+ * {@link HttpClientBuilder#connectTimeout(Duration)}.
+ * </p>
+ * <p>
+ * Instances are immutable. Start with {@link #none()} and add timeouts with the {@code with...} methods.
+ * </p>
+ */
+public final class RequestTimeouts {
+    private static final RequestTimeouts NONE = new RequestTimeouts(null, null);
+    private final Duration firstByteTimeout;
+    private final Duration totalTimeout;
+
+    private RequestTimeouts(final Duration firstByteTimeout, final Duration totalTimeout) {
+        this.firstByteTimeout = firstByteTimeout;
+        this.totalTimeout = totalTimeout;
+    }
+
+    /**
+     * Get request timeouts that let requests wait forever.
+     *
+     * @return request timeouts without any limit
+     */
+    public static RequestTimeouts none() {
+        return NONE;
+    }
+
+    /**
+     * Create a copy with the given first byte timeout.
+     *
+     * @param timeout maximum duration until the response headers arrive
+     * @return new request timeouts
+     */
+    public RequestTimeouts withFirstByteTimeout(final Duration timeout) {
+        return new RequestTimeouts(Objects.requireNonNull(timeout, "timeout"), this.totalTimeout);
+    }
+
+    /**
+     * Create a copy with the given total timeout.
+     *
+     * @param timeout maximum duration until the complete response is received
+     * @return new request timeouts
+     */
+    public RequestTimeouts withTotalTimeout(final Duration timeout) {
+        return new RequestTimeouts(this.firstByteTimeout, Objects.requireNonNull(timeout, "timeout"));
+    }
+
+    /**
+     * @return maximum duration until the response headers arrive
+     */
+    public Optional<Duration> getFirstByteTimeout() {
+        return Optional.ofNullable(this.firstByteTimeout);
+    }
+
+    /**
+     * @return maximum duration until the complete response is received
+     */
+    public Optional<Duration> getTotalTimeout() {
+        return Optional.ofNullable(this.totalTimeout);
+    }
+
+    @Override
+    public String toString() {
+        return "RequestTimeouts [firstByte=" + this.firstByteTimeout + ", total=" + this.totalTimeout + "]";
+    }
+}
@@ -1,6 +1,7 @@
 package com.exasol.bucketfs.http;
 
 import java.security.cert.X509Certificate;
+import java.util.Objects;
 
 class SubjectAltName {
     private final Type type;
@@ -19,6 +20,23 @@ class SubjectAltName {
         return value;
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, value);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final SubjectAltName other = (SubjectAltName) obj;
+        return (type == other.type) && Objects.equals(value, other.value);
+    }
+
     @Override
     public String toString() {
         return "X509SubjectAltName [type=" + type + ", value=" + value + "]";
@@ -3,7 +3,7 @@ package com.exasol.bucketfs.http;
 import java.net.Socket;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
-import java.util.List;
+import java.util.*;
 import java.util.logging.Logger;
 
 import javax.net.ssl.*;
@@ -13,16 +13,32 @@ import javax.net.ssl.*;
  * Docker DB uses a self-signed certificate that does not specify {@code localhost}.
  * <p>
  * Based on https://stackoverflow.com/a/77538035
+ * <p>
+ * The patched certificates are kept in a small LRU cache, so that repeated handshakes with the same server do not
+ * create a new {@link FixedSANCertificate} each time.
  */
 class SubjectAltNameTrustManager extends X509ExtendedTrustManager {
     private static final Logger LOGGER = Logger.getLogger(SubjectAltNameTrustManager.class.getName());
+    static final int MAX_CACHED_CERTIFICATES = 16;
 
     private final X509ExtendedTrustManager delegate;
     private final List<SubjectAltName> alternativeNames;
+    private final Map<X509Certificate, FixedSANCertificate> fixedCertificates = createCache();
 
     private SubjectAltNameTrustManager(final X509ExtendedTrustManager delegate, final List<SubjectAltName> altNames) {
         this.delegate = delegate;
-        this.alternativeNames = altNames;
+        this.alternativeNames = List.copyOf(altNames);
+    }
+
+    // X509Certificate implements equals() and hashCode() based on the encoded certificate.
+    @SuppressWarnings("serial") // No serialization required
+    private static Map<X509Certificate, FixedSANCertificate> createCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(MAX_CACHED_CERTIFICATES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<X509Certificate, FixedSANCertificate> eldest) {
+                return size() > MAX_CACHED_CERTIFICATES;
+            }
+        });
     }
 
     // [impl->dsn~custom-tls-certificate.additional-subject-alternative-names~1]
@@ -59,11 +75,16 @@ class SubjectAltNameTrustManager extends X509ExtendedTrustManager {
         if (chain == null || chain.length < 1) {
             return chain;
         }
-        LOGGER.finest(() -> "Modify Subject Alternative Name of first certificate to use " + alternativeNames);
-        final FixedSANCertificate fixedSANCertificate = new FixedSANCertificate(chain[0], alternativeNames);
+        final FixedSANCertificate fixedSANCertificate = this.fixedCertificates.computeIfAbsent(chain[0],
+                this::createFixedCertificate);
         return replaceFirstCertificate(chain, fixedSANCertificate);
     }
 
+    private FixedSANCertificate createFixedCertificate(final X509Certificate certificate) {
+        LOGGER.finest(() -> "Modify Subject Alternative Name of first certificate to use " + alternativeNames);
+        return new FixedSANCertificate(certificate, alternativeNames);
+    }
+
     private X509Certificate[] replaceFirstCertificate(final X509Certificate[] chain,
             final FixedSANCertificate fixedSANCertificate) {
         final X509Certificate[] result = new X509Certificate[chain.length];
@@ -7,7 +7,7 @@ import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.security.cert.X509Certificate;
 
-import com.exasol.bucketfs.http.HttpClientBuilder;
+import com.exasol.bucketfs.http.*;
 import com.exasol.bucketfs.jsonrpc.CreateBucketCommand.CreateBucketCommandBuilder;
 
 /**
@@ -63,6 +63,7 @@ public class CommandFactory {
         private final HttpClientBuilder httpClientBuilder = new HttpClientBuilder();
         private URI serviceUri;
         private Authenticator authenticator;
+        private RequestTimeouts requestTimeouts = RequestTimeouts.none();
 
         private Builder() {
             // empty by intention
@@ -98,6 +99,23 @@ public class CommandFactory {
             return this;
         }
 
+        /**
+         * Define if the certificate specified via {@link #certificate(X509Certificate)} is pinned.
+         * <p>
+         * A pinned certificate is only compared with the certificate of the server instead of validating the
+         * certificate chain. This is faster and sufficient for self-signed certificates. The host name is still
+         * verified.
+         * <p>
+         * Defaults to {@code false}. Requires a certificate.
+         *
+         * @param pinCertificate {@code true} to accept only the exact configured certificate
+         * @return this instance for method chaining
+         */
+        public Builder pinCertificate(final boolean pinCertificate) {
+            this.httpClientBuilder.pinCertificate(pinCertificate);
+            return this;
+        }
+
         /**
          * Set the URL of the RPC interface, e.g. {@code "https://<hostname>:443/jrpc"}.
          *
@@ -144,6 +162,19 @@ public class CommandFactory {
             return this;
         }
 
+        /**
+         * Use the given timeouts for all RPC requests.
+         * <p>
+         * Defaults to no timeouts.
+         *
+         * @param requestTimeouts request timeouts
+         * @return this instance for method chaining
+         */
+        public Builder requestTimeouts(final RequestTimeouts requestTimeouts) {
+            this.requestTimeouts = requestTimeouts;
+            return this;
+        }
+
         /**
          * Build a new {@link CommandFactory}.
          *
@@ -153,7 +184,8 @@ public class CommandFactory {
         public CommandFactory build() {
             final JsonMapper jsonMapper = JsonMapper.create();
             final HttpClient httpClient = this.httpClientBuilder.build();
-            final JsonRpcClient client = new JsonRpcClient(httpClient, jsonMapper, this.authenticator, this.serviceUri);
+            final JsonRpcClient client = new JsonRpcClient(new RequestExecutor(httpClient), this.requestTimeouts,
+                    jsonMapper, this.authenticator, this.serviceUri);
             final JsonRpcCommandExecutor executor = new JsonRpcCommandExecutor(client, jsonMapper);
             return new CommandFactory(executor, jsonMapper);
         }
@@ -13,28 +13,39 @@ import java.time.Instant;
 import java.util.Objects;
 import java.util.logging.Logger;
 
+import com.exasol.bucketfs.http.RequestExecutor;
+import com.exasol.bucketfs.http.RequestTimeouts;
 import com.exasol.bucketfs.jsonrpc.JsonRpcCommandExecutor.JsonRpcPayload;
 
 class JsonRpcClient {
     private static final Logger LOGGER = Logger.getLogger(JsonRpcClient.class.getName());
 
-    private final HttpClient httpClient;
+    private final RequestExecutor requestExecutor;
+    private final RequestTimeouts timeouts;
     private final JsonMapper serializer;
     private final Authenticator authenticator;
     private final URI serviceUri;
 
     JsonRpcClient(final HttpClient httpClient, final JsonMapper serializer, final Authenticator authenticator,
             final URI serviceUri) {
-        this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
+        this(new RequestExecutor(Objects.requireNonNull(httpClient, "httpClient")), RequestTimeouts.none(), serializer,
+                authenticator, serviceUri);
+    }
+
+    JsonRpcClient(final RequestExecutor requestExecutor, final RequestTimeouts timeouts, final JsonMapper serializer,
+            final Authenticator authenticator, final URI serviceUri) {
+        this.requestExecutor = Objects.requireNonNull(requestExecutor, "requestExecutor");
+        this.timeouts = Objects.requireNonNull(timeouts, "timeouts");
         this.serializer = Objects.requireNonNull(serializer, "serializer");
         this.authenticator = Objects.requireNonNull(authenticator, "authenticator");
         this.serviceUri = Objects.requireNonNull(serviceUri, "serviceUri");
     }
 
     String sendRequest(final JsonRpcPayload payload) {
-        final var request = buildRequest(payload);
+        final Builder requestBuilder = buildRequest(payload);
+        final var request = requestBuilder.build();
         final Instant start = Instant.now();
-        final HttpResponse<String> response = sendRequest(request);
+        final HttpResponse<String> response = sendRequest(requestBuilder, request);
         verifySuccessResponse(request, response);
         final String responseBody = response.body();
         LOGGER.finest(() -> "Received response " + response + " for request " + request + " with body '" + responseBody
@@ -42,14 +53,13 @@ class JsonRpcClient {
         return responseBody;
     }
 
-    private HttpRequest buildRequest(final JsonRpcPayload payload) {
+    private Builder buildRequest(final JsonRpcPayload payload) {
         final String requestBody = this.serializer.serialize(payload);
         final Builder requestBuilder = HttpRequest.newBuilder(this.serviceUri)
                 .POST(BodyPublishers.ofString(requestBody));
         this.authenticator.authenticate(requestBuilder);
-        final var request = requestBuilder.build();
-        LOGGER.finest(() -> "Sending request " + request + " with body '" + requestBody + "'");
-        return request;
+        LOGGER.finest(() -> "Sending request to " + this.serviceUri + " with body '" + requestBody + "'");
+        return requestBuilder;
     }
 
     private void verifySuccessResponse(final HttpRequest request, final HttpResponse<String> response) {
@@ -64,9 +74,9 @@ class JsonRpcClient {
         return (response.statusCode() / 100) != 2;
     }
 
-    private HttpResponse<String> sendRequest(final HttpRequest request) {
+    private HttpResponse<String> sendRequest(final Builder requestBuilder, final HttpRequest request) {
         try {
-            return this.httpClient.send(request, BodyHandlers.ofString());
+            return this.requestExecutor.send(requestBuilder, BodyHandlers.ofString(), this.timeouts);
         } catch (final IOException exception) {
             throw new JsonRpcException(messageBuilder("E-BFSJ-23")
                     .message("Unable to execute RPC request {{request}}", request).toString(), exception);
@@ -5,9 +5,11 @@ import static com.exasol.bucketfs.list.ListingRetriever.removeLeadingSeparator;
 import static com.exasol.errorreporting.ExaError.messageBuilder;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.exasol.bucketfs.BucketAccessException;
 
@@ -42,8 +44,25 @@ public class BucketContentLister {
      * @throws BucketAccessException in case of errors during retrieval of the inventory
      */
     public List<String> retrieve(final String path, final boolean recursive) throws BucketAccessException {
+        return retrieve(path, recursive, List.of());
+    }
+
+    /**
+     * Retrieve the listing and merge additional file paths into it that the bucket does not report yet, e.g. for
+     * uploads that are not yet synchronized.
+     *
+     * @param path            path to list the contents of
+     * @param recursive       {@code true} if result should include entries in subdirectories of the specified path,
+     *                        too
+     * @param additionalPaths paths of files relative to the bucket root to include in the listing
+     * @return list of files and subdirectories
+     * @throws BucketAccessException in case of errors during retrieval of the inventory
+     */
+    public List<String> retrieve(final String path, final boolean recursive, final Collection<String> additionalPaths)
+            throws BucketAccessException {
         final String prefix = removeLeadingSeparator(path);
-        final List<String> list = this.listingRetriever.retrieve(this.bucketUri, this.readPassword) //
+        final List<String> list = Stream
+                .concat(this.listingRetriever.retrieve(this.bucketUri, this.readPassword), additionalPaths.stream()) //
                 .filter(e -> e.startsWith(prefix)) // should include "prefix" and "prefix/"
                 .map(e -> removeLeadingSeparator(e.substring(prefix.length()))) // cut of path prefix
                 .map(recursive ? Function.identity() : this::extractFirstPathComponent) //
@@ -14,13 +14,18 @@ import java.util.logging.Logger;
 import java.util.stream.Stream;
 
 import com.exasol.bucketfs.*;
+import com.exasol.bucketfs.http.RequestExecutor;
+import com.exasol.bucketfs.http.RequestTimeouts;
 
 /**
  * This class retrieves the list of buckets or of objects inside a bucket.
  */
 public class ListingRetriever {
-    /** Maximum time to wait for a list request */
+    /** Maximum time to wait for the response to a list request unless configured differently */
     public static final int LIST_TIMEOUT_SECONDS = 90;
+    /** Timeouts for list requests unless configured differently */
+    public static final RequestTimeouts DEFAULT_LIST_TIMEOUTS = RequestTimeouts.none()
+            .withFirstByteTimeout(Duration.ofSeconds(LIST_TIMEOUT_SECONDS));
 
     /**
      * @param protocol protocol
@@ -42,7 +47,8 @@ public class ListingRetriever {
     }
 
     private static final Logger LOGGER = Logger.getLogger(ListingRetriever.class.getName());
-    private final HttpClient httpClient;
+    private final RequestExecutor requestExecutor;
+    private final RequestTimeouts timeouts;
 
     /**
      * Create a new instance of {@link ListingRetriever}.
@@ -50,7 +56,18 @@ public class ListingRetriever {
      * @param httpClient HTTP client to access the BucketFS service
      */
     public ListingRetriever(final HttpClient httpClient) {
-        this.httpClient = httpClient;
+        this(new RequestExecutor(httpClient), DEFAULT_LIST_TIMEOUTS);
+    }
+
+    /**
+     * Create a new instance of {@link ListingRetriever}.
+     *
+     * @param requestExecutor executor for requests to the BucketFS service
+     * @param timeouts        timeouts for list requests
+     */
+    public ListingRetriever(final RequestExecutor requestExecutor, final RequestTimeouts timeouts) {
+        this.requestExecutor = requestExecutor;
+        this.timeouts = timeouts;
     }
 
     /**
@@ -68,11 +85,10 @@ public class ListingRetriever {
     private String requestListing(final URI uri, final String readPassword) throws BucketAccessException {
         LOGGER.finest(() -> "Listing contents of URI '" + uri + "'");
         try {
-            final HttpRequest request = HttpRequest.newBuilder(uri) //
-                    .timeout(Duration.ofSeconds(LIST_TIMEOUT_SECONDS))
-                    .header("Authorization", encodeBasicAuth(readPassword)) //
-                    .build();
-            final HttpResponse<String> response = this.httpClient.send(request, BodyHandlers.ofString());
+            final HttpRequest.Builder request = HttpRequest.newBuilder(uri) //
+                    .header("Authorization", encodeBasicAuth(readPassword));
+            final HttpResponse<String> response = this.requestExecutor.sendHedged(request, BodyHandlers.ofString(),
+                    this.timeouts);
             HttpResponseEvaluator.evaluate(uri, LIST, response.statusCode());
             return response.body();
         } catch (final IOException exception) {
@@ -0,0 +1,27 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static com.exasol.bucketfs.BucketConstants.PATH_SEPARATOR;
+import static com.exasol.bucketfs.list.ListingRetriever.removeLeadingSeparator;
+
+import java.nio.file.Path;
+
+/**
+ * Helper for paths of planned uploads.
+ */
+final class BucketPaths {
+    private BucketPaths() {
+        // only static usage
+    }
+
+    /**
+     * Get the path of the file in the bucket that an upload of a local file creates.
+     *
+     * @param file                   local file
+     * @param fullFileNameInBucketFs target path as passed to the upload, may end with a separator for a directory
+     * @return path of the file relative to the bucket root
+     */
+    static String toFilePathInBucket(final Path file, final String fullFileNameInBucketFs) {
+        final String path = removeLeadingSeparator(fullFileNameInBucketFs);
+        return path.endsWith(PATH_SEPARATOR) ? path + file.getFileName() : path;
+    }
+}
@@ -0,0 +1,246 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import com.exasol.bucketfs.BucketAccessException;
+import com.exasol.bucketfs.ReadOnlyBucket;
+import com.exasol.errorreporting.ExaError;
+
+/**
+ * This {@link UploadNecessityCheckStrategy} asks a chain of {@link UploadNecessityCheckStage stages} and stops at the
+ * first stage that takes a definitive decision.
+ * <p>
+ * Order the stages by cost, cheapest first, e.g. a {@link FileSizeCheckStage} before a
+ * {@link ChecksumUploadNecessityCheckStrategy checksum comparison}. Files that no stage decides are uploaded.
+ * </p>
+ * <p>
+ * The strategy counts the decisions of each stage and the time spent in it. Use {@link #getStatistics()} to find out
+ * which stage decides most files and tune the order of the chain.
+ * </p>
+ */
+public class ChainedUploadNecessityCheckStrategy implements UploadNecessityCheckStrategy {
+    private static final Logger LOGGER = Logger.getLogger(ChainedUploadNecessityCheckStrategy.class.getName());
+    private final List<UploadNecessityCheckStage> stages;
+    private final List<StageCounters> counters;
+
+    /**
+     * Create a new instance of {@link ChainedUploadNecessityCheckStrategy}.
+     *
+     * @param stages stages in the order they are asked
+     */
+    public ChainedUploadNecessityCheckStrategy(final List<UploadNecessityCheckStage> stages) {
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException(ExaError.messageBuilder("E-BFSJ-44")
+                    .message("Chain of upload necessity checks is empty.")
+                    .mitigation("Specify at least one stage.").toString());
+        }
+        this.stages = List.copyOf(stages);
+        this.counters = this.stages.stream().map(stage -> new StageCounters()).collect(Collectors.toList());
+    }
+
+    /**
+     * Create a new instance of {@link ChainedUploadNecessityCheckStrategy}.
+     *
+     * @param stages stages in the order they are asked
+     * @return new strategy
+     */
+    public static ChainedUploadNecessityCheckStrategy of(final UploadNecessityCheckStage... stages) {
+        return new ChainedUploadNecessityCheckStrategy(List.of(stages));
+    }
+
+    @Override
+    public boolean isUploadNecessary(final Path file, final String fullFileNameInBucketFs, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        for (int i = 0; i < this.stages.size(); ++i) {
+            final long start = System.nanoTime();
+            final UploadNecessityCheckStage.Decision decision = this.stages.get(i).check(file, fullFileNameInBucketFs,
+                    bucket);
+            this.counters.get(i).record(decision);
+            this.counters.get(i).addTime(System.nanoTime() - start);
+            if (decision != UploadNecessityCheckStage.Decision.UNDECIDED) {
+                logDecision(i, decision, fullFileNameInBucketFs);
+                return decision == UploadNecessityCheckStage.Decision.UPLOAD;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decide for multiple files if it is necessary to upload them to BucketFS.
+     * <p>
+     * Each stage checks all files that the previous stages left undecided at once.
+     * </p>
+     *
+     * @param plannedUploads map from local file to path in BucketFS
+     * @param bucket         bucket the files are uploaded to
+     * @return planned uploads that are necessary, in the iteration order of {@code plannedUploads}
+     * @throws BucketAccessException if the necessity check cannot be executed
+     */
+    @Override
+    public Map<Path, String> filterNecessaryUploads(final Map<Path, String> plannedUploads,
+            final ReadOnlyBucket bucket) throws BucketAccessException {
+        final Set<Path> skippedFiles = new HashSet<>();
+        Map<Path, String> undecided = new LinkedHashMap<>(plannedUploads);
+        for (int i = 0; (i < this.stages.size()) && !undecided.isEmpty(); ++i) {
+            final long start = System.nanoTime();
+            final Map<Path, UploadNecessityCheckStage.Decision> decisions = this.stages.get(i).checkAll(undecided,
+                    bucket);
+            this.counters.get(i).addTime(System.nanoTime() - start);
+            final Map<Path, String> stillUndecided = new LinkedHashMap<>();
+            for (final Map.Entry<Path, String> plannedUpload : undecided.entrySet()) {
+                final UploadNecessityCheckStage.Decision decision = decisions.getOrDefault(plannedUpload.getKey(),
+                        UploadNecessityCheckStage.Decision.UNDECIDED);
+                this.counters.get(i).record(decision);
+                if (decision == UploadNecessityCheckStage.Decision.UNDECIDED) {
+                    stillUndecided.put(plannedUpload.getKey(), plannedUpload.getValue());
+                } else if (decision == UploadNecessityCheckStage.Decision.SKIP) {
+                    skippedFiles.add(plannedUpload.getKey());
+                }
+            }
+            undecided = stillUndecided;
+        }
+        final Map<Path, String> necessaryUploads = new LinkedHashMap<>();
+        for (final Map.Entry<Path, String> plannedUpload : plannedUploads.entrySet()) {
+            if (!skippedFiles.contains(plannedUpload.getKey())) {
+                necessaryUploads.put(plannedUpload.getKey(), plannedUpload.getValue());
+            }
+        }
+        return necessaryUploads;
+    }
+
+    private void logDecision(final int stageIndex, final UploadNecessityCheckStage.Decision decision,
+            final String fullFileNameInBucketFs) {
+        LOGGER.finest(() -> "Stage " + this.stages.get(stageIndex).getName() + " decided " + decision + " for '"
+                + fullFileNameInBucketFs + "'");
+    }
+
+    /**
+     * Get the statistics of all stages.
+     *
+     * @return statistics in the order of the stages
+     */
+    public List<StageStatistics> getStatistics() {
+        final List<StageStatistics> statistics = new ArrayList<>();
+        for (int i = 0; i < this.stages.size(); ++i) {
+            statistics.add(this.counters.get(i).snapshot(this.stages.get(i).getName()));
+        }
+        return statistics;
+    }
+
+    /**
+     * Reset the statistics of all stages.
+     */
+    public void resetStatistics() {
+        this.counters.forEach(StageCounters::reset);
+    }
+
+    /**
+     * Statistics of a single stage.
+     */
+    public static final class StageStatistics {
+        private final String stageName;
+        private final long uploadDecisions;
+        private final long skipDecisions;
+        private final long undecided;
+        private final Duration timeSpent;
+
+        private StageStatistics(final String stageName, final long uploadDecisions, final long skipDecisions,
+                final long undecided, final Duration timeSpent) {
+            this.stageName = stageName;
+            this.uploadDecisions = uploadDecisions;
+            this.skipDecisions = skipDecisions;
+            this.undecided = undecided;
+            this.timeSpent = timeSpent;
+        }
+
+        /**
+         * @return name of the stage
+         */
+        public String getStageName() {
+            return this.stageName;
+        }
+
+        /**
+         * @return number of files the stage decided to upload
+         */
+        public long getUploadDecisions() {
+            return this.uploadDecisions;
+        }
+
+        /**
+         * @return number of files the stage decided to skip
+         */
+        public long getSkipDecisions() {
+            return this.skipDecisions;
+        }
+
+        /**
+         * @return number of files the stage left to the next stage
+         */
+        public long getUndecided() {
+            return this.undecided;
+        }
+
+        /**
+         * @return number of files the stage decided definitively
+         */
+        public long getHits() {
+            return this.uploadDecisions + this.skipDecisions;
+        }
+
+        /**
+         * @return total time spent in the stage
+         */
+        public Duration getTimeSpent() {
+            return this.timeSpent;
+        }
+
+        @Override
+        public String toString() {
+            return this.stageName + ": " + this.uploadDecisions + " upload, " + this.skipDecisions + " skip, "
+                    + this.undecided + " undecided, " + this.timeSpent.toMillis() + " ms";
+        }
+    }
+
+    private static final class StageCounters {
+        private final LongAdder uploadDecisions = new LongAdder();
+        private final LongAdder skipDecisions = new LongAdder();
+        private final LongAdder undecided = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void record(final UploadNecessityCheckStage.Decision decision) {
+            switch (decision) {
+            case UPLOAD:
+                this.uploadDecisions.increment();
+                break;
+            case SKIP:
+                this.skipDecisions.increment();
+                break;
+            default:
+                this.undecided.increment();
+                break;
+            }
+        }
+
+        private void addTime(final long elapsedNanos) {
+            this.nanos.add(elapsedNanos);
+        }
+
+        private StageStatistics snapshot(final String stageName) {
+            return new StageStatistics(stageName, this.uploadDecisions.sum(), this.skipDecisions.sum(),
+                    this.undecided.sum(), Duration.ofNanos(this.nanos.sum()));
+        }
+
+        private void reset() {
+            this.uploadDecisions.reset();
+            this.skipDecisions.reset();
+            this.undecided.reset();
+            this.nanos.reset();
+        }
+    }
+}
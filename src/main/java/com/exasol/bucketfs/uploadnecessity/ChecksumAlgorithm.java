@@ -0,0 +1,141 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static com.exasol.bucketfs.uploadnecessity.ByteArrayToHexConverter.toHex;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+
+import com.exasol.errorreporting.ExaError;
+
+/**
+ * Algorithms for comparing local files with files in BucketFS.
+ * <p>
+ * Each algorithm has a Java implementation for local files and a matching Python implementation for the UDFs that
+ * calculate checksums inside the database. For detecting changes a cryptographic hash is not required, so the faster
+ * algorithms are a good choice if nobody tampers with the files in BucketFS.
+ * </p>
+ */
+public enum ChecksumAlgorithm {
+    /** SHA-512, the default. */
+    SHA_512("SHA-512", "BUCKET_FS_CHECKSUM", "import hashlib\n\n\ndef create_hash():\n    return hashlib.sha512()\n"),
+    /** SHA-256, hardware accelerated on many CPUs. */
+    SHA_256("SHA-256", "BUCKET_FS_CHECKSUM_SHA_256",
+            "import hashlib\n\n\ndef create_hash():\n    return hashlib.sha256()\n"),
+    /** MD5, fast but not collision resistant. */
+    MD5("MD5", "BUCKET_FS_CHECKSUM_MD5", "import hashlib\n\n\ndef create_hash():\n    return hashlib.md5()\n"),
+    /** CRC-32, very fast non-cryptographic checksum. */
+    CRC32("CRC32", "BUCKET_FS_CHECKSUM_CRC32", "import zlib\n\n\nclass Crc32:\n" //
+            + "    def __init__(self):\n        self.value = 0\n\n" //
+            + "    def update(self, data):\n        self.value = zlib.crc32(data, self.value)\n\n" //
+            + "    def hexdigest(self):\n        return \"%08x\" % (self.value & 0xffffffff)\n\n\n" //
+            + "def create_hash():\n    return Crc32()\n");
+
+    private final String algorithmName;
+    private final String checksumUdfName;
+    private final String pythonHashFactory;
+
+    ChecksumAlgorithm(final String algorithmName, final String checksumUdfName, final String pythonHashFactory) {
+        this.algorithmName = algorithmName;
+        this.checksumUdfName = checksumUdfName;
+        this.pythonHashFactory = pythonHashFactory;
+    }
+
+    /**
+     * @return name of the algorithm, e.g. {@code SHA-512}
+     */
+    public String getAlgorithmName() {
+        return this.algorithmName;
+    }
+
+    /**
+     * @return name of the checksum UDF for this algorithm
+     */
+    String getChecksumUdfName() {
+        return this.checksumUdfName;
+    }
+
+    /**
+     * @return name of the directory manifest UDF for this algorithm
+     */
+    String getManifestUdfName() {
+        return this.checksumUdfName.replace("BUCKET_FS_CHECKSUM", "BUCKET_FS_DIRECTORY_MANIFEST");
+    }
+
+    /**
+     * @return name of the sampled fingerprint UDF for this algorithm
+     */
+    String getFingerprintUdfName() {
+        return this.checksumUdfName.replace("BUCKET_FS_CHECKSUM", "BUCKET_FS_FINGERPRINT");
+    }
+
+    /**
+     * @return Python code defining a function {@code create_hash()} that returns an object with the methods
+     *         {@code update(data)} and {@code hexdigest()}
+     */
+    String getPythonHashFactory() {
+        return this.pythonHashFactory;
+    }
+
+    /**
+     * Create a new incremental checksum calculation for local data.
+     *
+     * @return new checksum calculation
+     */
+    IncrementalChecksum createIncrementalChecksum() {
+        if (this == CRC32) {
+            final CRC32 crc = new CRC32();
+            return new IncrementalChecksum() {
+                @Override
+                public void update(final ByteBuffer data) {
+                    crc.update(data);
+                }
+
+                @Override
+                public String getHex() {
+                    return String.format("%08x", crc.getValue());
+                }
+            };
+        }
+        final MessageDigest digest = createMessageDigest();
+        return new IncrementalChecksum() {
+            @Override
+            public void update(final ByteBuffer data) {
+                digest.update(data);
+            }
+
+            @Override
+            public String getHex() {
+                return toHex(digest.digest());
+            }
+        };
+    }
+
+    private MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(this.algorithmName);
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(ExaError.messageBuilder("F-BFSJ-40")
+                    .message("Message digest algorithm {{algorithm}} is not available.", this.algorithmName)
+                    .ticketMitigation().toString(), exception);
+        }
+    }
+
+    /**
+     * Checksum that is calculated incrementally from chunks of data.
+     */
+    interface IncrementalChecksum {
+        /**
+         * Add the remaining bytes of the buffer to the checksum.
+         *
+         * @param data data to add
+         */
+        void update(ByteBuffer data);
+
+        /**
+         * @return checksum as lower case hex string
+         */
+        String getHex();
+    }
+}
@@ -0,0 +1,241 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Lifecycle and usage of the checksum UDFs in the database.
+ * <p>
+ * The UDFs are installed on first use and then reused together with the prepared checksum statement until
+ * {@link #close()}. If the database already contains a script with identical content, e.g. installed by another
+ * process sharing the database, it is reused as is and left in place on {@link #close()}.
+ * </p>
+ */
+class ChecksumUdf implements AutoCloseable {
+    static final String UDF_SCHEMA = HelperScript.SCHEMA;
+    /** Maximum number of files for which a single query computes checksums. */
+    static final int MAX_PATHS_PER_QUERY = 500;
+    private static final Logger LOGGER = Logger.getLogger(ChecksumUdf.class.getName());
+    private final Connection connection;
+    private final HelperScript checksumScript;
+    private final HelperScript manifestScript;
+    private final HelperScript fingerprintScript;
+    private PreparedStatement checksumStatement;
+
+    /**
+     * Create a new {@link ChecksumUdf} calculating SHA-512 checksums.
+     *
+     * @param connection connection to the Exasol database
+     */
+    ChecksumUdf(final Connection connection) {
+        this(connection, ChecksumAlgorithm.SHA_512);
+    }
+
+    /**
+     * Create a new {@link ChecksumUdf}.
+     * <p>
+     * Each algorithm uses its own pair of scripts, so that processes using different algorithms can share a database.
+     * </p>
+     *
+     * @param connection connection to the Exasol database
+     * @param algorithm  checksum algorithm
+     */
+    ChecksumUdf(final Connection connection, final ChecksumAlgorithm algorithm) {
+        this.connection = connection;
+        this.checksumScript = new HelperScript(connection, algorithm.getChecksumUdfName(),
+                "(my_path VARCHAR(2000)) RETURNS VARCHAR(256)", algorithm.getPythonHashFactory(), "checksumUdf.py");
+        this.manifestScript = new HelperScript(connection, algorithm.getManifestUdfName(),
+                "(root_path VARCHAR(2000), with_checksums BOOLEAN) EMITS (file_path VARCHAR(2000), "
+                        + "file_size DECIMAL(20,0), modified DOUBLE, checksum VARCHAR(256))",
+                algorithm.getPythonHashFactory(), "directoryManifestUdf.py");
+        this.fingerprintScript = new HelperScript(connection, algorithm.getFingerprintUdfName(),
+                "(my_path VARCHAR(2000), block_size DECIMAL(18,0)) RETURNS VARCHAR(256)",
+                algorithm.getPythonHashFactory(), "sampledFingerprintUdf.py");
+    }
+
+    /**
+     * @return fully qualified name of the checksum UDF
+     */
+    String getChecksumUdfFullName() {
+        return this.checksumScript.getFullName();
+    }
+
+    /**
+     * @return fully qualified name of the sampled fingerprint UDF
+     */
+    String getFingerprintUdfFullName() {
+        return this.fingerprintScript.getFullName();
+    }
+
+    /**
+     * Calculate the checksum of a file in BucketFS.
+     *
+     * @param pathInUdf path of the file as seen by the UDF
+     * @return checksum
+     * @throws SQLException if installing or running the UDF fails
+     */
+    synchronized String getChecksum(final String pathInUdf) throws SQLException {
+        return runWithReinstall(this.checksumScript, () -> runChecksum(pathInUdf));
+    }
+
+    /**
+     * Calculate the checksums of multiple files in BucketFS with one query per {@value #MAX_PATHS_PER_QUERY} files.
+     *
+     * @param pathsInUdf paths of the files as seen by the UDF
+     * @return map from path as seen by the UDF to checksum
+     * @throws SQLException if installing or running the UDF fails
+     */
+    synchronized Map<String, String> getChecksums(final Collection<String> pathsInUdf) throws SQLException {
+        final List<String> distinctPaths = new ArrayList<>(new LinkedHashSet<>(pathsInUdf));
+        final Map<String, String> checksums = new HashMap<>();
+        for (int start = 0; start < distinctPaths.size(); start += MAX_PATHS_PER_QUERY) {
+            final List<String> chunk = distinctPaths.subList(start,
+                    Math.min(start + MAX_PATHS_PER_QUERY, distinctPaths.size()));
+            checksums.putAll(runWithReinstall(this.checksumScript, () -> runBatch(this.checksumScript, "", chunk)));
+        }
+        return checksums;
+    }
+
+    /**
+     * Calculate sampled fingerprints of multiple files in BucketFS with one query per {@value #MAX_PATHS_PER_QUERY}
+     * files.
+     * <p>
+     * The fingerprint hashes the file size and the blocks at the start, in the middle and at the end of the file, see
+     * {@link LocalFileHasher#fingerprint(Path, int)}.
+     * </p>
+     *
+     * @param pathsInUdf paths of the files as seen by the UDF
+     * @param blockSize  size of each sampled block in bytes
+     * @return map from path as seen by the UDF to fingerprint
+     * @throws SQLException if installing or running the UDF fails
+     */
+    synchronized Map<String, String> getFingerprints(final Collection<String> pathsInUdf, final int blockSize)
+            throws SQLException {
+        final List<String> distinctPaths = new ArrayList<>(new LinkedHashSet<>(pathsInUdf));
+        final Map<String, String> fingerprints = new HashMap<>();
+        for (int start = 0; start < distinctPaths.size(); start += MAX_PATHS_PER_QUERY) {
+            final List<String> chunk = distinctPaths.subList(start,
+                    Math.min(start + MAX_PATHS_PER_QUERY, distinctPaths.size()));
+            fingerprints.putAll(runWithReinstall(this.fingerprintScript,
+                    () -> runBatch(this.fingerprintScript, ", " + blockSize, chunk)));
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Walk a directory in BucketFS inside a single UDF call and report all regular files below it.
+     *
+     * @param rootInUdf     directory as seen by the UDF
+     * @param withChecksums {@code true} to also calculate the checksum of each file
+     * @return one entry per file with the path relative to {@code rootInUdf}
+     * @throws SQLException if installing or running the UDF fails
+     */
+    synchronized List<DirectoryManifest.Entry> listDirectory(final String rootInUdf, final boolean withChecksums)
+            throws SQLException {
+        return runWithReinstall(this.manifestScript, () -> runListDirectory(rootInUdf, withChecksums));
+    }
+
+    private <T> T runWithReinstall(final HelperScript script, final SqlCall<T> call) throws SQLException {
+        script.ensureInstalled();
+        try {
+            return call.run();
+        } catch (final SQLException exception) {
+            if (script.isInstalledByThisInstance()) {
+                throw exception;
+            }
+            // The process that installed the shared script may have dropped it in the meantime.
+            LOGGER.fine(() -> "Helper script " + script.getFullName() + " failed, re-checking installation: "
+                    + exception.getMessage());
+            script.reset();
+            closeChecksumStatement();
+            script.ensureInstalled();
+            return call.run();
+        }
+    }
+
+    private String runChecksum(final String pathInUdf) throws SQLException {
+        final PreparedStatement statement = getChecksumStatement();
+        statement.setString(1, pathInUdf);
+        try (final ResultSet result = statement.executeQuery()) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+
+    private PreparedStatement getChecksumStatement() throws SQLException {
+        if (this.checksumStatement == null) {
+            this.checksumStatement = this.connection
+                    .prepareStatement("SELECT " + getChecksumUdfFullName() + "(?)");
+        }
+        return this.checksumStatement;
+    }
+
+    // The scalar UDF runs once per row of the VALUES table, which lets Exasol distribute the calls across its nodes.
+    private Map<String, String> runBatch(final HelperScript script, final String additionalArguments,
+            final List<String> pathsInUdf) throws SQLException {
+        final String rows = String.join(", ", Collections.nCopies(pathsInUdf.size(), "(?)"));
+        final Map<String, String> checksums = new HashMap<>();
+        try (final PreparedStatement statement = this.connection.prepareStatement("SELECT T.P, "
+                + script.getFullName() + "(T.P" + additionalArguments + ") FROM (VALUES " + rows + ") AS T(P)")) {
+            for (int i = 0; i < pathsInUdf.size(); ++i) {
+                statement.setString(i + 1, pathsInUdf.get(i));
+            }
+            try (final ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    checksums.put(result.getString(1), result.getString(2));
+                }
+            }
+        }
+        return checksums;
+    }
+
+    private List<DirectoryManifest.Entry> runListDirectory(final String rootInUdf, final boolean withChecksums)
+            throws SQLException {
+        final List<DirectoryManifest.Entry> entries = new ArrayList<>();
+        try (final PreparedStatement statement = this.connection
+                .prepareStatement("SELECT " + this.manifestScript.getFullName() + "(?, ?)")) {
+            statement.setString(1, rootInUdf);
+            statement.setBoolean(2, withChecksums);
+            try (final ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    entries.add(new DirectoryManifest.Entry(result.getString(1), result.getLong(2),
+                            toInstant(result.getDouble(3)), result.getString(4)));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Instant toInstant(final double epochSeconds) {
+        final long seconds = (long) Math.floor(epochSeconds);
+        return Instant.ofEpochSecond(seconds, Math.round((epochSeconds - seconds) * 1_000_000_000));
+    }
+
+    /**
+     * Close the prepared statement and uninstall the UDFs that this instance installed.
+     *
+     * @throws SQLException if uninstalling fails
+     */
+    @Override
+    public synchronized void close() throws SQLException {
+        closeChecksumStatement();
+        this.checksumScript.uninstall();
+        this.manifestScript.uninstall();
+        this.fingerprintScript.uninstall();
+    }
+
+    private void closeChecksumStatement() throws SQLException {
+        if (this.checksumStatement != null) {
+            this.checksumStatement.close();
+            this.checksumStatement = null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlCall<T> {
+        T run() throws SQLException;
+    }
+}
@@ -1,17 +1,14 @@
 package com.exasol.bucketfs.uploadnecessity;
 
-import static com.exasol.bucketfs.BucketConstants.PATH_SEPARATOR;
-import static com.exasol.bucketfs.uploadnecessity.ByteArrayToHexConverter.toHex;
-
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.*;
-import java.sql.*;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import com.exasol.bucketfs.BucketAccessException;
 import com.exasol.bucketfs.ReadOnlyBucket;
@@ -21,13 +18,37 @@ import com.exasol.errorreporting.ExaError;
  * This {@link UploadNecessityCheckStrategy} compares the checksum of the local file and the file on BucketFS and only
  * uploads the file if the checksums differ or if the file does not exist in BucketFS. For performance reasons this
  * strategy always uploads files with a size less or equal 1 MB.
+ * <p>
+ * By default the strategy installs the checksum UDF for each check and removes it again afterwards. Strategies built
+ * with {@link Builder#keepUdfInstalled(boolean)} keep the UDF installed until {@link #close()} is called, which saves
+ * the installation for each check. Checksums of local files are kept in a {@link LocalChecksumCache}, so that
+ * unchanged local files are only read once.
+ * </p>
+ * <p>
+ * The strategy uses SHA-512 unless a different {@link ChecksumAlgorithm} is configured with
+ * {@link Builder#checksumAlgorithm(ChecksumAlgorithm)}.
+ * </p>
+ * <p>
+ * For huge files the strategy can compare sampled fingerprints instead of full checksums, see
+ * {@link Builder#sampledFingerprintThreshold(long)}. A fingerprint covers the file size and three blocks of
+ * {@value #SAMPLE_BLOCK_SIZE} bytes from the start, the middle and the end of the file. Different fingerprints
+ * always lead to an upload. Matching fingerprints skip the upload unless
+ * {@link Builder#strictVerification(boolean) strict verification} is enabled, in which case the full checksums are
+ * compared.
+ * </p>
  */
-public class ChecksumUploadNecessityCheckStrategy implements UploadNecessityCheckStrategy {
-    private static final String UDF_SCHEMA = "BUCKET_FS_JAVA_HELPER";
-    private static final String UDF_NAME = "BUCKET_FS_CHECKSUM";
-    private static final String UDF_FULL_NAME = UDF_SCHEMA + "." + UDF_NAME;
+public class ChecksumUploadNecessityCheckStrategy implements UploadNecessityCheckStrategy, AutoCloseable {
+    /** Size of each block hashed for a sampled fingerprint. */
+    public static final int SAMPLE_BLOCK_SIZE = 1024 * 1024;
     private static final int ONE_MEGABYTE = 1000000;
-    private final Connection sqlConnection;
+    private static final Logger LOGGER = Logger.getLogger(ChecksumUploadNecessityCheckStrategy.class.getName());
+    private final ChecksumUdf checksumUdf;
+    private final LocalChecksumCache localChecksumCache;
+    private final LocalFileHasher localFileHasher;
+    private final long sampledFingerprintThreshold;
+    private final boolean strictVerification;
+    private final boolean keepUdfInstalled;
+    private int activeChecks = 0;
 
     /**
      * Create a new instance of {@link ChecksumUploadNecessityCheckStrategy}.
@@ -39,7 +60,26 @@ public class ChecksumUploadNecessityCheckStrategy implements UploadNecessityChec
      * @param sqlConnection SQL connection to the Exasol database
      */
     public ChecksumUploadNecessityCheckStrategy(final Connection sqlConnection) {
-        this.sqlConnection = sqlConnection;
+        this(builder().sqlConnection(sqlConnection));
+    }
+
+    private ChecksumUploadNecessityCheckStrategy(final Builder builder) {
+        this.checksumUdf = new ChecksumUdf(Objects.requireNonNull(builder.sqlConnection, "sqlConnection"),
+                builder.checksumAlgorithm);
+        this.localChecksumCache = builder.localChecksumCache;
+        this.localFileHasher = new LocalFileHasher(builder.checksumAlgorithm, builder.hashingPool);
+        this.sampledFingerprintThreshold = builder.sampledFingerprintThreshold;
+        this.strictVerification = builder.strictVerification;
+        this.keepUdfInstalled = builder.keepUdfInstalled;
+    }
+
+    /**
+     * Create a new builder for {@link ChecksumUploadNecessityCheckStrategy}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     @Override
@@ -48,46 +88,164 @@ public class ChecksumUploadNecessityCheckStrategy implements UploadNecessityChec
     // [impl->dsn~conditional-upload-by-checksum~1]
     public boolean isUploadNecessary(final Path file, final String fullFileNameInBucketFs, final ReadOnlyBucket bucket)
             throws BucketAccessException {
+        return runCheck(() -> checkUploadNecessary(file, fullFileNameInBucketFs, bucket));
+    }
+
+    private boolean checkUploadNecessary(final Path file, final String fullFileNameInBucketFs,
+            final ReadOnlyBucket bucket) throws BucketAccessException {
         try {
-            final String[] parts = fullFileNameInBucketFs.split(PATH_SEPARATOR);
-            final String fileName = parts[parts.length - 1];
-            final List<String> filesInBucketDirectory = bucket.listContents(getDirectory(parts));
-            if (Files.size(file) > ONE_MEGABYTE && filesInBucketDirectory.contains(fileName)) {
-                return !localSha512Checksum(file).equals(getSha512Checksum(fullFileNameInBucketFs, bucket));
-            } else {
+            final String pathInBucket = BucketPaths.toFilePathInBucket(file, fullFileNameInBucketFs);
+            if (!isChecksumComparisonRequired(file, pathInBucket, bucket.listAllFilePaths())) {
                 return true;
             }
-        } catch (final BucketAccessException | NoSuchAlgorithmException | IOException exception) {
-            throw new BucketAccessException(ExaError.messageBuilder("E-BFSJ-17")
-                    .message("Failed to check if we need to upload {{file}}.", fullFileNameInBucketFs).toString(),
-                    exception);
+            if (isFingerprintComparisonRequired(file)) {
+                if (getMatchingFingerprints(Map.of(file, pathInBucket), bucket).isEmpty()) {
+                    return true;
+                } else if (!this.strictVerification) {
+                    return false;
+                }
+            }
+            return !localChecksum(file).equals(getChecksum(pathInBucket, bucket));
+        } catch (final BucketAccessException | IOException exception) {
+            throw createCheckFailedException(fullFileNameInBucketFs, exception);
         }
     }
 
-    private String getDirectory(final String[] parts) {
-        final String directory = Arrays.stream(parts).limit((long) parts.length - 1)
-                .collect(Collectors.joining(PATH_SEPARATOR));
-        if (directory.startsWith(PATH_SEPARATOR)) {
-            return directory.substring(1);
-        } else {
-            return directory;
+    /**
+     * Decide for multiple files if it is necessary to upload them to BucketFS.
+     * <p>
+     * This method lists the bucket once to check which files exist, computes the checksums of all files in BucketFS
+     * that need a checksum comparison with a single query and hashes the corresponding local files in parallel.
+     * Sampled fingerprints of huge files are compared the same way before their full checksums.
+     * </p>
+     *
+     * @param plannedUploads map from local file to path in BucketFS
+     * @param bucket         bucket the files are uploaded to
+     * @return planned uploads that are necessary, in the iteration order of {@code plannedUploads}
+     * @throws BucketAccessException if the necessity check cannot be executed
+     */
+    @Override
+    public Map<Path, String> filterNecessaryUploads(final Map<Path, String> plannedUploads,
+            final ReadOnlyBucket bucket) throws BucketAccessException {
+        if (plannedUploads.isEmpty()) {
+            return new LinkedHashMap<>();
         }
+        return runCheck(() -> filterNecessaryUploadsInCheck(plannedUploads, bucket));
     }
 
-    private String localSha512Checksum(final Path localPath) throws NoSuchAlgorithmException, IOException {
-        final MessageDigest checksumBuilder = MessageDigest.getInstance("SHA-512");
-        try (final InputStream inputStream = Files.newInputStream(localPath);
-                final DigestInputStream checksumBuildingStream = new DigestInputStream(inputStream, checksumBuilder)) {
-            final byte[] buffer = new byte[1000];
-            while (checksumBuildingStream.read(buffer) != -1) {
-                // nothing to do. Just read to run through the stream.
+    private Map<Path, String> filterNecessaryUploadsInCheck(final Map<Path, String> plannedUploads,
+            final ReadOnlyBucket bucket) throws BucketAccessException {
+        final Set<String> filesInBucket = listAllFilePaths(plannedUploads, bucket);
+        final Map<Path, String> fingerprintCandidates = new LinkedHashMap<>();
+        final Map<Path, String> checksumCandidates = new LinkedHashMap<>();
+        for (final Map.Entry<Path, String> plannedUpload : plannedUploads.entrySet()) {
+            final Path file = plannedUpload.getKey();
+            final String pathInBucket = BucketPaths.toFilePathInBucket(file, plannedUpload.getValue());
+            try {
+                if (!isChecksumComparisonRequired(file, pathInBucket, filesInBucket)) {
+                    continue;
+                }
+                if (isFingerprintComparisonRequired(file)) {
+                    fingerprintCandidates.put(file, pathInBucket);
+                } else {
+                    checksumCandidates.put(file, pathInBucket);
+                }
+            } catch (final IOException exception) {
+                throw createCheckFailedException(plannedUpload.getValue(), exception);
+            }
+        }
+        final Set<Path> matchingFingerprints = getMatchingFingerprints(fingerprintCandidates, bucket);
+        if (this.strictVerification) {
+            matchingFingerprints.forEach(file -> checksumCandidates.put(file, fingerprintCandidates.get(file)));
+        }
+        final Map<String, String> remoteChecksums = getChecksums(checksumCandidates.values(), bucket);
+        final Map<Path, String> localChecksums = getLocalChecksums(checksumCandidates);
+        final Map<Path, String> necessaryUploads = new LinkedHashMap<>();
+        for (final Map.Entry<Path, String> plannedUpload : plannedUploads.entrySet()) {
+            final Path file = plannedUpload.getKey();
+            final boolean unchanged = checksumCandidates.containsKey(file)
+                    ? localChecksums.get(file).equals(remoteChecksums.get(checksumCandidates.get(file)))
+                    : matchingFingerprints.contains(file);
+            if (!unchanged) {
+                necessaryUploads.put(file, plannedUpload.getValue());
             }
         }
-        return toHex(checksumBuilder.digest());
+        return necessaryUploads;
+    }
+
+    private Set<Path> getMatchingFingerprints(final Map<Path, String> files, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        if (files.isEmpty()) {
+            return new HashSet<>();
+        }
+        final Map<String, String> remoteFingerprints = getFingerprints(files.values(), bucket);
+        final Map<Path, String> localFingerprints;
+        try {
+            localFingerprints = this.localFileHasher.hashAll(files.keySet(), this::localFingerprint);
+        } catch (final IOException exception) {
+            throw createCheckFailedException(files.values().toString(), exception);
+        }
+        final Set<Path> matchingFingerprints = new HashSet<>();
+        for (final Map.Entry<Path, String> file : files.entrySet()) {
+            if (localFingerprints.get(file.getKey()).equals(remoteFingerprints.get(file.getValue()))) {
+                matchingFingerprints.add(file.getKey());
+            } else {
+                LOGGER.finest(() -> "Sampled fingerprint of '" + file.getKey() + "' differs from '" + file.getValue()
+                        + "' in BucketFS");
+            }
+        }
+        return matchingFingerprints;
+    }
+
+    private Map<Path, String> getLocalChecksums(final Map<Path, String> files) throws BucketAccessException {
+        try {
+            return this.localFileHasher.hashAll(files.keySet(), this::localChecksum);
+        } catch (final IOException exception) {
+            throw createCheckFailedException(files.values().toString(), exception);
+        }
+    }
+
+    private Set<String> listAllFilePaths(final Map<Path, String> plannedUploads, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        try {
+            return bucket.listAllFilePaths();
+        } catch (final BucketAccessException exception) {
+            throw createCheckFailedException(plannedUploads.values().toString(), exception);
+        }
+    }
+
+    private static boolean isChecksumComparisonRequired(final Path file, final String pathInBucket,
+            final Set<String> filesInBucket) throws IOException {
+        return Files.size(file) > ONE_MEGABYTE && filesInBucket.contains(pathInBucket);
+    }
+
+    private boolean isFingerprintComparisonRequired(final Path file) throws IOException {
+        return Files.size(file) >= this.sampledFingerprintThreshold;
+    }
+
+    private BucketAccessException createCheckFailedException(final String fullFileNameInBucketFs,
+            final Exception cause) {
+        return new BucketAccessException(ExaError.messageBuilder("E-BFSJ-17")
+                .message("Failed to check if we need to upload {{file}}.", fullFileNameInBucketFs).toString(), cause);
+    }
+
+    private String localChecksum(final Path localPath) throws IOException {
+        return this.localChecksumCache.getChecksum(localPath, this.localFileHasher.getAlgorithm().getAlgorithmName(),
+                this.localFileHasher::hash);
+    }
+
+    private String localFingerprint(final Path localPath) throws IOException {
+        return this.localChecksumCache.getChecksum(localPath,
+                this.localFileHasher.getAlgorithm().getAlgorithmName() + "/sampled-" + SAMPLE_BLOCK_SIZE,
+                file -> this.localFileHasher.fingerprint(file, SAMPLE_BLOCK_SIZE));
     }
 
     /**
      * Get the SHA-512-checksum of a file in BucketFS.
+     * <p>
+     * If the strategy is configured with a different {@link ChecksumAlgorithm}, this method returns the checksum
+     * calculated with that algorithm.
+     * </p>
      *
      * @param fileInBucketFs path to a file in bucketFs
      * @param bucket         bucket the file is stored in
@@ -96,55 +254,297 @@ public class ChecksumUploadNecessityCheckStrategy implements UploadNecessityChec
      */
     public String getSha512Checksum(final String fileInBucketFs, final ReadOnlyBucket bucket)
             throws BucketAccessException {
-        installChecksumUdf();
-        try (final PreparedStatement statement = this.sqlConnection
-                .prepareStatement("SELECT " + UDF_FULL_NAME + "(?)")) {
-            final String pathInUdf = bucket.getPathInUdf(fileInBucketFs);
-            statement.setString(1, pathInUdf);
-            try (final ResultSet result = statement.executeQuery()) {
-                result.next();
-                return result.getString(1);
+        return getChecksum(fileInBucketFs, bucket);
+    }
+
+    /**
+     * Get the checksum of a file in BucketFS calculated with the configured {@link ChecksumAlgorithm}.
+     *
+     * @param fileInBucketFs path to a file in bucketFs
+     * @param bucket         bucket the file is stored in
+     * @return checksum as lower case hex string
+     * @throws BucketAccessException if checksum calculation failed
+     */
+    public String getChecksum(final String fileInBucketFs, final ReadOnlyBucket bucket) throws BucketAccessException {
+        return runCheck(() -> {
+            try {
+                return this.checksumUdf.getChecksum(bucket.getPathInUdf(fileInBucketFs));
+            } catch (final SQLException exception) {
+                throw new BucketAccessException(ExaError.messageBuilder("F-BFSJ-15").message(
+                        "Failed to determine checksum of file {{file}} in BucketFS using UDF "
+                                + this.checksumUdf.getChecksumUdfFullName() + ".",
+                        fileInBucketFs).toString(), exception);
             }
-        } catch (final SQLException exception) {
-            throw new BucketAccessException(ExaError.messageBuilder("F-BFSJ-15").message(
-                    "Failed to determine checksum of file {{file}} in BucketFS using UDF " + UDF_FULL_NAME + ".",
-                    fileInBucketFs).toString(), exception);
+        });
+    }
+
+    /**
+     * Get the checksums of multiple files in BucketFS using a single query.
+     *
+     * @param filesInBucketFs paths to files in BucketFS
+     * @param bucket          bucket the files are stored in
+     * @return map from path in BucketFS to checksum calculated with the configured {@link ChecksumAlgorithm}; files
+     *         for which the UDF returned no checksum, e.g. because they do not exist, are not contained
+     * @throws BucketAccessException if checksum calculation failed
+     */
+    public Map<String, String> getChecksums(final Collection<String> filesInBucketFs,
+            final ReadOnlyBucket bucket) throws BucketAccessException {
+        if (filesInBucketFs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> pathsInUdf = new HashMap<>();
+        for (final String fileInBucketFs : filesInBucketFs) {
+            pathsInUdf.put(fileInBucketFs, bucket.getPathInUdf(fileInBucketFs));
+        }
+        return runCheck(() -> {
+            try {
+                final Map<String, String> checksumsByPathInUdf = this.checksumUdf.getChecksums(pathsInUdf.values());
+                return mapToFilesInBucketFs(pathsInUdf, checksumsByPathInUdf);
+            } catch (final SQLException exception) {
+                throw new BucketAccessException(ExaError.messageBuilder("F-BFSJ-62").message(
+                        "Failed to determine checksum of files {{files}} in BucketFS using UDF "
+                                + this.checksumUdf.getChecksumUdfFullName() + ".",
+                        filesInBucketFs).toString(), exception);
+            }
+        });
+    }
+
+    /**
+     * Get the sampled fingerprints of multiple files in BucketFS using a single query.
+     * <p>
+     * A fingerprint covers the file size and three blocks of {@value #SAMPLE_BLOCK_SIZE} bytes from the start, the
+     * middle and the end of the file, hashed with the configured {@link ChecksumAlgorithm}.
+     * </p>
+     *
+     * @param filesInBucketFs paths to files in BucketFS
+     * @param bucket          bucket the files are stored in
+     * @return map from path in BucketFS to fingerprint; files for which the UDF returned no fingerprint are not
+     *         contained
+     * @throws BucketAccessException if fingerprint calculation failed
+     */
+    public Map<String, String> getFingerprints(final Collection<String> filesInBucketFs,
+            final ReadOnlyBucket bucket) throws BucketAccessException {
+        if (filesInBucketFs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> pathsInUdf = new HashMap<>();
+        for (final String fileInBucketFs : filesInBucketFs) {
+            pathsInUdf.put(fileInBucketFs, bucket.getPathInUdf(fileInBucketFs));
+        }
+        return runCheck(() -> {
+            try {
+                final Map<String, String> fingerprintsByPathInUdf = this.checksumUdf
+                        .getFingerprints(pathsInUdf.values(), SAMPLE_BLOCK_SIZE);
+                return mapToFilesInBucketFs(pathsInUdf, fingerprintsByPathInUdf);
+            } catch (final SQLException exception) {
+                throw new BucketAccessException(ExaError.messageBuilder("F-BFSJ-45").message(
+                        "Failed to determine sampled fingerprints of files {{files}} in BucketFS using UDF "
+                                + this.checksumUdf.getFingerprintUdfFullName() + ".",
+                        filesInBucketFs).toString(), exception);
+            }
+        });
+    }
+
+    private static Map<String, String> mapToFilesInBucketFs(final Map<String, String> pathsInUdf,
+            final Map<String, String> valuesByPathInUdf) {
+        final Map<String, String> values = new HashMap<>();
+        pathsInUdf.forEach((fileInBucketFs, pathInUdf) -> {
+            final String value = valuesByPathInUdf.get(pathInUdf);
+            if (value != null) {
+                values.put(fileInBucketFs, value);
+            }
+        });
+        return values;
+    }
+
+    // Removes the UDF after the outermost running check unless the strategy keeps it installed until close().
+    private <T> T runCheck(final Check<T> check) throws BucketAccessException {
+        synchronized (this) {
+            ++this.activeChecks;
+        }
+        boolean completed = false;
+        try {
+            final T result = check.run();
+            completed = true;
+            return result;
         } finally {
-            uninstallChecksumUdf();
+            synchronized (this) {
+                --this.activeChecks;
+                if (!this.keepUdfInstalled && (this.activeChecks == 0)) {
+                    uninstallUdf(completed);
+                }
+            }
         }
     }
 
-    private void installChecksumUdf() throws BucketAccessException {
-        try (final Statement statement = this.sqlConnection.createStatement()) {
-            statement.executeUpdate("CREATE SCHEMA IF NOT EXISTS " + UDF_SCHEMA + ";");
-            statement.executeUpdate(getChecksumUdfStatement());
+    private void uninstallUdf(final boolean reportFailure) throws BucketAccessException {
+        try {
+            this.checksumUdf.close();
         } catch (final SQLException exception) {
-            throw new BucketAccessException(ExaError.messageBuilder("E-BFSJ-14").message(
-                    "Failed to install sha-512 checksum UDF. This UDF is required by bucketfs-java for building the checksum of files in BucketFS.")
-                    .toString(), exception);
+            if (reportFailure) {
+                throw createUninstallFailedException(exception);
+            }
+            LOGGER.log(Level.WARNING, exception, () -> "Failed to uninstall checksum UDF after failed check");
         }
     }
 
-    private void uninstallChecksumUdf() throws BucketAccessException {
-        try (final Statement statement = this.sqlConnection.createStatement()) {
-            statement.executeUpdate("DROP SCRIPT  " + UDF_FULL_NAME + ";");
-            statement.executeUpdate("DROP SCHEMA  " + UDF_SCHEMA + ";");
+    private static BucketAccessException createUninstallFailedException(final SQLException exception) {
+        return new BucketAccessException(ExaError.messageBuilder("E-BFSJ-16")
+                .message("Failed to uninstall checksum UDF.").toString(), exception);
+    }
+
+    /**
+     * Save the local checksum cache and uninstall the checksum UDF if this strategy installed it.
+     * <p>
+     * Failing to save the local checksum cache only logs a warning since the cache is an optimization.
+     * </p>
+     *
+     * @throws BucketAccessException if uninstalling the UDF fails
+     */
+    @Override
+    public void close() throws BucketAccessException {
+        try {
+            this.localChecksumCache.save();
+        } catch (final IOException exception) {
+            LOGGER.log(Level.WARNING, exception, () -> "Failed to save local checksum cache");
+        }
+        try {
+            this.checksumUdf.close();
         } catch (final SQLException exception) {
-            throw new BucketAccessException(ExaError.messageBuilder("E-BFSJ-16")
-                    .message("Failed to uninstall sha-512 checksum UDF.").toString(), exception);
+            throw createUninstallFailedException(exception);
         }
     }
 
-    private String getChecksumUdfStatement() {
-        try {
-            final byte[] pythonScriptAsBytes = Objects
-                    .requireNonNull(getClass().getClassLoader().getResourceAsStream("checksumUdf.py")).readAllBytes();
-            final String pythonScript = new String(pythonScriptAsBytes, StandardCharsets.UTF_8);
-            return "CREATE OR REPLACE PYTHON3 SCALAR SCRIPT " + UDF_FULL_NAME
-                    + "(my_path VARCHAR(2000)) RETURNS VARCHAR(256) AS\n" + pythonScript + "\n/";
-        } catch (final IOException | NullPointerException exception) {
-            throw new IllegalStateException(ExaError.messageBuilder("F-BFSJ-13")
-                    .message("Failed to get Python UDF from resources.").ticketMitigation().toString(), exception);
+    @FunctionalInterface
+    private interface Check<T> {
+        T run() throws BucketAccessException;
+    }
+
+    /**
+     * Builder for a {@link ChecksumUploadNecessityCheckStrategy}.
+     * <p>
+     * Call {@link ChecksumUploadNecessityCheckStrategy#builder()} to create a new instance.
+     */
+    public static class Builder {
+        private Connection sqlConnection;
+        private LocalChecksumCache localChecksumCache = LocalChecksumCache.inMemory();
+        private ForkJoinPool hashingPool = ForkJoinPool.commonPool();
+        private ChecksumAlgorithm checksumAlgorithm = ChecksumAlgorithm.SHA_512;
+        private long sampledFingerprintThreshold = Long.MAX_VALUE;
+        private boolean strictVerification = false;
+        private boolean keepUdfInstalled = false;
+
+        private Builder() {
+            // empty by intention
+        }
+
+        /**
+         * Set the SQL connection to the Exasol database used for calculating checksums of files in BucketFS.
+         *
+         * @param sqlConnection SQL connection to the Exasol database
+         * @return this instance for method chaining
+         */
+        public Builder sqlConnection(final Connection sqlConnection) {
+            this.sqlConnection = sqlConnection;
+            return this;
+        }
+
+        /**
+         * Use the given cache for checksums of local files.
+         * <p>
+         * Defaults to a cache that only lives as long as the strategy. Use a cache created with
+         * {@link LocalChecksumCache#open(Path)} to keep checksums of unchanged local files across runs. The strategy
+         * saves the cache when it is closed.
+         *
+         * @param localChecksumCache cache for checksums of local files
+         * @return this instance for method chaining
+         */
+        public Builder localChecksumCache(final LocalChecksumCache localChecksumCache) {
+            this.localChecksumCache = localChecksumCache;
+            return this;
+        }
+
+        /**
+         * Use the given pool for hashing multiple local files in parallel during
+         * {@link ChecksumUploadNecessityCheckStrategy#filterNecessaryUploads(Map, ReadOnlyBucket) bulk checks}.
+         * <p>
+         * Defaults to the {@link ForkJoinPool#commonPool() common pool}.
+         *
+         * @param hashingPool pool for hashing local files
+         * @return this instance for method chaining
+         */
+        public Builder hashingPool(final ForkJoinPool hashingPool) {
+            this.hashingPool = hashingPool;
+            return this;
+        }
+
+        /**
+         * Use the given algorithm for comparing local files with files in BucketFS.
+         * <p>
+         * Defaults to {@link ChecksumAlgorithm#SHA_512}. Choose {@link ChecksumAlgorithm#CRC32} or
+         * {@link ChecksumAlgorithm#MD5} for faster checks if only accidental changes need to be detected.
+         *
+         * @param checksumAlgorithm checksum algorithm
+         * @return this instance for method chaining
+         */
+        public Builder checksumAlgorithm(final ChecksumAlgorithm checksumAlgorithm) {
+            this.checksumAlgorithm = checksumAlgorithm;
+            return this;
+        }
+
+        /**
+         * Compare sampled fingerprints instead of full checksums for files with at least the given size.
+         * <p>
+         * Defaults to {@link Long#MAX_VALUE}, i.e. sampled fingerprints are not used. Different fingerprints lead to an
+         * upload, matching fingerprints skip the upload unless {@link #strictVerification(boolean) strict verification}
+         * is enabled.
+         *
+         * @param minimumFileSize minimum size of a file in bytes for comparing sampled fingerprints
+         * @return this instance for method chaining
+         */
+        public Builder sampledFingerprintThreshold(final long minimumFileSize) {
+            this.sampledFingerprintThreshold = minimumFileSize;
+            return this;
+        }
+
+        /**
+         * Compare the full checksums of files with matching sampled fingerprints.
+         * <p>
+         * Defaults to {@code false}, i.e. files with matching sampled fingerprints are not uploaded. Changes that
+         * neither affect the size nor one of the sampled blocks are only detected with strict verification.
+         *
+         * @param strictVerification {@code true} to verify matching fingerprints with full checksums
+         * @return this instance for method chaining
+         */
+        public Builder strictVerification(final boolean strictVerification) {
+            this.strictVerification = strictVerification;
+            return this;
+        }
+
+        /**
+         * Keep the checksum UDF installed between checks until the strategy is closed.
+         * <p>
+         * Defaults to {@code false}, i.e. each check installs the UDF and removes it again afterwards. Enable this
+         * option to save the installation when you run many checks, and close the strategy when you are done, e.g.
+         * with try-with-resources. Otherwise the UDF and the schema {@code BUCKET_FS_JAVA_HELPER} stay in the
+         * database.
+         *
+         * @param keepUdfInstalled {@code true} to keep the UDF installed until
+         *                         {@link ChecksumUploadNecessityCheckStrategy#close()}
+         * @return this instance for method chaining
+         */
+        public Builder keepUdfInstalled(final boolean keepUdfInstalled) {
+            this.keepUdfInstalled = keepUdfInstalled;
+            return this;
+        }
+
+        /**
+         * Build a new {@link ChecksumUploadNecessityCheckStrategy}.
+         *
+         * @return new strategy
+         */
+        public ChecksumUploadNecessityCheckStrategy build() {
+            return new ChecksumUploadNecessityCheckStrategy(this);
         }
     }
 }
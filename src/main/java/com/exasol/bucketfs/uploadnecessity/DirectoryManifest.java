@@ -0,0 +1,147 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Snapshot of all regular files below a directory in BucketFS with their size, modification time and checksum.
+ */
+public final class DirectoryManifest {
+    private final String directory;
+    private final Map<String, Entry> entries;
+
+    /**
+     * Create a new {@link DirectoryManifest}.
+     *
+     * @param directory directory inside the bucket
+     * @param entries   entries with paths inside the bucket
+     */
+    DirectoryManifest(final String directory, final Collection<Entry> entries) {
+        this.directory = directory;
+        final Map<String, Entry> sortedEntries = new TreeMap<>();
+        for (final Entry entry : entries) {
+            sortedEntries.put(entry.getPath(), entry);
+        }
+        this.entries = Collections.unmodifiableMap(sortedEntries);
+    }
+
+    /**
+     * @return directory inside the bucket this manifest describes
+     */
+    public String getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Get the entry of a file.
+     *
+     * @param pathInBucket path of the file inside the bucket without leading separator
+     * @return entry or an empty {@link Optional} if the directory does not contain the file
+     */
+    public Optional<Entry> getEntry(final String pathInBucket) {
+        return Optional.ofNullable(this.entries.get(pathInBucket));
+    }
+
+    /**
+     * @return all entries sorted by path
+     */
+    public Collection<Entry> getEntries() {
+        return this.entries.values();
+    }
+
+    /**
+     * Create a copy of this manifest without the entry of the given file.
+     *
+     * @param pathInBucket path of the file inside the bucket
+     * @return manifest without the entry
+     */
+    DirectoryManifest without(final String pathInBucket) {
+        final Map<String, Entry> remainingEntries = new HashMap<>(this.entries);
+        remainingEntries.remove(pathInBucket);
+        return new DirectoryManifest(this.directory, remainingEntries.values());
+    }
+
+    @Override
+    public String toString() {
+        return "DirectoryManifest [directory=" + this.directory + ", entries=" + this.entries.size() + "]";
+    }
+
+    /**
+     * Manifest entry of a single file.
+     */
+    public static final class Entry {
+        private final String path;
+        private final long size;
+        private final Instant lastModified;
+        private final String checksum;
+
+        /**
+         * Create a new {@link Entry}.
+         *
+         * @param path         path of the file
+         * @param size         size in bytes
+         * @param lastModified time of the last modification
+         * @param checksum     checksum calculated with the {@link ChecksumAlgorithm} of the
+         *                     {@link DirectoryManifestCache} or {@code null} if not calculated
+         */
+        Entry(final String path, final long size, final Instant lastModified, final String checksum) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+
+        /**
+         * @return path of the file inside the bucket without leading separator
+         */
+        public String getPath() {
+            return this.path;
+        }
+
+        /**
+         * @return size of the file in bytes
+         */
+        public long getSize() {
+            return this.size;
+        }
+
+        /**
+         * @return time of the last modification of the file in BucketFS
+         */
+        public Instant getLastModified() {
+            return this.lastModified;
+        }
+
+        /**
+         * @return checksum of the file as lower case hex string, calculated with the {@link ChecksumAlgorithm} of the
+         *         {@link DirectoryManifestCache} that created the manifest
+         */
+        public String getChecksum() {
+            return this.checksum;
+        }
+
+        /**
+         * Check if size and modification time are equal to the ones of another entry.
+         *
+         * @param other other entry
+         * @return {@code true} if the file is unchanged with respect to the other entry
+         */
+        boolean hasSameMetadata(final Entry other) {
+            return (this.size == other.size) && this.lastModified.equals(other.lastModified);
+        }
+
+        Entry withPath(final String newPath) {
+            return new Entry(newPath, this.size, this.lastModified, this.checksum);
+        }
+
+        Entry withChecksum(final String newChecksum) {
+            return new Entry(this.path, this.size, this.lastModified, newChecksum);
+        }
+
+        @Override
+        public String toString() {
+            return "Entry [path=" + this.path + ", size=" + this.size + ", lastModified=" + this.lastModified
+                    + ", checksum=" + this.checksum + "]";
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static com.exasol.bucketfs.BucketConstants.PATH_SEPARATOR;
+import static com.exasol.bucketfs.list.ListingRetriever.removeLeadingSeparator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.logging.Logger;
+
+import com.exasol.bucketfs.*;
+import com.exasol.errorreporting.ExaError;
+
+/**
+ * Client-side cache of {@link DirectoryManifest directory manifests}.
+ * <p>
+ * The first request for a directory walks it in BucketFS with a single UDF call that calculates the checksums of all
+ * files. Later requests only list size and modification time of the files and recalculate checksums for files that
+ * are new or changed. Register the cache as {@link BucketChangeListener} at the buckets you write to, so that the
+ * cache also forgets files changed by this application immediately.
+ * </p>
+ * <p>
+ * Manifests are cached per BucketFS service address, bucket and directory. The cache keeps at most
+ * {@link #DEFAULT_MAX_MANIFESTS} manifests by default and evicts the least recently used manifest first.
+ * </p>
+ */
+public final class DirectoryManifestCache implements BucketChangeListener, AutoCloseable {
+    /** Default maximum number of cached manifests. */
+    public static final int DEFAULT_MAX_MANIFESTS = 100;
+    private static final Logger LOGGER = Logger.getLogger(DirectoryManifestCache.class.getName());
+    private final ChecksumUdf checksumUdf;
+    private final Map<ManifestKey, DirectoryManifest> manifests;
+
+    /**
+     * Create a new {@link DirectoryManifestCache}.
+     *
+     * @param sqlConnection SQL connection to the Exasol database
+     */
+    public DirectoryManifestCache(final Connection sqlConnection) {
+        this(new ChecksumUdf(sqlConnection));
+    }
+
+    /**
+     * Create a new {@link DirectoryManifestCache} with checksums calculated by the given algorithm.
+     *
+     * @param sqlConnection     SQL connection to the Exasol database
+     * @param checksumAlgorithm checksum algorithm
+     */
+    public DirectoryManifestCache(final Connection sqlConnection, final ChecksumAlgorithm checksumAlgorithm) {
+        this(sqlConnection, checksumAlgorithm, DEFAULT_MAX_MANIFESTS);
+    }
+
+    /**
+     * Create a new {@link DirectoryManifestCache} with checksums calculated by the given algorithm.
+     *
+     * @param sqlConnection     SQL connection to the Exasol database
+     * @param checksumAlgorithm checksum algorithm
+     * @param maxManifests      maximum number of cached manifests; the least recently used manifests are evicted first
+     */
+    public DirectoryManifestCache(final Connection sqlConnection, final ChecksumAlgorithm checksumAlgorithm,
+            final int maxManifests) {
+        this(new ChecksumUdf(sqlConnection, checksumAlgorithm), maxManifests);
+    }
+
+    DirectoryManifestCache(final ChecksumUdf checksumUdf) {
+        this(checksumUdf, DEFAULT_MAX_MANIFESTS);
+    }
+
+    DirectoryManifestCache(final ChecksumUdf checksumUdf, final int maxManifests) {
+        this.checksumUdf = checksumUdf;
+        this.manifests = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ManifestKey, DirectoryManifest> eldest) {
+                return size() > maxManifests;
+            }
+        };
+    }
+
+    /**
+     * Get the manifest of a directory, refreshing new and changed entries of a cached snapshot.
+     *
+     * @param bucket    bucket containing the directory
+     * @param directory directory inside the bucket, empty for the whole bucket
+     * @return up-to-date manifest
+     * @throws BucketAccessException if reading the directory fails
+     */
+    public synchronized DirectoryManifest getManifest(final ReadOnlyBucket bucket, final String directory)
+            throws BucketAccessException {
+        final String normalizedDirectory = normalizeDirectory(directory);
+        final ManifestKey key = new ManifestKey(bucket, normalizedDirectory);
+        final String rootInUdf = normalizedDirectory.isEmpty() ? bucket.getPathInUdf()
+                : bucket.getPathInUdf(normalizedDirectory);
+        try {
+            final DirectoryManifest cached = this.manifests.get(key);
+            final DirectoryManifest manifest = (cached == null)
+                    ? new DirectoryManifest(normalizedDirectory,
+                            toPathsInBucket(normalizedDirectory, this.checksumUdf.listDirectory(rootInUdf, true)))
+                    : refresh(bucket, cached, rootInUdf);
+            this.manifests.put(key, manifest);
+            return manifest;
+        } catch (final SQLException exception) {
+            throw new BucketAccessException(ExaError.messageBuilder("E-BFSJ-39")
+                    .message("Failed to read manifest of directory {{directory}} in BucketFS.", normalizedDirectory)
+                    .toString(), exception);
+        }
+    }
+
+    private DirectoryManifest refresh(final ReadOnlyBucket bucket, final DirectoryManifest cached,
+            final String rootInUdf) throws SQLException {
+        final String directory = cached.getDirectory();
+        final List<DirectoryManifest.Entry> entries = new ArrayList<>();
+        final Map<String, DirectoryManifest.Entry> changedEntries = new HashMap<>();
+        for (final DirectoryManifest.Entry listed : toPathsInBucket(directory,
+                this.checksumUdf.listDirectory(rootInUdf, false))) {
+            final Optional<DirectoryManifest.Entry> previous = cached.getEntry(listed.getPath());
+            if (previous.isPresent() && previous.get().hasSameMetadata(listed)) {
+                entries.add(previous.get());
+            } else {
+                changedEntries.put(bucket.getPathInUdf(listed.getPath()), listed);
+            }
+        }
+        LOGGER.fine(() -> "Refreshing " + changedEntries.size() + " of " + (entries.size() + changedEntries.size())
+                + " entries of manifest for '" + directory + "'");
+        final Map<String, String> checksums = this.checksumUdf.getChecksums(changedEntries.keySet());
+        changedEntries.forEach((pathInUdf, entry) -> entries.add(entry.withChecksum(checksums.get(pathInUdf))));
+        return new DirectoryManifest(directory, entries);
+    }
+
+    private static List<DirectoryManifest.Entry> toPathsInBucket(final String directory,
+            final List<DirectoryManifest.Entry> relativeEntries) {
+        final String prefix = directory.isEmpty() ? "" : (directory + PATH_SEPARATOR);
+        final List<DirectoryManifest.Entry> entries = new ArrayList<>(relativeEntries.size());
+        for (final DirectoryManifest.Entry entry : relativeEntries) {
+            entries.add(entry.withPath(prefix + entry.getPath()));
+        }
+        return entries;
+    }
+
+    /**
+     * Forget the cached entry of a file, so that the next {@link #getManifest(ReadOnlyBucket, String)} recalculates
+     * its checksum.
+     *
+     * @param bucket       bucket containing the file
+     * @param pathInBucket path of the file inside the bucket
+     */
+    public synchronized void invalidate(final ReadOnlyBucket bucket, final String pathInBucket) {
+        final String normalizedPath = removeLeadingSeparator(pathInBucket);
+        final String bucketId = getBucketId(bucket);
+        this.manifests.replaceAll((key, manifest) -> key.bucketId.equals(bucketId)
+                && isInDirectory(normalizedPath, key.directory) ? manifest.without(normalizedPath) : manifest);
+    }
+
+    private static boolean isInDirectory(final String path, final String directory) {
+        return directory.isEmpty() || path.startsWith(directory + PATH_SEPARATOR);
+    }
+
+    @Override
+    public void onChange(final ReadOnlyBucket bucket, final String pathInBucket) {
+        invalidate(bucket, pathInBucket);
+    }
+
+    /**
+     * Forget all cached manifests.
+     */
+    public synchronized void clear() {
+        this.manifests.clear();
+    }
+
+    /**
+     * Uninstall the UDFs installed by this cache.
+     *
+     * @throws BucketAccessException if uninstalling the UDFs fails
+     */
+    @Override
+    public void close() throws BucketAccessException {
+        try {
+            this.checksumUdf.close();
+        } catch (final SQLException exception) {
+            throw new BucketAccessException(ExaError.messageBuilder("E-BFSJ-16")
+                    .message("Failed to uninstall checksum UDF.").toString(), exception);
+        }
+    }
+
+    private static String normalizeDirectory(final String directory) {
+        final String withoutLeadingSeparator = removeLeadingSeparator(directory);
+        return withoutLeadingSeparator.endsWith(PATH_SEPARATOR)
+                ? withoutLeadingSeparator.substring(0, withoutLeadingSeparator.length() - 1)
+                : withoutLeadingSeparator;
+    }
+
+    // Bucket names like "bfsdefault/default" are the same on every cluster, so the address of the service is included.
+    private static String getBucketId(final ReadOnlyBucket bucket) {
+        return bucket.getProtocol() + "://" + bucket.getHost() + ":" + bucket.getPort() + PATH_SEPARATOR
+                + bucket.getFullyQualifiedBucketName();
+    }
+
+    private static final class ManifestKey {
+        private final String bucketId;
+        private final String directory;
+
+        private ManifestKey(final ReadOnlyBucket bucket, final String directory) {
+            this.bucketId = getBucketId(bucket);
+            this.directory = directory;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ManifestKey)) {
+                return false;
+            }
+            final ManifestKey that = (ManifestKey) other;
+            return this.bucketId.equals(that.bucketId) && this.directory.equals(that.directory);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.bucketId, this.directory);
+        }
+    }
+}
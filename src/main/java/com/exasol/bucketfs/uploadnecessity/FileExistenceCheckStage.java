@@ -0,0 +1,41 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import com.exasol.bucketfs.BucketAccessException;
+import com.exasol.bucketfs.ReadOnlyBucket;
+
+/**
+ * {@link UploadNecessityCheckStage} that decides to upload files that do not exist in BucketFS.
+ * <p>
+ * A bulk check {@link ReadOnlyBucket#listAllFilePaths() lists the bucket} only once and answers the existence of all
+ * planned uploads from that listing. Files that exist are left to the next stage.
+ * </p>
+ */
+public class FileExistenceCheckStage implements UploadNecessityCheckStage {
+    @Override
+    public Decision check(final Path file, final String fullFileNameInBucketFs, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        return decide(file, fullFileNameInBucketFs, bucket.listAllFilePaths());
+    }
+
+    @Override
+    public Map<Path, Decision> checkAll(final Map<Path, String> plannedUploads, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        final Set<String> filesInBucket = bucket.listAllFilePaths();
+        final Map<Path, Decision> decisions = new LinkedHashMap<>();
+        for (final Map.Entry<Path, String> plannedUpload : plannedUploads.entrySet()) {
+            decisions.put(plannedUpload.getKey(),
+                    decide(plannedUpload.getKey(), plannedUpload.getValue(), filesInBucket));
+        }
+        return decisions;
+    }
+
+    private static Decision decide(final Path file, final String fullFileNameInBucketFs,
+            final Set<String> filesInBucket) {
+        return filesInBucket.contains(BucketPaths.toFilePathInBucket(file, fullFileNameInBucketFs))
+                ? Decision.UNDECIDED
+                : Decision.UPLOAD;
+    }
+}
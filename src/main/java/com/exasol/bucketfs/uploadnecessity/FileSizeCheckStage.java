@@ -0,0 +1,48 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+import java.util.logging.Logger;
+
+import com.exasol.bucketfs.BucketAccessException;
+import com.exasol.bucketfs.ReadOnlyBucket;
+import com.exasol.errorreporting.ExaError;
+
+/**
+ * {@link UploadNecessityCheckStage} that compares the size of the local file with the size of the file in BucketFS.
+ * <p>
+ * The stage gets existence and size of the file in BucketFS with a single {@code HEAD} request. It decides to upload
+ * missing files and files with a different size and leaves files with the same size to the next stage.
+ * </p>
+ */
+public class FileSizeCheckStage implements UploadNecessityCheckStage {
+    private static final Logger LOGGER = Logger.getLogger(FileSizeCheckStage.class.getName());
+
+    @Override
+    public Decision check(final Path file, final String fullFileNameInBucketFs, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        final String pathInBucket = BucketPaths.toFilePathInBucket(file, fullFileNameInBucketFs);
+        final OptionalLong remoteSize = bucket.getFileSize(pathInBucket);
+        if (remoteSize.isEmpty()) {
+            LOGGER.finest(() -> "File '" + pathInBucket + "' does not exist in BucketFS");
+            return Decision.UPLOAD;
+        }
+        final long localSize = getLocalSize(file, pathInBucket);
+        LOGGER.finest(() -> "Size of '" + file + "' is " + localSize + ", size of '" + pathInBucket
+                + "' in BucketFS is " + remoteSize.getAsLong());
+        return (localSize == remoteSize.getAsLong()) ? Decision.UNDECIDED : Decision.UPLOAD;
+    }
+
+    private static long getLocalSize(final Path file, final String pathInBucket) throws BucketAccessException {
+        try {
+            return Files.size(file);
+        } catch (final IOException exception) {
+            throw new BucketAccessException(ExaError.messageBuilder("E-BFSJ-43")
+                    .message("Failed to read size of local file {{file}} for checking upload to {{path}}.", file,
+                            pathInBucket)
+                    .toString(), exception);
+        }
+    }
+}
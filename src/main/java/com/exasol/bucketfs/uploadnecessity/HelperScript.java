@@ -0,0 +1,156 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static com.exasol.bucketfs.uploadnecessity.ByteArrayToHexConverter.toHex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+import com.exasol.errorreporting.ExaError;
+
+/**
+ * Python helper script that BucketFS Java installs in the database on first use.
+ * <p>
+ * If the database already contains the script with identical content, e.g. installed by another process sharing the
+ * database, it is reused as is and left in place on {@link #uninstall()}.
+ * </p>
+ */
+final class HelperScript {
+    static final String SCHEMA = "BUCKET_FS_JAVA_HELPER";
+    private static final Logger LOGGER = Logger.getLogger(HelperScript.class.getName());
+    private static final String CONTENT_MARKER_PREFIX = "# bucketfs-java content ";
+    private final Connection connection;
+    private final String name;
+    private final String createStatement;
+    private final String contentMarker;
+    private boolean installed = false;
+    private boolean installedByThisInstance = false;
+
+    /**
+     * Create a new {@link HelperScript}.
+     *
+     * @param connection   connection to the Exasol database
+     * @param name         name of the script inside the helper schema
+     * @param signature    parameters and return type of the scalar script, e.g.
+     *                     {@code (path VARCHAR(2000)) RETURNS VARCHAR(256)}
+     * @param preamble     Python code prepended to the script, e.g. definitions the script depends on
+     * @param resourceName name of the resource containing the Python code
+     */
+    HelperScript(final Connection connection, final String name, final String signature, final String preamble,
+            final String resourceName) {
+        this.connection = connection;
+        this.name = name;
+        final String script = preamble + "\n\n" + loadScript(resourceName);
+        this.contentMarker = CONTENT_MARKER_PREFIX + sha256(signature + "\n" + script);
+        this.createStatement = "CREATE OR REPLACE PYTHON3 SCALAR SCRIPT " + getFullName() + signature + " AS\n"
+                + this.contentMarker + "\n" + script + "\n/";
+    }
+
+    /**
+     * @return fully qualified name of the script
+     */
+    String getFullName() {
+        return SCHEMA + "." + this.name;
+    }
+
+    /**
+     * @return {@code true} if this instance created the script in the database
+     */
+    boolean isInstalledByThisInstance() {
+        return this.installedByThisInstance;
+    }
+
+    /**
+     * Install the script unless it was already installed or the database contains an identical script.
+     *
+     * @throws SQLException if installing fails
+     */
+    void ensureInstalled() throws SQLException {
+        if (this.installed) {
+            return;
+        }
+        if (isInstalledWithSameContent()) {
+            LOGGER.fine(() -> "Reusing existing helper script " + getFullName());
+        } else {
+            try (final Statement statement = this.connection.createStatement()) {
+                statement.executeUpdate("CREATE SCHEMA IF NOT EXISTS " + SCHEMA + ";");
+                statement.executeUpdate(this.createStatement);
+            }
+            this.installedByThisInstance = true;
+            LOGGER.fine(() -> "Installed helper script " + getFullName());
+        }
+        this.installed = true;
+    }
+
+    /**
+     * Check the installation again on the next call of {@link #ensureInstalled()}, e.g. because another process
+     * dropped the shared script.
+     */
+    void reset() {
+        this.installed = false;
+    }
+
+    private boolean isInstalledWithSameContent() throws SQLException {
+        try (final PreparedStatement statement = this.connection.prepareStatement(
+                "SELECT SCRIPT_TEXT FROM SYS.EXA_ALL_SCRIPTS WHERE SCRIPT_SCHEMA = ? AND SCRIPT_NAME = ?")) {
+            statement.setString(1, SCHEMA);
+            statement.setString(2, this.name);
+            try (final ResultSet result = statement.executeQuery()) {
+                return result.next() && Objects.toString(result.getString(1), "").contains(this.contentMarker);
+            }
+        }
+    }
+
+    /**
+     * Drop the script if this instance installed it and drop the helper schema once it is empty.
+     *
+     * @throws SQLException if uninstalling fails
+     */
+    void uninstall() throws SQLException {
+        if (this.installedByThisInstance) {
+            try (final Statement statement = this.connection.createStatement()) {
+                statement.executeUpdate("DROP SCRIPT  " + getFullName() + ";");
+                if (isSchemaEmpty()) {
+                    statement.executeUpdate("DROP SCHEMA  " + SCHEMA + ";");
+                }
+            }
+            this.installedByThisInstance = false;
+            LOGGER.fine(() -> "Uninstalled helper script " + getFullName());
+        }
+        this.installed = false;
+    }
+
+    private boolean isSchemaEmpty() throws SQLException {
+        try (final PreparedStatement statement = this.connection
+                .prepareStatement("SELECT SCRIPT_NAME FROM SYS.EXA_ALL_SCRIPTS WHERE SCRIPT_SCHEMA = ?")) {
+            statement.setString(1, SCHEMA);
+            try (final ResultSet result = statement.executeQuery()) {
+                return !result.next();
+            }
+        }
+    }
+
+    private static String loadScript(final String resourceName) {
+        try (final InputStream stream = HelperScript.class.getClassLoader().getResourceAsStream(resourceName)) {
+            return new String(Objects.requireNonNull(stream).readAllBytes(), StandardCharsets.UTF_8);
+        } catch (final IOException | NullPointerException exception) {
+            throw new IllegalStateException(ExaError.messageBuilder("F-BFSJ-13")
+                    .message("Failed to get Python UDF from resources.").ticketMitigation().toString(), exception);
+        }
+    }
+
+    private static String sha256(final String content) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(ExaError.messageBuilder("F-BFSJ-38")
+                    .message("Message digest algorithm SHA-256 is not available.").ticketMitigation().toString(),
+                    exception);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache for checksums of local files.
+ * <p>
+ * The cache identifies a file version by its canonical path, size, modification time and file key (the inode on
+ * Unix-like systems). As long as none of these change, the cached checksum is returned without reading the file again.
+ * </p>
+ * <p>
+ * A file that is rewritten within the granularity of the file system's modification time keeps the same version. The
+ * cache therefore does not remember the checksum of a file that was modified less than
+ * {@value #RACY_MODIFICATION_SECONDS} seconds before the calculation started.
+ * </p>
+ * <p>
+ * A cache created with {@link #open(Path)} keeps its entries in a compact binary file. Call {@link #save()} to write
+ * the current entries back to that file.
+ * </p>
+ */
+public final class LocalChecksumCache {
+    /** Default maximum number of cached checksums. */
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final Logger LOGGER = Logger.getLogger(LocalChecksumCache.class.getName());
+    private static final int FILE_MAGIC = 0x42464343; // "BFCC"
+    private static final int FILE_VERSION = 1;
+    private static final long RACY_MODIFICATION_SECONDS = 2;
+    private final Path cacheFile;
+    // Keyed by canonical path and algorithm, so that a new version of a file replaces the entry of the old one.
+    private final Map<String, CachedChecksum> checksums;
+
+    private LocalChecksumCache(final Path cacheFile, final int maxEntries) {
+        this.cacheFile = cacheFile;
+        this.checksums = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedChecksum> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Create a new cache that only lives in memory.
+     *
+     * @return new cache
+     */
+    public static LocalChecksumCache inMemory() {
+        return new LocalChecksumCache(null, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Open a persistent cache.
+     * <p>
+     * If the cache file does not exist or cannot be read, the cache starts empty.
+     * </p>
+     *
+     * @param cacheFile file that stores the cache between runs
+     * @return cache with the entries loaded from the file
+     */
+    public static LocalChecksumCache open(final Path cacheFile) {
+        return open(cacheFile, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Open a persistent cache.
+     *
+     * @param cacheFile  file that stores the cache between runs
+     * @param maxEntries maximum number of cached checksums; the least recently used entries are evicted first
+     * @return cache with the entries loaded from the file
+     */
+    public static LocalChecksumCache open(final Path cacheFile, final int maxEntries) {
+        final LocalChecksumCache cache = new LocalChecksumCache(cacheFile, maxEntries);
+        if (Files.exists(cacheFile)) {
+            try {
+                cache.load();
+            } catch (final IOException exception) {
+                LOGGER.log(Level.WARNING, exception, () -> "Ignoring unreadable checksum cache '" + cacheFile + "'");
+                cache.checksums.clear();
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Get the checksum of a local file, calculating it only if the cache has no entry for the current file version.
+     *
+     * @param file       local file
+     * @param algorithm  name of the checksum algorithm, part of the cache key
+     * @param calculator calculates the checksum if it is not cached
+     * @return checksum
+     * @throws IOException if reading the file attributes or calculating the checksum fails
+     */
+    public String getChecksum(final Path file, final String algorithm, final ChecksumCalculator calculator)
+            throws IOException {
+        final FileVersion version = FileVersion.of(file, algorithm);
+        synchronized (this.checksums) {
+            final CachedChecksum cached = this.checksums.get(version.getId());
+            if ((cached != null) && cached.version.equals(version)) {
+                return cached.checksum;
+            }
+        }
+        final Instant calculationStart = Instant.now();
+        final String checksum = calculator.calculate(file);
+        // Only remember the checksum if the file did not change while it was read and cannot change unnoticed later.
+        if (!version.isRacy(calculationStart) && version.equals(FileVersion.of(file, algorithm))) {
+            synchronized (this.checksums) {
+                this.checksums.put(version.getId(), new CachedChecksum(version, checksum));
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * @return number of cached checksums
+     */
+    public int size() {
+        synchronized (this.checksums) {
+            return this.checksums.size();
+        }
+    }
+
+    /**
+     * Write the cache to its file. Does nothing for an in-memory cache.
+     * <p>
+     * The method writes a temporary file first and then replaces the cache file, so that a concurrent reader never sees
+     * a partially written cache.
+     * </p>
+     *
+     * @throws IOException if writing the file fails
+     */
+    public void save() throws IOException {
+        if (this.cacheFile == null) {
+            return;
+        }
+        final List<CachedChecksum> snapshot;
+        synchronized (this.checksums) {
+            snapshot = new ArrayList<>(this.checksums.values());
+        }
+        final Path directory = this.cacheFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temporaryFile = Files.createTempFile(directory, this.cacheFile.getFileName().toString(), ".tmp");
+        try {
+            try (final DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                output.writeInt(FILE_MAGIC);
+                output.writeInt(FILE_VERSION);
+                output.writeInt(snapshot.size());
+                for (final CachedChecksum entry : snapshot) {
+                    entry.version.write(output);
+                    output.writeUTF(entry.checksum);
+                }
+            }
+            Files.move(temporaryFile, this.cacheFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        LOGGER.fine(() -> "Saved " + snapshot.size() + " checksums to '" + this.cacheFile + "'");
+    }
+
+    private void load() throws IOException {
+        try (final DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(this.cacheFile)))) {
+            if ((input.readInt() != FILE_MAGIC) || (input.readInt() != FILE_VERSION)) {
+                throw new IOException("Unsupported format of checksum cache file");
+            }
+            final int count = input.readInt();
+            for (int i = 0; i < count; ++i) {
+                final FileVersion version = FileVersion.read(input);
+                this.checksums.put(version.getId(), new CachedChecksum(version, input.readUTF()));
+            }
+        }
+        LOGGER.fine(() -> "Loaded " + this.checksums.size() + " checksums from '" + this.cacheFile + "'");
+    }
+
+    /**
+     * Calculates the checksum of a local file.
+     */
+    @FunctionalInterface
+    public interface ChecksumCalculator {
+        /**
+         * Calculate the checksum of a local file.
+         *
+         * @param file local file
+         * @return checksum
+         * @throws IOException if reading the file fails
+         */
+        String calculate(Path file) throws IOException;
+    }
+
+    private static final class CachedChecksum {
+        private final FileVersion version;
+        private final String checksum;
+
+        private CachedChecksum(final FileVersion version, final String checksum) {
+            this.version = version;
+            this.checksum = checksum;
+        }
+    }
+
+    private static final class FileVersion {
+        private final String canonicalPath;
+        private final String fileKey;
+        private final long size;
+        private final Instant lastModified;
+        private final String algorithm;
+
+        private FileVersion(final String canonicalPath, final String fileKey, final long size,
+                final Instant lastModified, final String algorithm) {
+            this.canonicalPath = canonicalPath;
+            this.fileKey = fileKey;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.algorithm = algorithm;
+        }
+
+        private static FileVersion of(final Path file, final String algorithm) throws IOException {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileVersion(file.toRealPath().toString(), Objects.toString(attributes.fileKey(), ""),
+                    attributes.size(), attributes.lastModifiedTime().toInstant(), algorithm);
+        }
+
+        private static FileVersion read(final DataInput input) throws IOException {
+            return new FileVersion(input.readUTF(), input.readUTF(), input.readLong(),
+                    Instant.ofEpochSecond(input.readLong(), input.readInt()), input.readUTF());
+        }
+
+        // A later modification within the same time stamp granularity would go unnoticed.
+        private boolean isRacy(final Instant calculationStart) {
+            return !this.lastModified.isBefore(calculationStart.minusSeconds(RACY_MODIFICATION_SECONDS));
+        }
+
+        private String getId() {
+            return this.algorithm + ":" + this.canonicalPath;
+        }
+
+        private void write(final DataOutput output) throws IOException {
+            output.writeUTF(this.canonicalPath);
+            output.writeUTF(this.fileKey);
+            output.writeLong(this.size);
+            output.writeLong(this.lastModified.getEpochSecond());
+            output.writeInt(this.lastModified.getNano());
+            output.writeUTF(this.algorithm);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof FileVersion)) {
+                return false;
+            }
+            final FileVersion that = (FileVersion) other;
+            return (this.size == that.size) && this.canonicalPath.equals(that.canonicalPath)
+                    && this.fileKey.equals(that.fileKey) && this.lastModified.equals(that.lastModified)
+                    && this.algorithm.equals(that.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.canonicalPath, this.fileKey, this.size, this.lastModified, this.algorithm);
+        }
+    }
+}
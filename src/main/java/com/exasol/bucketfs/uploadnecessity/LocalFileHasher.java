@@ -0,0 +1,174 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+import com.exasol.errorreporting.ExaError;
+
+/**
+ * Calculates checksums of local files with few system calls.
+ * <p>
+ * Files up to {@link #MAPPING_THRESHOLD} are read through a {@link FileChannel} into a large direct buffer. Larger
+ * files are memory mapped in windows of {@link #MAPPING_WINDOW_SIZE} bytes, so that the checksum is calculated
+ * directly from the page cache. Multiple files are hashed in parallel on a {@link ForkJoinPool}.
+ * </p>
+ */
+final class LocalFileHasher {
+    /** Size of the direct buffer used for reading files that are not memory mapped. */
+    static final int BUFFER_SIZE = 1024 * 1024;
+    /** Files larger than this are memory mapped. */
+    static final long MAPPING_THRESHOLD = 16L * 1024 * 1024;
+    /** Size of a single memory mapped window. */
+    static final long MAPPING_WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal
+            .withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private final ChecksumAlgorithm algorithm;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new {@link LocalFileHasher}.
+     *
+     * @param algorithm checksum algorithm
+     * @param pool      pool for hashing multiple files in parallel
+     */
+    LocalFileHasher(final ChecksumAlgorithm algorithm, final ForkJoinPool pool) {
+        this.algorithm = algorithm;
+        this.pool = pool;
+    }
+
+    /**
+     * @return checksum algorithm
+     */
+    ChecksumAlgorithm getAlgorithm() {
+        return this.algorithm;
+    }
+
+    /**
+     * Calculate the checksum of a single file.
+     *
+     * @param file local file
+     * @return checksum as hex string
+     * @throws IOException if reading the file fails
+     */
+    String hash(final Path file) throws IOException {
+        final ChecksumAlgorithm.IncrementalChecksum checksum = this.algorithm.createIncrementalChecksum();
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > MAPPING_THRESHOLD) {
+                hashMapped(channel, size, checksum);
+            } else {
+                hashBuffered(channel, checksum);
+            }
+        }
+        return checksum.getHex();
+    }
+
+    private static void hashMapped(final FileChannel channel, final long size,
+            final ChecksumAlgorithm.IncrementalChecksum checksum) throws IOException {
+        for (long position = 0; position < size; position += MAPPING_WINDOW_SIZE) {
+            final long windowSize = Math.min(MAPPING_WINDOW_SIZE, size - position);
+            checksum.update(channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize));
+        }
+    }
+
+    private static void hashBuffered(final FileChannel channel, final ChecksumAlgorithm.IncrementalChecksum checksum)
+            throws IOException {
+        final ByteBuffer buffer = BUFFER.get();
+        buffer.clear();
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            checksum.update(buffer);
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Calculate a sampled fingerprint of a single file.
+     * <p>
+     * The fingerprint is the checksum of the file size as 8 byte big-endian number followed by three blocks of
+     * {@code blockSize} bytes from the start, the middle and the end of the file. Files up to three blocks are hashed
+     * completely after the size. The fingerprint UDF calculates the same value for files in BucketFS.
+     * </p>
+     *
+     * @param file      local file
+     * @param blockSize size of each sampled block in bytes
+     * @return fingerprint as hex string
+     * @throws IOException if reading the file fails
+     */
+    String fingerprint(final Path file, final int blockSize) throws IOException {
+        final ChecksumAlgorithm.IncrementalChecksum checksum = this.algorithm.createIncrementalChecksum();
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            checksum.update(ByteBuffer.allocate(Long.BYTES).putLong(size).flip());
+            if (size <= (3L * blockSize)) {
+                hashBuffered(channel, checksum);
+            } else {
+                final ByteBuffer block = ByteBuffer.allocate(blockSize);
+                for (final long offset : new long[] { 0, (size - blockSize) / 2, size - blockSize }) {
+                    readFully(channel, block, offset);
+                    checksum.update(block);
+                }
+            }
+        }
+        return checksum.getHex();
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer block, final long offset)
+            throws IOException {
+        block.clear();
+        while (block.hasRemaining() && (channel.read(block, offset + block.position()) >= 0)) {
+            // continue until the block is full
+        }
+        block.flip();
+    }
+
+    /**
+     * Calculate the checksums of multiple files in parallel.
+     *
+     * @param files      local files
+     * @param calculator function that calculates the checksum of one file, e.g. through a {@link LocalChecksumCache}
+     * @return map from file to checksum
+     * @throws IOException if reading any of the files fails
+     */
+    Map<Path, String> hashAll(final Collection<Path> files, final LocalChecksumCache.ChecksumCalculator calculator)
+            throws IOException {
+        final List<Path> distinctFiles = new ArrayList<>(new LinkedHashSet<>(files));
+        if (distinctFiles.size() <= 1) {
+            final Map<Path, String> checksums = new HashMap<>();
+            for (final Path file : distinctFiles) {
+                checksums.put(file, calculator.calculate(file));
+            }
+            return checksums;
+        }
+        final Map<Path, String> checksums = new ConcurrentHashMap<>();
+        try {
+            this.pool.submit(() -> distinctFiles.parallelStream().forEach(file -> {
+                try {
+                    checksums.put(file, calculator.calculate(file));
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            })).get();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ExaError.messageBuilder("E-BFSJ-41")
+                    .message("Interrupted while calculating checksums of local files.").toString(), exception);
+        } catch (final ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IllegalStateException(cause);
+            }
+        }
+        return checksums;
+    }
+}
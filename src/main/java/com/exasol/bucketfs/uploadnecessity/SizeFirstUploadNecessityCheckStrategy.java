@@ -0,0 +1,58 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.exasol.bucketfs.BucketAccessException;
+import com.exasol.bucketfs.ReadOnlyBucket;
+
+/**
+ * This {@link UploadNecessityCheckStrategy} compares the size of the local file with the size of the file in BucketFS
+ * before doing anything more expensive.
+ * <p>
+ * The strategy gets existence and size of the file in BucketFS with a single {@code HEAD} request. If the file does not
+ * exist or the sizes differ, the file is uploaded without involving the database. Only if the sizes match, the
+ * strategy delegates the decision to another strategy, usually a {@link ChecksumUploadNecessityCheckStrategy}.
+ * </p>
+ * <p>
+ * This is a shortcut for a {@link ChainedUploadNecessityCheckStrategy} with a {@link FileSizeCheckStage} followed by
+ * the given strategy.
+ * </p>
+ */
+public class SizeFirstUploadNecessityCheckStrategy implements UploadNecessityCheckStrategy {
+    private final ChainedUploadNecessityCheckStrategy chain;
+
+    /**
+     * Create a new instance of {@link SizeFirstUploadNecessityCheckStrategy}.
+     *
+     * @param sameSizeStrategy strategy that decides about files with the same size locally and in BucketFS
+     */
+    public SizeFirstUploadNecessityCheckStrategy(final UploadNecessityCheckStrategy sameSizeStrategy) {
+        this.chain = ChainedUploadNecessityCheckStrategy.of(new FileSizeCheckStage(),
+                UploadNecessityCheckStage.of(sameSizeStrategy));
+    }
+
+    @Override
+    public boolean isUploadNecessary(final Path file, final String fullFileNameInBucketFs, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        return this.chain.isUploadNecessary(file, fullFileNameInBucketFs, bucket);
+    }
+
+    /**
+     * Decide for multiple files if it is necessary to upload them to BucketFS.
+     * <p>
+     * This method compares the sizes of all files first and passes only the files with matching sizes on to the
+     * bulk check of the strategy for files with the same size.
+     * </p>
+     *
+     * @param plannedUploads map from local file to path in BucketFS
+     * @param bucket         bucket the files are uploaded to
+     * @return planned uploads that are necessary, in the iteration order of {@code plannedUploads}
+     * @throws BucketAccessException if the necessity check cannot be executed
+     */
+    @Override
+    public Map<Path, String> filterNecessaryUploads(final Map<Path, String> plannedUploads,
+            final ReadOnlyBucket bucket) throws BucketAccessException {
+        return this.chain.filterNecessaryUploads(plannedUploads, bucket);
+    }
+}
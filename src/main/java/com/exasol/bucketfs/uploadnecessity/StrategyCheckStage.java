@@ -0,0 +1,42 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import com.exasol.bucketfs.BucketAccessException;
+import com.exasol.bucketfs.ReadOnlyBucket;
+
+/**
+ * {@link UploadNecessityCheckStage} that always takes a definitive decision using an
+ * {@link UploadNecessityCheckStrategy}.
+ */
+final class StrategyCheckStage implements UploadNecessityCheckStage {
+    private final UploadNecessityCheckStrategy strategy;
+
+    StrategyCheckStage(final UploadNecessityCheckStrategy strategy) {
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+    }
+
+    @Override
+    public Decision check(final Path file, final String fullFileNameInBucketFs, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        return this.strategy.isUploadNecessary(file, fullFileNameInBucketFs, bucket) ? Decision.UPLOAD
+                : Decision.SKIP;
+    }
+
+    @Override
+    public Map<Path, Decision> checkAll(final Map<Path, String> plannedUploads, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        final Map<Path, String> necessaryUploads = this.strategy.filterNecessaryUploads(plannedUploads, bucket);
+        final Map<Path, Decision> decisions = new LinkedHashMap<>();
+        for (final Path file : plannedUploads.keySet()) {
+            decisions.put(file, necessaryUploads.containsKey(file) ? Decision.UPLOAD : Decision.SKIP);
+        }
+        return decisions;
+    }
+
+    @Override
+    public String getName() {
+        return this.strategy.getClass().getSimpleName();
+    }
+}
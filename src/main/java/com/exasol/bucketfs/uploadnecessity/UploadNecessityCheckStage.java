@@ -0,0 +1,81 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.exasol.bucketfs.BucketAccessException;
+import com.exasol.bucketfs.ReadOnlyBucket;
+
+/**
+ * Single stage of a {@link ChainedUploadNecessityCheckStrategy}.
+ * <p>
+ * In contrast to an {@link UploadNecessityCheckStrategy} a stage may leave the decision to the next stage of the chain
+ * by answering {@link Decision#UNDECIDED}.
+ * </p>
+ */
+public interface UploadNecessityCheckStage {
+    /**
+     * Decide if it is necessary to upload a file to BucketFS.
+     *
+     * @param file                   local file
+     * @param fullFileNameInBucketFs path to the file in BucketFS
+     * @param bucket                 bucket the file is uploaded to
+     * @return decision of this stage
+     * @throws BucketAccessException if the check cannot be executed
+     */
+    Decision check(Path file, String fullFileNameInBucketFs, ReadOnlyBucket bucket) throws BucketAccessException;
+
+    /**
+     * Decide for multiple files if it is necessary to upload them to BucketFS.
+     * <p>
+     * The default implementation checks each file separately. Stages that can check many files at once override this
+     * method.
+     * </p>
+     *
+     * @param plannedUploads map from local file to path in BucketFS
+     * @param bucket         bucket the files are uploaded to
+     * @return decision for each planned upload
+     * @throws BucketAccessException if the check cannot be executed
+     */
+    default Map<Path, Decision> checkAll(final Map<Path, String> plannedUploads, final ReadOnlyBucket bucket)
+            throws BucketAccessException {
+        final Map<Path, Decision> decisions = new LinkedHashMap<>();
+        for (final Map.Entry<Path, String> plannedUpload : plannedUploads.entrySet()) {
+            decisions.put(plannedUpload.getKey(), check(plannedUpload.getKey(), plannedUpload.getValue(), bucket));
+        }
+        return decisions;
+    }
+
+    /**
+     * @return name of the stage as shown in the {@link ChainedUploadNecessityCheckStrategy#getStatistics() statistics}
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Create a stage that always takes a definitive decision using the given strategy.
+     * <p>
+     * Use this for the last and most expensive stage of a chain, e.g. a {@link ChecksumUploadNecessityCheckStrategy}.
+     * </p>
+     *
+     * @param strategy strategy that decides
+     * @return new stage
+     */
+    static UploadNecessityCheckStage of(final UploadNecessityCheckStrategy strategy) {
+        return new StrategyCheckStage(strategy);
+    }
+
+    /**
+     * Decision of a single stage.
+     */
+    enum Decision {
+        /** The file needs to be uploaded. */
+        UPLOAD,
+        /** The file in BucketFS is up to date. */
+        SKIP,
+        /** This stage cannot decide, ask the next stage. */
+        UNDECIDED
+    }
+}
@@ -1,6 +1,8 @@
 package com.exasol.bucketfs.uploadnecessity;
 
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.exasol.bucketfs.BucketAccessException;
 import com.exasol.bucketfs.ReadOnlyBucket;
@@ -21,4 +23,27 @@ public interface UploadNecessityCheckStrategy {
      */
     public boolean isUploadNecessary(Path file, String fullFileNameInBucketFs, ReadOnlyBucket bucket)
             throws BucketAccessException;
+
+    /**
+     * Decide for multiple files if it is necessary to upload them to BucketFS.
+     * <p>
+     * The default implementation checks each file separately. Strategies that can check many files at once override
+     * this method.
+     * </p>
+     *
+     * @param plannedUploads map from local file to path in BucketFS
+     * @param bucket         bucket the files are uploaded to
+     * @return planned uploads that are necessary, in the iteration order of {@code plannedUploads}
+     * @throws BucketAccessException if the necessity check cannot be executed
+     */
+    public default Map<Path, String> filterNecessaryUploads(final Map<Path, String> plannedUploads,
+            final ReadOnlyBucket bucket) throws BucketAccessException {
+        final Map<Path, String> necessaryUploads = new LinkedHashMap<>();
+        for (final Map.Entry<Path, String> plannedUpload : plannedUploads.entrySet()) {
+            if (isUploadNecessary(plannedUpload.getKey(), plannedUpload.getValue(), bucket)) {
+                necessaryUploads.put(plannedUpload.getKey(), plannedUpload.getValue());
+            }
+        }
+        return necessaryUploads;
+    }
 }
@@ -1,11 +1,9 @@
-import hashlib
-
 BLOCK_SIZE = 8192
 
 
 def run(context):
     with open(context.my_path, "rb") as f:
-        file_hash = hashlib.sha512()
+        file_hash = create_hash()
         chunk = f.read(BLOCK_SIZE)
         while chunk:
             file_hash.update(chunk)
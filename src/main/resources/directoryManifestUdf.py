@@ -0,0 +1,23 @@
+import os
+
+BLOCK_SIZE = 8192
+
+
+def checksum(path):
+    with open(path, "rb") as f:
+        file_hash = create_hash()
+        chunk = f.read(BLOCK_SIZE)
+        while chunk:
+            file_hash.update(chunk)
+            chunk = f.read(BLOCK_SIZE)
+    return file_hash.hexdigest()
+
+
+def run(context):
+    root = context.root_path
+    for directory, _, files in os.walk(root):
+        for name in files:
+            path = os.path.join(directory, name)
+            stat = os.stat(path)
+            digest = checksum(path) if context.with_checksums else None
+            context.emit(os.path.relpath(path, root), stat.st_size, stat.st_mtime, digest)
@@ -0,0 +1,17 @@
+import os
+import struct
+
+
+def run(context):
+    block_size = int(context.block_size)
+    size = os.path.getsize(context.my_path)
+    file_hash = create_hash()
+    file_hash.update(struct.pack(">q", size))
+    with open(context.my_path, "rb") as f:
+        if size <= 3 * block_size:
+            file_hash.update(f.read())
+        else:
+            for offset in (0, (size - block_size) // 2, size - block_size):
+                f.seek(offset)
+                file_hash.update(f.read(block_size))
+    return file_hash.hexdigest()
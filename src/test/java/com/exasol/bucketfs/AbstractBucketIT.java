@@ -123,6 +123,11 @@ public abstract class AbstractBucketIT {
     }
 
     protected SyncAwareBucket getDefaultBucketForWriting(final String readPassword, final String writePassword) {
+        return getDefaultBucketBuilderForWriting(readPassword, writePassword).build();
+    }
+
+    protected SyncAwareBucket.Builder<? extends SyncAwareBucket.Builder<?>> getDefaultBucketBuilderForWriting(
+            final String readPassword, final String writePassword) {
         final LogBasedBucketFsMonitor monitor = createBucketMonitor();
         return SyncAwareBucket.builder()//
                 .host(getHost()) //
@@ -135,7 +140,6 @@ public abstract class AbstractBucketIT {
                 .readPassword(readPassword) //
                 .writePassword(writePassword) //
                 .monitor(monitor) //
-                .stateRetriever(new TimestampRetriever()) //
-                .build();
+                .stateRetriever(new TimestampRetriever());
     }
 }
@@ -0,0 +1,139 @@
+package com.exasol.bucketfs;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ArchiveTableOfContentsTest {
+    @TempDir
+    Path tempDir;
+
+    @CsvSource({ "archive.zip, archive/", "dir/archive.tar.gz, dir/archive/", "dir/sub/a.tgz, dir/sub/a/",
+            "a.b.tar, a.b/", "UPPER.ZIP, UPPER/" })
+    @ParameterizedTest
+    void testGetExtractionDirectory(final String pathInBucket, final String expectedDirectory) {
+        assertThat(ArchiveTableOfContents.getExtractionDirectory(pathInBucket), equalTo(expectedDirectory));
+    }
+
+    @Test
+    void testReadZip() throws IOException {
+        final Path archive = this.tempDir.resolve("archive.zip");
+        try (final ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("dir/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("dir/a.txt"));
+            zip.write("a".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("b.txt"));
+            zip.closeEntry();
+        }
+        assertThat(ArchiveTableOfContents.read(archive).getFiles(), contains("dir/a.txt", "b.txt"));
+    }
+
+    @Test
+    void testReadTar() throws IOException {
+        final Path archive = this.tempDir.resolve("archive.tar");
+        try (final TarWriter tar = new TarWriter(Files.newOutputStream(archive))) {
+            tar.addDirectory("./dir/");
+            tar.addFile("./dir/a.txt", new byte[1000]);
+            tar.addFile("b.txt", new byte[0]);
+        }
+        assertThat(ArchiveTableOfContents.read(archive).getFiles(), contains("dir/a.txt", "b.txt"));
+    }
+
+    @Test
+    void testReadTarGz() throws IOException {
+        final Path archive = this.tempDir.resolve("archive.tar.gz");
+        try (final TarWriter tar = new TarWriter(new GZIPOutputStream(Files.newOutputStream(archive)))) {
+            tar.addFile("a.txt", new byte[513]);
+            tar.addFile("b.txt", new byte[512]);
+        }
+        assertThat(ArchiveTableOfContents.read(archive).getFiles(), contains("a.txt", "b.txt"));
+    }
+
+    @Test
+    void testReadTarWithGnuLongName() throws IOException {
+        final String longName = "dir/" + "x".repeat(150) + ".txt";
+        final Path archive = this.tempDir.resolve("archive.tgz");
+        try (final TarWriter tar = new TarWriter(new GZIPOutputStream(Files.newOutputStream(archive)))) {
+            tar.addEntry("././@LongLink", 'L', longName.getBytes(StandardCharsets.UTF_8));
+            tar.addFile(longName.substring(0, 99), new byte[10]);
+            tar.addFile("short.txt", new byte[10]);
+        }
+        assertThat(ArchiveTableOfContents.read(archive).getFiles(), contains(longName, "short.txt"));
+    }
+
+    @Test
+    void testReadTarWithPaxPath() throws IOException {
+        final String longName = "dir/" + "y".repeat(120) + ".txt";
+        final String record = " path=" + longName + "\n";
+        final String paxData = (record.length() + 4) + record;
+        final Path archive = this.tempDir.resolve("archive.tar");
+        try (final TarWriter tar = new TarWriter(Files.newOutputStream(archive))) {
+            tar.addEntry("PaxHeaders/file", 'x', paxData.getBytes(StandardCharsets.UTF_8));
+            tar.addFile("truncated", new byte[10]);
+        }
+        assertThat(ArchiveTableOfContents.read(archive).getFiles(), contains(longName));
+    }
+
+    @Test
+    void testReadUnsupportedArchiveType() {
+        final Path file = this.tempDir.resolve("archive.rar");
+        assertThrowsWithMessage(IllegalArgumentException.class, () -> ArchiveTableOfContents.read(file),
+                startsWith("E-BFSJ-33: Unsupported archive type of file"));
+    }
+
+    /**
+     * Minimal writer for tar archives in ustar format.
+     */
+    static class TarWriter implements Closeable {
+        private final OutputStream stream;
+
+        TarWriter(final OutputStream stream) {
+            this.stream = stream;
+        }
+
+        void addFile(final String name, final byte[] content) throws IOException {
+            addEntry(name, '0', content);
+        }
+
+        void addDirectory(final String name) throws IOException {
+            addEntry(name, '5', new byte[0]);
+        }
+
+        void addEntry(final String name, final char type, final byte[] content) throws IOException {
+            final byte[] header = new byte[512];
+            write(header, 0, name);
+            write(header, 100, "0000644");
+            write(header, 124, String.format("%011o", content.length));
+            header[156] = (byte) type;
+            write(header, 257, "ustar");
+            write(header, 263, "00");
+            this.stream.write(header);
+            this.stream.write(content);
+            this.stream.write(new byte[(512 - (content.length % 512)) % 512]);
+        }
+
+        private static void write(final byte[] header, final int offset, final String value) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(bytes, 0, header, offset, bytes.length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.stream.write(new byte[1024]);
+            this.stream.close();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.exasol.bucketfs;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertAll;
 
@@ -10,6 +11,8 @@ import java.net.URI;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import com.exasol.bucketfs.http.CircuitOpenException;
+
 @Tag("fast")
 class BucketAccessExceptionTest {
     private static final URI EXPECTED_URI = URI.create("http://localhost:2580/default");
@@ -40,4 +43,15 @@ class BucketAccessExceptionTest {
         assertAll(() -> assertThat(exception.getMessage(), startsWith(EXPECTED_MESSAGE)),
                 () -> assertThat(exception.getCause(), equalTo(EXPECTED_CAUSE)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateFromOpenCircuit() throws Exception {
+        final BucketAccessException exception = BucketAccessException.downloadIoException(EXPECTED_URI,
+                BucketOperation.LIST, new CircuitOpenException("localhost:2580", EXPECTED_MESSAGE));
+        assertAll(() -> assertThat(exception, instanceOf(BucketUnavailableException.class)),
+                () -> assertThat(((BucketUnavailableException) exception).getEndpoint(), equalTo("localhost:2580")),
+                () -> assertThat(exception.getMessage(), equalTo("E-BFSJ-58: BucketFS endpoint 'localhost:2580' is"
+                        + " unavailable, not trying to list. URI: http://localhost:2580/default")),
+                () -> assertThat(exception.getUri(), equalTo(EXPECTED_URI)));
+    }
+}
@@ -4,6 +4,7 @@ import static com.exasol.bucketfs.BucketConstants.DEFAULT_BUCKET;
 import static com.exasol.bucketfs.BucketConstants.DEFAULT_BUCKETFS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
 
 import java.io.*;
 import java.nio.file.Path;
@@ -21,7 +22,7 @@ import com.exasol.bucketfs.monitor.TimestampRetriever;
 class BucketContentSyncIT extends AbstractBucketIT {
     private static final RandomFileGenerator GENERATOR = new RandomFileGenerator();
 
-    private Bucket getDefaultBucket() {
+    private SyncAwareBucket getDefaultBucket() {
         final var bucketConfiguration = getDefaultBucketConfiguration();
         return SyncAwareBucket.builder()//
                 .host(getHost()) //
@@ -68,6 +69,17 @@ class BucketContentSyncIT extends AbstractBucketIT {
         assertObjectSynchronized(tempFile, getDefaultBucket(), filename);
     }
 
+    // [itest->dsn~waiting-until-archive-extracted~1]
+    @Test
+    void testUploadArchiveWaitsForAllFilesToBeExtracted(@TempDir final Path tempDir)
+            throws IOException, BucketAccessException, TimeoutException {
+        final Path tempFile = tempDir.resolve("toc-archive.zip");
+        createArchive(tempFile);
+        final SyncAwareBucket bucket = getDefaultBucket();
+        bucket.uploadArchive(tempFile, "toc/");
+        assertThat(bucket.listContents("toc/toc-archive/"), hasItem("random.txt"));
+    }
+
     private void createArchive(final Path file) throws IOException {
         final var zip = new ZipOutputStream(new FileOutputStream(file.toFile()));
         final var entry = new ZipEntry("random.txt");
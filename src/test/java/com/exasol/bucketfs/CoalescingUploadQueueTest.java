@@ -0,0 +1,167 @@
+package com.exasol.bucketfs;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingUploadQueueTest {
+    @Mock
+    private Bucket bucketMock;
+    private final ManualExecutor executor = new ManualExecutor();
+
+    @Test
+    void testSupersededUploadsSendOnlyLatestContent() throws Exception {
+        final CoalescingUploadQueue queue = new CoalescingUploadQueue(this.bucketMock, this.executor);
+        final CompletableFuture<Void> first = queue.uploadStringContent("v1", "config.txt");
+        final CompletableFuture<Void> second = queue.uploadStringContent("v2", "config.txt");
+        final CompletableFuture<Void> third = queue.uploadStringContent("v3", "config.txt");
+        this.executor.runAll();
+        verify(this.bucketMock).uploadStringContent("v3", "config.txt");
+        verifyNoMoreInteractions(this.bucketMock);
+        assertThat(first.isDone() && second.isDone() && third.isDone(), equalTo(true));
+        assertThat(first, sameInstance(third));
+    }
+
+    @Test
+    void testUploadsToDifferentPathsAreNotCoalesced() throws Exception {
+        final CoalescingUploadQueue queue = new CoalescingUploadQueue(this.bucketMock, this.executor);
+        queue.uploadStringContent("a", "a.txt");
+        queue.uploadStringContent("b", "b.txt");
+        this.executor.runAll();
+        verify(this.bucketMock).uploadStringContent("a", "a.txt");
+        verify(this.bucketMock).uploadStringContent("b", "b.txt");
+    }
+
+    @Test
+    void testUploadsOfDifferentFilesIntoSameDirectoryAreNotCoalesced() throws Exception {
+        final CoalescingUploadQueue queue = new CoalescingUploadQueue(this.bucketMock, this.executor);
+        final CompletableFuture<Void> first = queue.uploadFile(Path.of("/tmp/a.jar"), "jars/");
+        final CompletableFuture<Void> second = queue.uploadFile(Path.of("/tmp/b.jar"), "jars/");
+        this.executor.runAll();
+        verify(this.bucketMock).uploadFile(Path.of("/tmp/a.jar"), "jars/a.jar");
+        verify(this.bucketMock).uploadFile(Path.of("/tmp/b.jar"), "jars/b.jar");
+        assertThat(first, not(sameInstance(second)));
+    }
+
+    @Test
+    void testDirectoryTargetIsCoalescedWithFileTarget() throws Exception {
+        final CoalescingUploadQueue queue = new CoalescingUploadQueue(this.bucketMock, this.executor);
+        final CompletableFuture<Void> first = queue.uploadFile(Path.of("/tmp/a.jar"), "jars/");
+        final CompletableFuture<Void> second = queue.uploadFile(Path.of("/tmp/new/a.jar"), "/jars/a.jar");
+        this.executor.runAll();
+        verify(this.bucketMock).uploadFile(Path.of("/tmp/new/a.jar"), "/jars/a.jar");
+        verifyNoMoreInteractions(this.bucketMock);
+        assertThat(first, sameInstance(second));
+    }
+
+    @Test
+    void testUploadSubmittedWhileRunningIsSentAfterwards() throws Exception {
+        final CoalescingUploadQueue queue = new CoalescingUploadQueue(this.bucketMock, this.executor);
+        final CompletableFuture<?>[] later = new CompletableFuture<?>[1];
+        doAnswer(invocation -> {
+            later[0] = queue.uploadStringContent("v2", "config.txt");
+            return null;
+        }).when(this.bucketMock).uploadStringContent("v1", "config.txt");
+        final CompletableFuture<Void> first = queue.uploadStringContent("v1", "config.txt");
+        this.executor.runAll();
+        verify(this.bucketMock).uploadStringContent("v2", "config.txt");
+        assertThat(later[0], not(sameInstance(first)));
+        assertThat(later[0].isDone(), equalTo(true));
+        assertThat(this.executor.tasks.size(), equalTo(0));
+    }
+
+    @Test
+    void testFailureCompletesAllSupersededFutures() throws Exception {
+        doThrow(new BucketAccessException("failed")).when(this.bucketMock).uploadStringContent(anyString(),
+                anyString());
+        final CoalescingUploadQueue queue = new CoalescingUploadQueue(this.bucketMock, this.executor);
+        final CompletableFuture<Void> first = queue.uploadStringContent("v1", "config.txt");
+        final CompletableFuture<Void> second = queue.uploadStringContent("v2", "config.txt");
+        this.executor.runAll();
+        final ExecutionException exception = assertThrows(ExecutionException.class, first::get);
+        assertThat(exception.getCause(), instanceOf(BucketAccessException.class));
+        assertThat(second.isCompletedExceptionally(), equalTo(true));
+    }
+
+    @Test
+    void testSubmitAfterCloseFails() throws Exception {
+        final CoalescingUploadQueue queue = new CoalescingUploadQueue(this.bucketMock, this.executor);
+        queue.close();
+        assertThrowsWithMessage(IllegalStateException.class, () -> queue.uploadStringContent("v1", "config.txt"),
+                "E-BFSJ-37: Unable to submit upload to 'config.txt' because the upload queue is closed.");
+    }
+
+    @Test
+    void testRejectedUploadDoesNotBlockLaterUploadsToSamePath() throws Exception {
+        final ExecutorService rejectingExecutor = Executors.newSingleThreadExecutor();
+        rejectingExecutor.shutdown();
+        final CoalescingUploadQueue queue = new CoalescingUploadQueue(this.bucketMock, rejectingExecutor);
+        assertThrows(RejectedExecutionException.class, () -> queue.uploadStringContent("v1", "config.txt"));
+        assertThrows(RejectedExecutionException.class, () -> queue.uploadStringContent("v2", "config.txt"));
+        queue.close();
+        verify(this.bucketMock, never()).uploadStringContent(anyString(), anyString());
+    }
+
+    @Test
+    void testCloseWaitsForSubmittedUploads() throws Exception {
+        final CoalescingUploadQueue queue = new CoalescingUploadQueue(this.bucketMock);
+        final CompletableFuture<Void> future = queue.uploadStringContent("v1", "config.txt");
+        queue.close();
+        assertThat(future.isDone(), equalTo(true));
+        verify(this.bucketMock).uploadStringContent("v1", "config.txt");
+    }
+
+    private static class ManualExecutor extends AbstractExecutorService {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        void runAll() {
+            while (!this.tasks.isEmpty()) {
+                this.tasks.removeFirst().run();
+            }
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            this.tasks.addLast(command);
+        }
+
+        @Override
+        public void shutdown() {
+            // nothing to do
+        }
+
+        @Override
+        public java.util.List<Runnable> shutdownNow() {
+            return java.util.List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -2,15 +2,24 @@ package com.exasol.bucketfs;
 
 import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.http.*;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -74,6 +83,14 @@ class ReadEnabledBucketTest {
         assertThat(bucket.getFullyQualifiedBucketName(), equalTo(BucketConstants.DEFAULT_BUCKETFS + "/" + BUCKET_NAME));
     }
 
+    @Test
+    void testPreBuiltHttpClientTakesPrecedence() {
+        final ReadOnlyBucket bucket = bucketBuilder().host(IP_ADDRESS).port(PORT).name(BUCKET_NAME)
+                .httpClient(this.httpClientMock).build();
+        assertThat(bucket.getHttpClient(), sameInstance(this.httpClientMock));
+        verify(this.httpClientBuilderMock, never()).build();
+    }
+
     private ReadOnlyBucket createBucket() {
         return bucketBuilder().host(IP_ADDRESS) //
                 .port(PORT) //
@@ -144,6 +161,47 @@ class ReadEnabledBucketTest {
         when(this.httpResponseMock.statusCode()).thenReturn(responseStatus);
     }
 
+    @Test
+    void testListAllFilePathsUsesSingleRequest() throws Exception {
+        simulateResponse(lines("dir/b1.txt", "b.txt", "dir/a1.txt"), 200);
+        assertThat(createBucket().listAllFilePaths(), contains("b.txt", "dir/a1.txt", "dir/b1.txt"));
+        verify(this.httpClientMock, times(1)).send(any(), any());
+    }
+
+    @Test
+    void testListAllFilePathsOfEmptyBucket() throws Exception {
+        simulateResponse("", 200);
+        assertThat(createBucket().listAllFilePaths(), empty());
+    }
+
+    @Test
+    void testGetFileSizeSendsHeadRequest() throws Exception {
+        simulateResponse(null, 200);
+        when(this.httpResponseMock.headers())
+                .thenReturn(HttpHeaders.of(Map.of("Content-Length", List.of("1234")), (name, value) -> true));
+        assertThat(createBucket().getFileSize("dir/file.jar"), equalTo(OptionalLong.of(1234)));
+        final ArgumentCaptor<HttpRequest> arg = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(this.httpClientMock).send(arg.capture(), any());
+        assertThat(arg.getValue().method(), equalTo("HEAD"));
+        assertThat(arg.getValue().uri().toString(), equalTo("http://101.102.103.104:1234/bucket/dir/file.jar"));
+    }
+
+    @Test
+    void testGetFileSizeOfMissingFileIsEmpty() throws Exception {
+        simulateResponse(null, 404);
+        assertThat(createBucket().getFileSize("missing.jar"), equalTo(OptionalLong.empty()));
+    }
+
+    @Test
+    void testGetFileSizeWithoutContentLengthFails() throws Exception {
+        simulateResponse(null, 200);
+        when(this.httpResponseMock.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        final ReadOnlyBucket bucket = createBucket();
+        assertThrowsWithMessage(BucketAccessException.class, () -> bucket.getFileSize("file.jar"),
+                "E-BFSJ-42: BucketFS did not report the size of 'http://101.102.103.104:1234/bucket/file.jar'."
+                        + " Use a strategy that does not depend on file sizes reported by BucketFS.");
+    }
+
     @CsvSource({ //
             "404, E-BFSJ-2: File or directory not found trying to list 'http://101.102.103.104:1234/bucket/'.",
             "403, E-BFSJ-3: Access denied trying to list 'http://101.102.103.104:1234/bucket/'.",
@@ -226,4 +284,51 @@ class ReadEnabledBucketTest {
         final Builder<?> builder = ReadEnabledBucket.builder().host("host").serviceName("service");
         assertThrowsWithMessage(NullPointerException.class, builder::build, "bucketName");
     }
+
+    @Test
+    void testLazyHttpClientIsCreatedOnFirstRequest()
+            throws IOException, InterruptedException, BucketAccessException {
+        simulateResponse("file.txt", 200);
+        final ReadOnlyBucket bucket = bucketBuilder().host(IP_ADDRESS).port(PORT).name(BUCKET_NAME)
+                .lazyHttpClient(true).build();
+        verify(this.httpClientBuilderMock, never()).build();
+        bucket.listContents();
+        bucket.listContents();
+        verify(this.httpClientBuilderMock, times(1)).build();
+    }
+
+    @Test
+    void testWarmUpSendsHeadRequestsToEachNode() {
+        when(this.httpClientBuilderMock.build()).thenReturn(this.httpClientMock);
+        when(this.httpClientMock.sendAsync(any(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(this.httpResponseMock));
+        bucketBuilder().hosts(List.of("node-1", "node-2")).port(PORT).name(BUCKET_NAME).warmUpConnections(2)
+                .build();
+        final ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(this.httpClientMock, times(4)).sendAsync(requests.capture(), any());
+        assertThat(requests.getAllValues().get(0).method(), equalTo("HEAD"));
+        assertThat(requests.getAllValues().get(3).uri().toString(), equalTo("http://node-2:1234/"));
+    }
+
+    @Test
+    void testWarmUpRequestsUseReadCredentials() {
+        when(this.httpClientBuilderMock.build()).thenReturn(this.httpClientMock);
+        when(this.httpClientMock.sendAsync(any(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(this.httpResponseMock));
+        bucketBuilder().host("node-1").port(PORT).name(BUCKET_NAME).readPassword("secret").warmUpConnections(1)
+                .build();
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(this.httpClientMock).sendAsync(request.capture(), any());
+        assertThat(request.getValue().headers().firstValue("Authorization").orElseThrow(),
+                equalTo("Basic " + Base64.getEncoder().encodeToString("r:secret".getBytes())));
+    }
+
+    @Test
+    void testFailedWarmUpIsIgnored() {
+        when(this.httpClientBuilderMock.build()).thenReturn(this.httpClientMock);
+        when(this.httpClientMock.sendAsync(any(), any()))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new IOException("refused")));
+        final ReadEnabledBucket bucket = (ReadEnabledBucket) createBucket();
+        assertThat(bucket.warmUp(1).isCompletedExceptionally(), equalTo(false));
+    }
 }
@@ -0,0 +1,43 @@
+package com.exasol.bucketfs;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReadOnlyBucketTest {
+    private ReadOnlyBucket bucket;
+
+    @BeforeEach
+    void beforeEach() throws BucketAccessException {
+        this.bucket = mock(ReadOnlyBucket.class, CALLS_REAL_METHODS);
+        when(this.bucket.listContentsRecursively()).thenReturn(List.of("a.txt", "dir/", "dir/b.txt"));
+    }
+
+    @Test
+    void testDefaultListAllFilePathsSkipsDirectories() throws BucketAccessException {
+        assertThat(this.bucket.listAllFilePaths(), contains("a.txt", "dir/b.txt"));
+    }
+
+    @Test
+    void testDefaultGetFileSizeOfMissingFileIsEmpty() throws BucketAccessException {
+        assertThat(this.bucket.getFileSize("/dir/missing.txt"), equalTo(OptionalLong.empty()));
+    }
+
+    @Test
+    void testDefaultGetFileSizeOfExistingFileFails() {
+        when(this.bucket.getFullyQualifiedBucketName()).thenReturn("bfsdefault/default");
+        assertThrowsWithMessage(BucketAccessException.class, () -> this.bucket.getFileSize("/dir/b.txt"),
+                "E-BFSJ-60: Bucket 'bfsdefault/default' does not report the size of '/dir/b.txt'."
+                        + " Use a strategy that does not depend on file sizes reported by BucketFS.");
+    }
+}
@@ -10,6 +10,7 @@ import java.io.*;
 import java.net.http.HttpClient;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.OptionalLong;
 import java.util.concurrent.TimeoutException;
 
 import org.hamcrest.Matchers;
@@ -35,6 +36,16 @@ class SyncAwareBucketIT extends AbstractBucketIT {
         assertThat(bucket.listContents(), hasItem(fileName));
     }
 
+    @Test
+    void testGetFileSize(@TempDir final Path tempDir) throws Exception {
+        final var fileName = "test-size.txt";
+        final var testFile = createTestFile(tempDir, fileName, 10);
+        final var bucket = getDefaultBucketForWriting();
+        bucket.uploadFile(testFile, fileName);
+        assertAll(() -> assertThat(bucket.getFileSize(fileName), equalTo(OptionalLong.of(Files.size(testFile)))),
+                () -> assertThat(bucket.getFileSize("missing-" + fileName), equalTo(OptionalLong.empty())));
+    }
+
     private Path createTestFile(final Path tempDir, final String fileName, final int sizeInKiB) throws IOException {
         final var generator = new RandomFileGenerator();
         final var path = tempDir.resolve(Path.of(fileName));
@@ -83,6 +94,27 @@ class SyncAwareBucketIT extends AbstractBucketIT {
         assertThrows(BucketAccessException.class, () -> bucket.uploadStringContent("any content", "any-filename.txt"));
     }
 
+    @Test
+    void testUploadWithExpectContinue(@TempDir final Path tempDir) throws Exception {
+        final var fileName = "test-expect-continue.txt";
+        final var testFile = createTestFile(tempDir, fileName, 1000);
+        final var config = getDefaultBucketConfiguration();
+        final var bucket = getDefaultBucketBuilderForWriting(config.getReadPassword(), config.getWritePassword()) //
+                .expectContinueThreshold(0) //
+                .build();
+        bucket.uploadFile(testFile, fileName);
+        assertThat(bucket.getFileSize(fileName), equalTo(OptionalLong.of(Files.size(testFile))));
+    }
+
+    @Test
+    void testUploadWithExpectContinueAndWrongWritePasswordFails() throws Exception {
+        final var bucket = getDefaultBucketBuilderForWriting(getDefaultBucketConfiguration().getReadPassword(),
+                "wrong write password") //
+                .expectContinueThreshold(0) //
+                .build();
+        assertThrows(BucketAccessException.class, () -> bucket.uploadStringContent("any content", "any-filename.txt"));
+    }
+
     // [itest->dsn~uploading-input-stream-to-bucket~1]
     @Test
     void testUploadInputStreamContent() throws Exception {
@@ -0,0 +1,327 @@
+package com.exasol.bucketfs;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.http.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.exasol.bucketfs.http.Deadline;
+import com.exasol.bucketfs.http.HttpClientBuilder;
+import com.exasol.bucketfs.monitor.BucketFsMonitor;
+import com.exasol.bucketfs.uploadnecessity.UploadNecessityCheckStrategy;
+
+@ExtendWith(MockitoExtension.class)
+class SyncAwareBucketTest {
+    private static final int CHECKS_UNTIL_SYNCHRONIZED = 2;
+
+    @Mock
+    private HttpClientBuilder httpClientBuilderMock;
+    @Mock
+    private HttpClient httpClientMock;
+    @Mock
+    private HttpResponse<Object> httpResponseMock;
+    @TempDir
+    private Path tempDir;
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private final DelayedSyncMonitor monitor = new DelayedSyncMonitor();
+    private final ManualSyncMonitor manualMonitor = new ManualSyncMonitor();
+
+    @Test
+    void testPipelinedUploadTransfersNextFileBeforePreviousIsSynchronized() throws Exception {
+        createBucket().uploadFilesPipelined(createFiles("a.txt", "b.txt", "c.txt"), 2);
+        assertThat(this.events.indexOf("upload:b.txt"), lessThan(this.events.indexOf("synced:a.txt")));
+    }
+
+    @Test
+    void testPipelinedUploadReturnsAfterAllFilesAreSynchronized() throws Exception {
+        createBucket().uploadFilesPipelined(createFiles("a.txt", "b.txt", "c.txt", "d.txt"), 2);
+        assertThat(this.events.get(this.events.size() - 1), startsWith("synced:"));
+        assertThat(this.events, hasItems("synced:a.txt", "synced:b.txt", "synced:c.txt", "synced:d.txt"));
+    }
+
+    @Test
+    void testPipelinedUploadLimitsPendingSynchronizations() throws Exception {
+        final int maxPendingSyncs = 2;
+        createBucket().uploadFilesPipelined(createFiles("a.txt", "b.txt", "c.txt", "d.txt", "e.txt"), maxPendingSyncs);
+        int pending = 0;
+        for (final String event : this.events) {
+            pending += event.startsWith("upload:") ? 1 : -1;
+            assertThat(pending, lessThanOrEqualTo(maxPendingSyncs));
+        }
+    }
+
+    @Test
+    void testPipelinedUploadWithDepthOneWaitsForEachFile() throws Exception {
+        createBucket().uploadFilesPipelined(createFiles("a.txt", "b.txt"), 1);
+        assertThat(this.events, contains("upload:a.txt", "synced:a.txt", "upload:b.txt", "synced:b.txt"));
+    }
+
+    @Test
+    void testPipelinedUploadChecksNecessityOfAllFilesAtOnce() throws Exception {
+        final SyncAwareBucket bucket = createBucket();
+        bucket.setUploadNecessityCheckStrategy(new UploadNecessityCheckStrategy() {
+            @Override
+            public boolean isUploadNecessary(final Path file, final String fullFileNameInBucketFs,
+                    final ReadOnlyBucket bucket) {
+                throw new AssertionError("single file check must not be used");
+            }
+
+            @Override
+            public Map<Path, String> filterNecessaryUploads(final Map<Path, String> plannedUploads,
+                    final ReadOnlyBucket bucket) {
+                SyncAwareBucketTest.this.events.add("check:" + plannedUploads.size());
+                final Map<Path, String> necessaryUploads = new LinkedHashMap<>(plannedUploads);
+                necessaryUploads.values().remove("b.txt");
+                return necessaryUploads;
+            }
+        });
+        bucket.uploadFilesPipelined(createFiles("a.txt", "b.txt", "c.txt"), 3);
+        assertThat(this.events, contains("check:3", "upload:a.txt", "upload:c.txt", "synced:a.txt", "synced:c.txt"));
+    }
+
+    @Test
+    void testPipelinedUploadRejectsInvalidDepth() throws Exception {
+        final SyncAwareBucket bucket = SyncAwareBucket.builder() //
+                .monitor(this.monitor) //
+                .stateRetriever(() -> other -> true) //
+                .host("localhost") //
+                .name("default") //
+                .writePassword("write") //
+                .build();
+        final Map<Path, String> files = Map.of();
+        assertThrowsWithMessage(IllegalArgumentException.class, () -> bucket.uploadFilesPipelined(files, 0),
+                startsWith("E-BFSJ-32: Invalid maximum number of pending synchronizations 0."));
+    }
+
+    @Test
+    void testUploadArchiveWaitsUntilAllFilesAreExtracted() throws Exception {
+        final Path archive = createZipArchive("a.txt", "dir/b.txt");
+        final Deque<String> listings = new ArrayDeque<>(List.of("other.txt", //
+                "dir/archive.zip\ndir/archive/a.txt", //
+                "dir/archive.zip\ndir/archive/a.txt\ndir/archive/dir/b.txt"));
+        when(this.httpResponseMock.body()).thenAnswer(invocation -> {
+            this.events.add("list");
+            return listings.size() > 1 ? listings.removeFirst() : listings.getFirst();
+        });
+        createBucket().uploadArchive(archive, "dir/");
+        assertThat(this.events, contains("upload:archive.zip", "synced:dir/archive.zip", "list", "list", "list"));
+    }
+
+    @Test
+    void testUploadArchiveWaitsForMonitorWhenReplacingArchiveWithSameFiles() throws Exception {
+        final Path archive = createZipArchive("a.txt");
+        when(this.httpResponseMock.body()).thenAnswer(invocation -> {
+            this.events.add("list");
+            return "dir/archive.zip\ndir/archive/a.txt";
+        });
+        createBucket().uploadArchive(archive, "dir/");
+        assertThat(this.events, contains("upload:archive.zip", "synced:dir/archive.zip", "list"));
+    }
+
+    @Test
+    void testUploadArchiveRespectsDeadline() throws Exception {
+        final Path archive = createZipArchive("a.txt");
+        when(this.httpClientBuilderMock.build()).thenReturn(this.httpClientMock);
+        when(this.httpClientMock.sendAsync(any(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(this.httpResponseMock));
+        when(this.httpResponseMock.statusCode()).thenReturn(200);
+        final SyncAwareBucket bucket = createBucketWithoutStubs();
+        this.monitor.checks.put("dir/archive.zip", Integer.MIN_VALUE);
+        final Deadline.Scope scope = Deadline.after(Duration.ofMillis(300)).activate();
+        try {
+            assertThrowsWithMessage(TimeoutException.class, () -> bucket.uploadArchive(archive, "dir/"),
+                    startsWith("E-BFSJ-61: Deadline expired while waiting for archive 'dir/archive.zip' to be"
+                            + " extracted in bucket 'bfsdefault/default'."));
+        } finally {
+            scope.close();
+        }
+    }
+
+    @Test
+    void testReadYourWritesServesPendingStringUpload() throws Exception {
+        final SyncAwareBucket bucket = createReadYourWritesBucket();
+        bucket.uploadStringContentNonBlocking("pending content", "config.txt");
+        assertThat(bucket.downloadFileAsString("config.txt"), equalTo("pending content"));
+        verify(this.httpClientMock, times(1)).send(any(), any());
+    }
+
+    @Test
+    void testReadYourWritesServesPendingFileUpload() throws Exception {
+        final SyncAwareBucket bucket = createReadYourWritesBucket();
+        final Path source = Files.writeString(this.tempDir.resolve("source.txt"), "file content");
+        bucket.uploadFileNonBlocking(source, "dir/");
+        final Path target = this.tempDir.resolve("target.txt");
+        bucket.downloadFile("dir/source.txt", target);
+        assertThat(Files.readString(target), equalTo("file content"));
+    }
+
+    @Test
+    void testReadYourWritesReportsSizeOfPendingUpload() throws Exception {
+        final SyncAwareBucket bucket = createReadYourWritesBucket();
+        bucket.uploadStringContentNonBlocking("pending content", "config.txt");
+        assertThat(bucket.getFileSize("config.txt"), equalTo(OptionalLong.of(15)));
+        verify(this.httpClientMock, times(1)).send(any(), any());
+    }
+
+    @Test
+    void testReadYourWritesReadsFromBucketAfterSynchronization() throws Exception {
+        final SyncAwareBucket bucket = createReadYourWritesBucket();
+        when(this.httpResponseMock.body()).thenReturn("remote content");
+        bucket.uploadStringContentNonBlocking("pending content", "config.txt");
+        this.manualMonitor.synchronizedPaths.add("config.txt");
+        assertThat(bucket.downloadFileAsString("config.txt"), equalTo("remote content"));
+    }
+
+    @Test
+    void testReadYourWritesListsPendingUploads() throws Exception {
+        final SyncAwareBucket bucket = createReadYourWritesBucket();
+        when(this.httpResponseMock.body()).thenReturn("dir/existing.txt");
+        bucket.uploadStringContentNonBlocking("pending content", "dir/pending.txt");
+        assertThat(bucket.listContents("dir/"), contains("existing.txt", "pending.txt"));
+    }
+
+    @Test
+    void testReadYourWritesForgetsDeletedFiles() throws Exception {
+        final SyncAwareBucket bucket = createReadYourWritesBucket();
+        when(this.httpResponseMock.body()).thenReturn("remote content");
+        bucket.uploadStringContentNonBlocking("pending content", "config.txt");
+        bucket.deleteFileNonBlocking("config.txt");
+        assertThat(bucket.downloadFileAsString("config.txt"), equalTo("remote content"));
+    }
+
+    @Test
+    void testReadYourWritesForgetsPipelinedUploadsOnceSynchronized() throws Exception {
+        final SyncAwareBucket bucket = createReadYourWritesBucket();
+        when(this.httpResponseMock.body()).thenReturn("remote content");
+        this.manualMonitor.synchronizedPaths.add("dir/");
+        final Path file = Files.writeString(this.tempDir.resolve("a.txt"), "local content");
+        bucket.uploadFilesPipelined(Map.of(file, "dir/"), 1);
+        this.manualMonitor.checkedPaths.clear();
+        assertThat(bucket.downloadFileAsString("dir/a.txt"), equalTo("remote content"));
+        assertThat(this.manualMonitor.checkedPaths, empty());
+    }
+
+    @Test
+    void testReadYourWritesAppendsPendingUploadsToListing() throws Exception {
+        final SyncAwareBucket bucket = createReadYourWritesBucket();
+        when(this.httpResponseMock.body()).thenReturn("dir/z.txt");
+        bucket.uploadStringContentNonBlocking("pending content", "dir/a.txt");
+        assertThat(bucket.listContents("dir/"), contains("z.txt", "a.txt"));
+    }
+
+    @Test
+    void testWithoutReadYourWritesDownloadsFromBucket() throws Exception {
+        final SyncAwareBucket bucket = createBucket();
+        when(this.httpResponseMock.body()).thenReturn("remote content");
+        bucket.uploadStringContentNonBlocking("pending content", "config.txt");
+        assertThat(bucket.downloadFileAsString("config.txt"), equalTo("remote content"));
+    }
+
+    private SyncAwareBucket createReadYourWritesBucket() throws IOException, InterruptedException {
+        stubHttpClient();
+        return new SyncAwareBucket.Builder<>(this.httpClientBuilderMock) //
+                .host("localhost") //
+                .port(2580) //
+                .name("default") //
+                .writePassword("write") //
+                .monitor(this.manualMonitor) //
+                .stateRetriever(() -> other -> true) //
+                .readYourWrites(true) //
+                .build();
+    }
+
+    private Path createZipArchive(final String... entries) throws IOException {
+        final Path archive = this.tempDir.resolve("archive.zip");
+        try (final ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (final String entry : entries) {
+                zip.putNextEntry(new ZipEntry(entry));
+                zip.closeEntry();
+            }
+        }
+        return archive;
+    }
+
+    private Map<Path, String> createFiles(final String... names) throws IOException {
+        final Map<Path, String> files = new LinkedHashMap<>();
+        for (final String name : names) {
+            files.put(Files.writeString(this.tempDir.resolve(name), "content of " + name), name);
+        }
+        return files;
+    }
+
+    private SyncAwareBucket createBucket() throws IOException, InterruptedException {
+        stubHttpClient();
+        return createBucketWithoutStubs();
+    }
+
+    private SyncAwareBucket createBucketWithoutStubs() {
+        return new SyncAwareBucket.Builder<>(this.httpClientBuilderMock) //
+                .host("localhost") //
+                .port(2580) //
+                .name("default") //
+                .writePassword("write") //
+                .monitor(this.monitor) //
+                .stateRetriever(() -> other -> true) //
+                .build();
+    }
+
+    private void stubHttpClient() throws IOException, InterruptedException {
+        when(this.httpClientBuilderMock.build()).thenReturn(this.httpClientMock);
+        when(this.httpClientMock.send(any(), any())).thenAnswer(invocation -> {
+            final HttpRequest request = invocation.getArgument(0);
+            final String path = request.uri().getPath();
+            if (request.method().equals("PUT")) {
+                this.events.add("upload:" + path.substring(path.lastIndexOf('/') + 1));
+            }
+            return this.httpResponseMock;
+        });
+        when(this.httpResponseMock.statusCode()).thenReturn(200);
+    }
+
+    private class DelayedSyncMonitor implements BucketFsMonitor {
+        private final Map<String, Integer> checks = new HashMap<>();
+
+        @Override
+        public boolean isObjectSynchronized(final ReadOnlyBucket bucket, final String pathInBucket,
+                final State state) {
+            final int count = this.checks.merge(pathInBucket, 1, Integer::sum);
+            if (count == CHECKS_UNTIL_SYNCHRONIZED) {
+                SyncAwareBucketTest.this.events.add("synced:" + pathInBucket);
+            }
+            return count >= CHECKS_UNTIL_SYNCHRONIZED;
+        }
+    }
+
+    private static class ManualSyncMonitor implements BucketFsMonitor {
+        private final Set<String> synchronizedPaths = new HashSet<>();
+        private final List<String> checkedPaths = new ArrayList<>();
+
+        @Override
+        public boolean isObjectSynchronized(final ReadOnlyBucket bucket, final String pathInBucket,
+                final State state) {
+            this.checkedPaths.add(pathInBucket);
+            return this.synchronizedPaths.contains(pathInBucket);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.exasol.bucketfs;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.time.*;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+
+class UploadHistoryTest {
+    private static final Duration RETENTION = Duration.ofSeconds(2);
+    private static final int THREADS = 16;
+    private static final int UPLOADS_PER_THREAD = 5000;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-10-20T10:00:00Z"));
+    private final UploadHistory history = new UploadHistory(RETENTION, this.clock);
+
+    @Test
+    void testGetLastUploadOfUnknownPath() {
+        assertThat(this.history.getLastUpload("unknown.txt"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void testRecordUpload() {
+        final Instant recorded = this.history.record("file.txt");
+        assertThat(this.history.getLastUpload("file.txt"), equalTo(Optional.of(recorded)));
+    }
+
+    @Test
+    void testRecordRepeatedUploadKeepsLatest() {
+        this.history.record("file.txt");
+        this.clock.advance(Duration.ofMillis(500));
+        final Instant latest = this.history.record("file.txt");
+        assertThat(this.history.getLastUpload("file.txt"), equalTo(Optional.of(latest)));
+    }
+
+    @Test
+    void testExpiredEntryIsNotReturned() {
+        this.history.record("file.txt");
+        this.clock.advance(RETENTION.plusMillis(1));
+        assertThat(this.history.getLastUpload("file.txt"), equalTo(Optional.empty()));
+        assertThat(this.history.size(), equalTo(0));
+    }
+
+    @Test
+    void testRecordingEvictsExpiredEntries() {
+        this.history.record("a.txt");
+        this.history.record("b.txt");
+        this.clock.advance(RETENTION.plusMillis(1));
+        this.history.record("c.txt");
+        assertThat(this.history.size(), equalTo(1));
+    }
+
+    @Test
+    void testConcurrentUploadsOfUniquePathsStayBounded() throws Exception {
+        runConcurrently(threadIndex -> {
+            for (int i = 0; i < UPLOADS_PER_THREAD; ++i) {
+                this.history.record("thread-" + threadIndex + "/file-" + i);
+            }
+        });
+        assertThat(this.history.size(), equalTo(THREADS * UPLOADS_PER_THREAD));
+        this.clock.advance(RETENTION.plusMillis(1));
+        this.history.record("trigger-eviction");
+        assertThat(this.history.size(), equalTo(1));
+    }
+
+    @Test
+    void testConcurrentUploadsToSamePath() throws Exception {
+        runConcurrently(threadIndex -> {
+            for (int i = 0; i < UPLOADS_PER_THREAD; ++i) {
+                this.history.record("shared.txt");
+                assertThat(this.history.getLastUpload("shared.txt").isPresent(), equalTo(true));
+            }
+        });
+        assertThat(this.history.size(), equalTo(1));
+    }
+
+    @Test
+    void testConcurrentEvictionKeepsHistoryBounded() throws Exception {
+        runConcurrently(threadIndex -> {
+            for (int i = 0; i < UPLOADS_PER_THREAD; ++i) {
+                if (threadIndex == 0) {
+                    this.clock.advance(Duration.ofMillis(1));
+                }
+                this.history.record("thread-" + threadIndex + "/file-" + (i % 100));
+            }
+        });
+        assertThat(this.history.size(), lessThanOrEqualTo(THREADS * 100));
+        this.clock.advance(RETENTION.plusMillis(1));
+        this.history.record("trigger-eviction");
+        assertThat(this.history.size(), equalTo(1));
+    }
+
+    private void runConcurrently(final ThreadTask task) throws InterruptedException, ExecutionException {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[THREADS];
+            for (int threadIndex = 0; threadIndex < THREADS; ++threadIndex) {
+                final int index = threadIndex;
+                futures[threadIndex] = CompletableFuture.runAsync(() -> {
+                    awaitQuietly(start);
+                    task.run(index);
+                }, executor);
+            }
+            start.countDown();
+            CompletableFuture.allOf(futures).get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int threadIndex);
+    }
+
+    static class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(final Instant start) {
+            this.now = start;
+        }
+
+        synchronized void advance(final Duration duration) {
+            this.now = this.now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+    }
+}
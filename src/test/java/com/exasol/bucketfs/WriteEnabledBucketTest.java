@@ -0,0 +1,204 @@
+package com.exasol.bucketfs;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.http.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.exasol.bucketfs.http.HttpClientBuilder;
+
+@ExtendWith(MockitoExtension.class)
+class WriteEnabledBucketTest {
+    private static final int THREADS = 16;
+    private static final int UPLOADS_PER_THREAD = 100;
+
+    @Mock
+    private HttpClientBuilder httpClientBuilderMock;
+    @Mock
+    private HttpClient httpClientMock;
+    @Mock
+    private HttpResponse<Object> httpResponseMock;
+
+    @Test
+    void testConcurrentUploadsRecordHistory() throws Exception {
+        final WriteEnabledBucket bucket = createBucket();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int threadIndex = 0; threadIndex < THREADS; ++threadIndex) {
+                final int index = threadIndex;
+                futures.add(executor.submit(() -> uploadRepeatedly(bucket, index)));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(this.httpClientMock, times(2 * THREADS * UPLOADS_PER_THREAD)).send(any(), any());
+        for (int threadIndex = 0; threadIndex < THREADS; ++threadIndex) {
+            assertThat(bucket.uploadHistory.getLastUpload("thread-" + threadIndex + "/shared.txt").isPresent(),
+                    equalTo(true));
+        }
+    }
+
+    @Test
+    void testChangeListenerIsNotifiedAboutUploadsAndDeletes() throws Exception {
+        final WriteEnabledBucket bucket = createBucket();
+        final List<String> changes = new ArrayList<>();
+        final BucketChangeListener listener = (changedBucket, pathInBucket) -> changes.add(pathInBucket);
+        bucket.addChangeListener(listener);
+        bucket.uploadStringContentNonBlocking("content", "dir/a.txt");
+        bucket.deleteFileNonBlocking("dir/b.txt");
+        bucket.removeChangeListener(listener);
+        bucket.uploadStringContentNonBlocking("content", "dir/c.txt");
+        assertThat(changes, contains("dir/a.txt", "dir/b.txt"));
+    }
+
+    @Test
+    void testSmallUploadSendsBodyImmediately() throws Exception {
+        createBucket().uploadStringContentNonBlocking("content", "a.txt");
+        assertThat(captureSentRequests().get(0).expectContinue(), equalTo(false));
+    }
+
+    @Test
+    void testLargeUploadSendsBodyImmediatelyByDefault() throws Exception {
+        createBucket().uploadStringContentNonBlocking("x".repeat(16 * 1024 * 1024), "a.txt");
+        assertThat(captureSentRequests().get(0).expectContinue(), equalTo(false));
+    }
+
+    @Test
+    void testLargeUploadExpectsContinue() throws Exception {
+        final WriteEnabledBucket bucket = createBucketBuilder().expectContinueThreshold(4).build();
+        bucket.uploadStringContentNonBlocking("content", "a.txt");
+        assertThat(captureSentRequests().get(0).expectContinue(), equalTo(true));
+    }
+
+    @Test
+    void testUploadOfUnknownSizeSendsBodyImmediately() throws Exception {
+        final WriteEnabledBucket bucket = createBucketBuilder().expectContinueThreshold(0).build();
+        bucket.uploadInputStreamNonBlocking(() -> new ByteArrayInputStream(new byte[] { 1, 2, 3 }), "a.bin");
+        assertThat(captureSentRequests().get(0).expectContinue(), equalTo(false));
+    }
+
+    @Test
+    void testWritePermissionPreflightIsCached() throws Exception {
+        final WriteEnabledBucket bucket = createBucketBuilder().writePermissionPreflight(true).build();
+        bucket.uploadStringContentNonBlocking("content", "a.txt");
+        bucket.uploadStringContentNonBlocking("content", "b.txt");
+        final List<HttpRequest> requests = captureSentRequests();
+        assertThat(requests.size(), equalTo(3));
+        assertThat(requests.get(0).method(), equalTo("DELETE"));
+        assertThat(requests.get(0).uri().getPath(), equalTo("/default/.bfsj-write-permission-check"));
+    }
+
+    @Test
+    void testDeniedWritePermissionFailsFast() throws Exception {
+        when(this.httpClientBuilderMock.build()).thenReturn(this.httpClientMock);
+        when(this.httpClientMock.send(any(), any())).thenReturn(this.httpResponseMock);
+        when(this.httpResponseMock.statusCode()).thenReturn(401);
+        final WriteEnabledBucket bucket = new WriteEnabledBucket.Builder<>(this.httpClientBuilderMock) //
+                .host("localhost") //
+                .port(2580) //
+                .name("default") //
+                .writePassword("wrong") //
+                .writePermissionPreflight(true) //
+                .build();
+        final String expectedMessage = "E-BFSJ-59: BucketFS denied write access to bucket 'bfsdefault/default'."
+                + " Check the write password. URI: http://localhost:2580/default/.bfsj-write-permission-check"
+                + " (Status 401)";
+        assertThrowsWithMessage(BucketAccessException.class,
+                () -> bucket.uploadStringContentNonBlocking("content", "a.txt"), expectedMessage);
+        assertThrowsWithMessage(BucketAccessException.class,
+                () -> bucket.uploadStringContentNonBlocking("content", "b.txt"), expectedMessage);
+        verify(this.httpClientMock, times(1)).send(any(), any());
+    }
+
+    @Test
+    void testDeniedWritePermissionExpires() throws Exception {
+        final AtomicLong nanoClock = new AtomicLong();
+        when(this.httpClientBuilderMock.build()).thenReturn(this.httpClientMock);
+        when(this.httpClientMock.send(any(), any())).thenReturn(this.httpResponseMock);
+        when(this.httpResponseMock.statusCode()).thenReturn(403, 404, 200);
+        final WriteEnabledBucket bucket = new WriteEnabledBucket.Builder<>(this.httpClientBuilderMock) //
+                .host("localhost") //
+                .port(2580) //
+                .name("default") //
+                .writePassword("write") //
+                .writePermissionPreflight(true) //
+                .writePermissionDenialExpiry(Duration.ofSeconds(10)) //
+                .nanoClock(nanoClock::get) //
+                .build();
+        assertThrows(BucketAccessException.class, () -> bucket.uploadStringContentNonBlocking("content", "a.txt"));
+        nanoClock.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThrows(BucketAccessException.class, () -> bucket.uploadStringContentNonBlocking("content", "a.txt"));
+        nanoClock.addAndGet(Duration.ofSeconds(1).toNanos());
+        bucket.uploadStringContentNonBlocking("content", "a.txt");
+        verify(this.httpClientMock, times(3)).send(any(), any());
+    }
+
+    @Test
+    void testRejectedUploadResetsConfirmedWritePermission() throws Exception {
+        when(this.httpClientBuilderMock.build()).thenReturn(this.httpClientMock);
+        when(this.httpClientMock.send(any(), any())).thenReturn(this.httpResponseMock);
+        when(this.httpResponseMock.statusCode()).thenReturn(404, 403, 403);
+        final WriteEnabledBucket bucket = new WriteEnabledBucket.Builder<>(this.httpClientBuilderMock) //
+                .host("localhost") //
+                .port(2580) //
+                .name("default") //
+                .writePassword("write") //
+                .writePermissionPreflight(true) //
+                .build();
+        assertThrows(BucketAccessException.class, () -> bucket.uploadStringContentNonBlocking("content", "a.txt"));
+        assertThrows(BucketAccessException.class, () -> bucket.uploadStringContentNonBlocking("content", "a.txt"));
+        final List<HttpRequest> requests = captureSentRequests();
+        assertThat(requests.get(2).method(), equalTo("DELETE"));
+    }
+
+    private List<HttpRequest> captureSentRequests() throws IOException, InterruptedException {
+        final ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(this.httpClientMock, atLeastOnce()).send(requests.capture(), any());
+        return requests.getAllValues();
+    }
+
+    private static Void uploadRepeatedly(final WriteEnabledBucket bucket, final int threadIndex) throws Exception {
+        for (int i = 0; i < UPLOADS_PER_THREAD; ++i) {
+            bucket.uploadStringContentNonBlocking("content " + i, "thread-" + threadIndex + "/shared.txt");
+            bucket.uploadStringContentNonBlocking("content " + i, "thread-" + threadIndex + "/file-" + i + ".txt");
+        }
+        return null;
+    }
+
+    private WriteEnabledBucket createBucket() throws IOException, InterruptedException {
+        return createBucketBuilder().build();
+    }
+
+    private WriteEnabledBucket.Builder<?> createBucketBuilder() throws IOException, InterruptedException {
+        when(this.httpClientBuilderMock.build()).thenReturn(this.httpClientMock);
+        when(this.httpClientMock.send(any(), any())).thenReturn(this.httpResponseMock);
+        when(this.httpResponseMock.statusCode()).thenReturn(200);
+        return new WriteEnabledBucket.Builder<>(this.httpClientBuilderMock) //
+                .host("localhost") //
+                .port(2580) //
+                .name("default") //
+                .writePassword("write");
+    }
+}
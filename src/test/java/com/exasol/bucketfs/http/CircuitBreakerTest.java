@@ -0,0 +1,152 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.exasol.bucketfs.http.CircuitBreaker.State;
+
+class CircuitBreakerTest {
+    private static final URI URI = java.net.URI.create("https://localhost:2581/default/file.txt");
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final List<String> stateChanges = new ArrayList<>();
+
+    @Test
+    void testStaysClosedBelowMinimumCalls() throws Exception {
+        final CircuitBreaker breaker = testee();
+        fail(breaker, 3);
+        assertThat(breaker.getState(), equalTo(State.CLOSED));
+    }
+
+    @Test
+    void testOpensAtFailureRateThreshold() throws Exception {
+        final CircuitBreaker breaker = testee();
+        succeed(breaker, 2);
+        fail(breaker, 2);
+        assertThat(breaker.getState(), equalTo(State.OPEN));
+    }
+
+    @Test
+    void testStaysClosedBelowFailureRateThreshold() throws Exception {
+        final CircuitBreaker breaker = testee();
+        succeed(breaker, 3);
+        fail(breaker, 2);
+        assertThat(breaker.getState(), equalTo(State.CLOSED));
+    }
+
+    @Test
+    void testOnlyRecentCallsCount() throws Exception {
+        final CircuitBreaker breaker = testee();
+        fail(breaker, 3);
+        succeed(breaker, 8);
+        assertThat(breaker.getFailureRate(), equalTo(0.0));
+    }
+
+    @Test
+    void testOpenBreakerRejectsRequests() throws Exception {
+        final CircuitBreaker breaker = openBreaker();
+        assertThrowsWithMessage(CircuitOpenException.class, breaker::acquirePermission,
+                "E-BFSJ-56: Circuit breaker for BucketFS endpoint 'localhost:2581' is open. Check the availability"
+                        + " of the endpoint. The breaker lets requests pass again after PT10S.");
+    }
+
+    @Test
+    void testHalfOpenAfterOpenDurationAllowsOneProbe() throws Exception {
+        final CircuitBreaker breaker = openBreaker();
+        this.nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertDoesNotThrow(breaker::acquirePermission);
+        assertThat(breaker.getState(), equalTo(State.HALF_OPEN));
+        assertThrowsWithMessage(CircuitOpenException.class, breaker::acquirePermission,
+                "E-BFSJ-56: Circuit breaker for BucketFS endpoint 'localhost:2581' is open. Check the availability"
+                        + " of the endpoint. The breaker lets requests pass again after PT10S.");
+    }
+
+    @Test
+    void testSuccessfulProbeClosesBreaker() throws Exception {
+        final CircuitBreaker breaker = openBreaker();
+        this.nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        succeed(breaker, 1);
+        assertThat(breaker.getState(), equalTo(State.CLOSED));
+        assertThat(this.stateChanges, contains("localhost:2581 CLOSED->OPEN", "localhost:2581 OPEN->HALF_OPEN",
+                "localhost:2581 HALF_OPEN->CLOSED"));
+    }
+
+    @Test
+    void testFailedProbeOpensBreakerAgain() throws Exception {
+        final CircuitBreaker breaker = openBreaker();
+        this.nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        fail(breaker, 1);
+        assertThat(breaker.getState(), equalTo(State.OPEN));
+    }
+
+    @Test
+    void testReleasedProbeAllowsNextProbe() throws Exception {
+        final CircuitBreaker breaker = openBreaker();
+        this.nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        breaker.acquirePermission();
+        breaker.release();
+        assertDoesNotThrow(breaker::acquirePermission);
+    }
+
+    @Test
+    void testRegistrySharesBreakerPerEndpoint() {
+        final CircuitBreakerRegistry registry = CircuitBreakerRegistry.builder().build();
+        final CircuitBreaker breaker = registry.getCircuitBreaker(URI);
+        assertThat(registry.getCircuitBreaker(java.net.URI.create("https://localhost:2581/other/file.txt")),
+                equalTo(breaker));
+        assertThat(registry.getCircuitBreaker(java.net.URI.create("https://otherhost:2581/default/file.txt"))
+                .getEndpoint(), equalTo("otherhost:2581"));
+        assertThat(registry.getCircuitBreakers().size(), equalTo(2));
+    }
+
+    @Test
+    void testRejectsInvalidFailureRateThreshold() {
+        assertThrowsWithMessage(IllegalArgumentException.class,
+                () -> CircuitBreakerRegistry.builder().failureRateThreshold(50),
+                "E-BFSJ-57: Invalid circuit breaker failure rate threshold 50.0. Specify a fraction greater than 0"
+                        + " and at most 1.");
+    }
+
+    private CircuitBreaker testee() {
+        return CircuitBreakerRegistry.builder() //
+                .failureRateThreshold(0.5) //
+                .slidingWindowSize(8) //
+                .minimumCalls(4) //
+                .openDuration(Duration.ofSeconds(10)) //
+                .stateListener((endpoint, previousState, newState) -> this.stateChanges
+                        .add(endpoint + " " + previousState + "->" + newState)) //
+                .nanoClock(this.nanoTime::get) //
+                .build() //
+                .getCircuitBreaker(URI);
+    }
+
+    private CircuitBreaker openBreaker() throws CircuitOpenException {
+        final CircuitBreaker breaker = testee();
+        fail(breaker, 4);
+        return breaker;
+    }
+
+    private static void succeed(final CircuitBreaker breaker, final int count) throws CircuitOpenException {
+        for (int i = 0; i < count; ++i) {
+            breaker.acquirePermission();
+            breaker.recordSuccess();
+        }
+    }
+
+    private static void fail(final CircuitBreaker breaker, final int count) throws CircuitOpenException {
+        for (int i = 0; i < count; ++i) {
+            breaker.acquirePermission();
+            breaker.recordFailure();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.exasol.bucketfs.http;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class DeadlineTest {
+    @Test
+    void testNoDeadlineByDefault() {
+        assertThat(Deadline.current(), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void testExpiredDeadlineHasNoRemainingTime() {
+        final Deadline deadline = Deadline.after(Duration.ofMillis(-1));
+        assertThat(deadline.isExpired(), equalTo(true));
+        assertThat(deadline.remaining(), equalTo(Duration.ZERO));
+    }
+
+    @Test
+    void testLimitReturnsShorterDuration() {
+        final Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+        assertThat(deadline.limit(Duration.ofSeconds(1)), equalTo(Duration.ofSeconds(1)));
+        assertThat(deadline.limit(Duration.ofHours(1)), lessThanOrEqualTo(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void testClosingScopeRestoresPreviousDeadline() {
+        final Deadline outer = Deadline.after(Duration.ofMinutes(1));
+        final Deadline inner = Deadline.after(Duration.ofSeconds(1));
+        final Deadline.Scope outerScope = outer.activate();
+        final Deadline.Scope innerScope = inner.activate();
+        assertThat(Deadline.current().orElseThrow(), sameInstance(inner));
+        innerScope.close();
+        assertThat(Deadline.current().orElseThrow(), sameInstance(outer));
+        outerScope.close();
+        assertThat(Deadline.current(), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void testNestedScopeKeepsEarlierDeadline() {
+        final Deadline outer = Deadline.after(Duration.ofSeconds(1));
+        final Deadline.Scope outerScope = outer.activate();
+        final Deadline.Scope innerScope = Deadline.after(Duration.ofMinutes(1)).activate();
+        assertThat(Deadline.current().orElseThrow(), sameInstance(outer));
+        innerScope.close();
+        outerScope.close();
+    }
+}
@@ -46,6 +46,14 @@ class FixedSANCertificateTest {
                 contains(List.of("a", "b"), List.of(2, "host"), List.of(7, "ipAddr")));
     }
 
+    @Test
+    void getSubjectAlternativeNamesIsCalculatedOnce() throws CertificateParsingException {
+        when(delegateMock.getSubjectAlternativeNames()).thenReturn(List.of(List.of("a", "b")));
+        final X509Certificate testee = testee(new SubjectAltName(Type.HOSTNAME, "host"));
+        assertThat(testee.getSubjectAlternativeNames(), sameInstance(testee.getSubjectAlternativeNames()));
+        Mockito.verify(delegateMock, Mockito.times(1)).getSubjectAlternativeNames();
+    }
+
     @Test
     void hasUnsupportedCriticalExtension() {
         when(delegateMock.hasUnsupportedCriticalExtension()).thenReturn(true);
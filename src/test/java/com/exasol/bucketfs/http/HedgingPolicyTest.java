@@ -0,0 +1,84 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class HedgingPolicyTest {
+    @Test
+    void testFixedDelay() {
+        final HedgingPolicy policy = HedgingPolicy.afterDelay(Duration.ofMillis(200), 0.1);
+        recordLatencies(policy, 100, Duration.ofSeconds(1));
+        assertThat(policy.getHedgeDelay(), equalTo(Duration.ofMillis(200)));
+    }
+
+    @Test
+    void testPercentileDelay() {
+        final HedgingPolicy policy = HedgingPolicy.afterPercentile(0.9, Duration.ofMillis(1), 0.1);
+        for (int i = 1; i <= 100; ++i) {
+            policy.recordLatency(Duration.ofMillis(i));
+        }
+        assertThat(policy.getHedgeDelay(), equalTo(Duration.ofMillis(90)));
+    }
+
+    @Test
+    void testPercentileDelayIsAtLeastMinimumDelay() {
+        final HedgingPolicy policy = HedgingPolicy.afterPercentile(0.9, Duration.ofMillis(50), 0.1);
+        recordLatencies(policy, 100, Duration.ofMillis(5));
+        assertThat(policy.getHedgeDelay(), equalTo(Duration.ofMillis(50)));
+    }
+
+    @Test
+    void testMinimumDelayAppliesUntilEnoughLatenciesAreKnown() {
+        final HedgingPolicy policy = HedgingPolicy.afterPercentile(0.9, Duration.ofMillis(50), 0.1);
+        recordLatencies(policy, 3, Duration.ofSeconds(1));
+        assertThat(policy.getHedgeDelay(), equalTo(Duration.ofMillis(50)));
+    }
+
+    @Test
+    void testPercentileUsesRecentLatencies() {
+        final HedgingPolicy policy = HedgingPolicy.afterPercentile(0.5, Duration.ZERO, 0.1);
+        recordLatencies(policy, 200, Duration.ofSeconds(1));
+        recordLatencies(policy, 200, Duration.ofMillis(10));
+        assertThat(policy.getHedgeDelay(), equalTo(Duration.ofMillis(10)));
+    }
+
+    @Test
+    void testBudgetLimitsHedges() {
+        final HedgingPolicy policy = HedgingPolicy.afterDelay(Duration.ofMillis(10), 0.05);
+        int hedges = 0;
+        for (int i = 0; i < 100; ++i) {
+            policy.recordRequest();
+            if (policy.tryAcquireHedge()) {
+                ++hedges;
+            }
+        }
+        assertThat(hedges, equalTo(5));
+    }
+
+    @Test
+    void testRejectsInvalidBudget() {
+        assertThrowsWithMessage(IllegalArgumentException.class,
+                () -> HedgingPolicy.afterDelay(Duration.ofMillis(10), 5.0),
+                "E-BFSJ-55: Invalid hedging 'budget' 5.0. Specify a fraction between 0 and 1, e.g. 0.05 for five"
+                        + " percent.");
+    }
+
+    @Test
+    void testRejectsInvalidPercentile() {
+        assertThrowsWithMessage(IllegalArgumentException.class,
+                () -> HedgingPolicy.afterPercentile(95, Duration.ofMillis(10), 0.05),
+                "E-BFSJ-55: Invalid hedging 'percentile' 95.0. Specify a fraction between 0 and 1, e.g. 0.05 for"
+                        + " five percent.");
+    }
+
+    private static void recordLatencies(final HedgingPolicy policy, final int count, final Duration latency) {
+        for (int i = 0; i < count; ++i) {
+            policy.recordLatency(latency);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.exasol.bucketfs.http;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Mockito.mock;
 
 import java.net.http.HttpClient;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -81,4 +86,45 @@ class HttpClientBuilderTest {
         ExceptionAssertions.assertThrowsWithMessage(IllegalStateException.class, builder::build,
                 "E-BFSJ-31: Using alternative subject names requires configuring a certificate. Either specify a certificate or remove the alternative subject names.");
     }
+
+    @Test
+    void testBuildWithPinnedCertificate() {
+        final HttpClientBuilder builder = new HttpClientBuilder() //
+                .certificate(mock(X509Certificate.class)) //
+                .pinCertificate(true) //
+                .allowAlternativeHostName("altHost");
+        assertThat(builder.build(), notNullValue());
+    }
+
+    @Test
+    void testBuildWithPinnedCertificateWithoutCertificateFails() {
+        final HttpClientBuilder builder = new HttpClientBuilder().pinCertificate(true);
+        ExceptionAssertions.assertThrowsWithMessage(IllegalStateException.class, builder::build,
+                "E-BFSJ-50: Pinning a certificate requires configuring a certificate."
+                        + " Either specify a certificate or disable certificate pinning.");
+    }
+
+    @Test
+    void testBuildWithClientOptions() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final HttpClient client = new HttpClientBuilder() //
+                .executor(executor) //
+                .connectTimeout(Duration.ofSeconds(3)) //
+                .version(HttpClient.Version.HTTP_1_1) //
+                .followRedirects(HttpClient.Redirect.NORMAL) //
+                .build();
+        assertThat(client.executor(), equalTo(Optional.of(executor)));
+        assertThat(client.connectTimeout(), equalTo(Optional.of(Duration.ofSeconds(3))));
+        assertThat(client.version(), equalTo(HttpClient.Version.HTTP_1_1));
+        assertThat(client.followRedirects(), equalTo(HttpClient.Redirect.NORMAL));
+        executor.shutdown();
+    }
+
+    @Test
+    void testBuildWithJdkDefaults() {
+        final HttpClient client = new HttpClientBuilder().build();
+        assertThat(client.connectTimeout(), equalTo(Optional.empty()));
+        assertThat(client.version(), equalTo(HttpClient.Version.HTTP_2));
+        assertThat(client.followRedirects(), equalTo(HttpClient.Redirect.NEVER));
+    }
 }
@@ -0,0 +1,79 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.exasol.bucketfs.ReadOnlyBucket;
+import com.exasol.bucketfs.WriteEnabledBucket;
+
+class HttpClientRegistryTest {
+    private final HttpClientRegistry registry = new HttpClientRegistry();
+
+    @Test
+    void testSameConfigurationSharesClient() {
+        assertThat(this.registry.getClient(new HttpClientBuilder().raiseTlsErrors(false)),
+                sameInstance(this.registry.getClient(new HttpClientBuilder().raiseTlsErrors(false))));
+        assertThat(this.registry.size(), equalTo(1));
+    }
+
+    @Test
+    void testDifferentConfigurationUsesSeparateClients() {
+        assertThat(this.registry.getClient(new HttpClientBuilder().raiseTlsErrors(false)),
+                not(sameInstance(this.registry.getClient(new HttpClientBuilder().raiseTlsErrors(true)))));
+    }
+
+    @Test
+    void testDifferentAltNamesUseSeparateClients() {
+        final X509Certificate certificate = mock(X509Certificate.class);
+        this.registry.getClient(new HttpClientBuilder().certificate(certificate).allowAlternativeHostName("a"));
+        this.registry.getClient(new HttpClientBuilder().certificate(certificate).allowAlternativeHostName("a"));
+        this.registry.getClient(new HttpClientBuilder().certificate(certificate).allowAlternativeHostName("b"));
+        assertThat(this.registry.size(), equalTo(2));
+    }
+
+    @Test
+    void testDifferentTimeoutsUseSeparateClients() {
+        this.registry.getClient(new HttpClientBuilder().connectTimeout(Duration.ofSeconds(1)));
+        this.registry.getClient(new HttpClientBuilder().connectTimeout(Duration.ofSeconds(1)));
+        this.registry.getClient(new HttpClientBuilder().connectTimeout(Duration.ofSeconds(2)));
+        assertThat(this.registry.size(), equalTo(2));
+    }
+
+    @Test
+    void testInvalidConfigurationIsNotRegistered() {
+        final HttpClientBuilder builder = new HttpClientBuilder().raiseTlsErrors(false)
+                .certificate(mock(X509Certificate.class));
+        assertThrowsWithMessage(IllegalStateException.class, () -> this.registry.getClient(builder),
+                "E-BFSJ-27: Setting raiseTlsErrors to false and using a certificate is mutually exclusive."
+                        + " Either set raiseTlsErrors to true or remove the certificate.");
+        assertThat(this.registry.size(), equalTo(0));
+    }
+
+    @Test
+    void testClear() {
+        this.registry.getClient(new HttpClientBuilder());
+        this.registry.clear();
+        assertThat(this.registry.size(), equalTo(0));
+    }
+
+    @Test
+    void testBucketsShareClient() {
+        final ReadOnlyBucket first = createBucket("first");
+        final ReadOnlyBucket second = createBucket("second");
+        assertThat(first.getHttpClient(), sameInstance(second.getHttpClient()));
+    }
+
+    private ReadOnlyBucket createBucket(final String name) {
+        return WriteEnabledBucket.builder().host("localhost").port(2580).name(name).writePassword("secret")
+                .httpClientRegistry(this.registry).build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.exasol.bucketfs.http;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LazyHttpClientTest {
+    private final HttpClient delegate = mock(HttpClient.class);
+    private final AtomicInteger createdClients = new AtomicInteger();
+    private final LazyHttpClient lazyClient = new LazyHttpClient(() -> {
+        this.createdClients.incrementAndGet();
+        return this.delegate;
+    });
+
+    @Test
+    void testDoesNotCreateClientBeforeFirstUse() {
+        assertThat(this.lazyClient.isInitialized(), equalTo(false));
+        assertThat(this.createdClients.get(), equalTo(0));
+    }
+
+    @Test
+    void testCreatesClientOnce() {
+        when(this.delegate.version()).thenReturn(HttpClient.Version.HTTP_1_1);
+        this.lazyClient.version();
+        this.lazyClient.version();
+        assertThat(this.createdClients.get(), equalTo(1));
+        assertThat(this.lazyClient.getDelegate(), sameInstance(this.delegate));
+    }
+
+    @Test
+    void testDelegatesCalls() {
+        when(this.delegate.version()).thenReturn(HttpClient.Version.HTTP_1_1);
+        assertThat(this.lazyClient.version(), equalTo(HttpClient.Version.HTTP_1_1));
+    }
+}
@@ -0,0 +1,106 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.exasol.bucketfs.http.NodeSelector.Node;
+import com.exasol.bucketfs.http.NodeSelector.Strategy;
+
+class NodeSelectorTest {
+    private static final List<String> HOSTS = List.of("node-1", "node-2", "node-3");
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void testRoundRobinUsesNodesInTurn() {
+        final NodeSelector selector = testee(Strategy.ROUND_ROBIN, 1);
+        assertThat(selectHosts(selector, 4), contains("node-1", "node-2", "node-3", "node-1"));
+    }
+
+    @Test
+    void testLeastOutstandingPrefersIdleNode() {
+        final NodeSelector selector = testee(Strategy.LEAST_OUTSTANDING, 1);
+        selector.getNodes().get(0).requestStarted();
+        selector.getNodes().get(1).requestStarted();
+        assertThat(selector.select().getHost(), equalTo("node-3"));
+    }
+
+    @Test
+    void testNodeIsEjectedAfterConsecutiveFailures() {
+        final NodeSelector selector = testee(Strategy.ROUND_ROBIN, 2);
+        fail(selector.getNodes().get(0));
+        assertThat(selector.getNodes().get(0).isAvailable(), equalTo(true));
+        fail(selector.getNodes().get(0));
+        assertThat(selectHosts(selector, 3), contains("node-2", "node-3", "node-2"));
+    }
+
+    @Test
+    void testSuccessResetsFailures() {
+        final NodeSelector selector = testee(Strategy.ROUND_ROBIN, 2);
+        final Node node = selector.getNodes().get(0);
+        fail(node);
+        node.requestStarted();
+        node.requestSucceeded();
+        fail(node);
+        assertThat(node.isAvailable(), equalTo(true));
+    }
+
+    @Test
+    void testEjectedNodeReturnsAfterEjectionDuration() {
+        final NodeSelector selector = testee(Strategy.ROUND_ROBIN, 1);
+        final Node node = selector.getNodes().get(0);
+        fail(node);
+        this.nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(node.isAvailable(), equalTo(true));
+    }
+
+    @Test
+    void testUsesNodeReturningFirstIfAllNodesAreEjected() {
+        final NodeSelector selector = testee(Strategy.ROUND_ROBIN, 1);
+        fail(selector.getNodes().get(1));
+        this.nanoTime.addAndGet(1);
+        fail(selector.getNodes().get(0));
+        fail(selector.getNodes().get(2));
+        assertThat(selector.select().getHost(), equalTo("node-2"));
+    }
+
+    @Test
+    void testResolveReplacesHost() {
+        final URI uri = URI.create("https://primary:2581/default/dir%20name/file.txt?x=1");
+        assertThat(NodeSelector.resolve(uri, testee(Strategy.ROUND_ROBIN, 1).getNodes().get(1)),
+                equalTo(URI.create("https://node-2:2581/default/dir%20name/file.txt?x=1")));
+    }
+
+    @Test
+    void testRequiresHosts() {
+        assertThrowsWithMessage(IllegalArgumentException.class,
+                () -> new NodeSelector(List.of(), Strategy.ROUND_ROBIN, 1, Duration.ofSeconds(1)),
+                "E-BFSJ-54: Node selection requires at least one host.");
+    }
+
+    private NodeSelector testee(final Strategy strategy, final int failureThreshold) {
+        return new NodeSelector(HOSTS, strategy, failureThreshold, Duration.ofSeconds(10), this.nanoTime::get);
+    }
+
+    private static List<String> selectHosts(final NodeSelector selector, final int count) {
+        final List<String> hosts = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            hosts.add(selector.select().getHost());
+        }
+        return hosts;
+    }
+
+    private static void fail(final Node node) {
+        node.requestStarted();
+        node.requestFailed();
+    }
+}
@@ -0,0 +1,126 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.cert.*;
+import java.util.List;
+
+import javax.net.ssl.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.exasol.bucketfs.http.SubjectAltName.Type;
+
+class PinnedCertificateTrustManagerTest {
+    private static X509Certificate pinnedCertificate;
+    private static X509Certificate otherCertificate;
+
+    @BeforeAll
+    static void readCertificates() throws IOException, CertificateException {
+        pinnedCertificate = readCertificate("self-signed.pem");
+        otherCertificate = readCertificate("other-self-signed.pem");
+    }
+
+    private static X509Certificate readCertificate(final String name) throws IOException, CertificateException {
+        try (InputStream stream = PinnedCertificateTrustManagerTest.class
+                .getResourceAsStream("/certificates/" + name)) {
+            return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(stream);
+        }
+    }
+
+    @Test
+    void acceptsPinnedCertificate() {
+        assertDoesNotThrow(() -> testee().checkServerTrusted(chain(pinnedCertificate), "RSA"));
+    }
+
+    @Test
+    void rejectsOtherCertificate() {
+        assertThrowsWithMessage(CertificateException.class,
+                () -> testee().checkServerTrusted(chain(otherCertificate), "RSA"),
+                "E-BFSJ-47: Server certificate does not match pinned certificate with subject 'CN=exasol-db'."
+                        + " Configure the certificate the server actually uses.");
+    }
+
+    @Test
+    void rejectsEmptyChain() {
+        assertThrowsWithMessage(CertificateException.class,
+                () -> testee().checkServerTrusted(new X509Certificate[0], "RSA"),
+                "E-BFSJ-47: Server certificate does not match pinned certificate with subject 'CN=exasol-db'."
+                        + " Configure the certificate the server actually uses.");
+    }
+
+    @Test
+    void acceptsHostNameFromCertificate() {
+        assertDoesNotThrow(
+                () -> testee().checkServerTrusted(chain(pinnedCertificate), "RSA", engine("exasol-db", "HTTPS")));
+    }
+
+    @Test
+    void rejectsUnknownHostName() {
+        assertThrowsWithMessage(CertificateException.class,
+                () -> testee().checkServerTrusted(chain(pinnedCertificate), "RSA", engine("localhost", "HTTPS")),
+                "E-BFSJ-48: Pinned certificate is not valid for host 'localhost'. Allow the host name as alternative"
+                        + " name or connect with a host name from the certificate.");
+    }
+
+    @Test
+    void acceptsAlternativeHostName() {
+        final X509ExtendedTrustManager trustManager = (X509ExtendedTrustManager) SubjectAltNameTrustManager
+                .wrap(testee(), List.of(new SubjectAltName(Type.HOSTNAME, "localhost")));
+        assertDoesNotThrow(() -> trustManager.checkServerTrusted(chain(pinnedCertificate), "RSA",
+                engine("localhost", "HTTPS")));
+    }
+
+    @Test
+    void acceptsAlternativeIpAddress() {
+        final X509ExtendedTrustManager trustManager = (X509ExtendedTrustManager) SubjectAltNameTrustManager
+                .wrap(testee(), List.of(new SubjectAltName(Type.IP, "127.0.0.1")));
+        assertDoesNotThrow(() -> trustManager.checkServerTrusted(chain(pinnedCertificate), "RSA",
+                engine("127.0.0.1", "HTTPS")));
+    }
+
+    @Test
+    void skipsHostNameCheckWithoutEndpointIdentification() {
+        assertDoesNotThrow(
+                () -> testee().checkServerTrusted(chain(pinnedCertificate), "RSA", engine("localhost", null)));
+    }
+
+    @Test
+    void rejectsClientCertificates() {
+        assertThrowsWithMessage(CertificateException.class,
+                () -> testee().checkClientTrusted(chain(pinnedCertificate), "RSA"),
+                "E-BFSJ-49: Pinned certificate trust manager does not verify client certificates.");
+    }
+
+    @Test
+    void acceptedIssuersContainPinnedCertificate() {
+        assertThat(testee().getAcceptedIssuers(), arrayContaining(pinnedCertificate));
+    }
+
+    private static X509ExtendedTrustManager testee() {
+        return new PinnedCertificateTrustManager(pinnedCertificate);
+    }
+
+    private static X509Certificate[] chain(final X509Certificate certificate) {
+        return new X509Certificate[] { certificate };
+    }
+
+    private static SSLEngine engine(final String peerHost, final String endpointIdentificationAlgorithm) {
+        final SSLEngine engine = mock(SSLEngine.class);
+        final SSLSession session = mock(SSLSession.class);
+        final SSLParameters parameters = new SSLParameters();
+        parameters.setEndpointIdentificationAlgorithm(endpointIdentificationAlgorithm);
+        when(engine.getSSLParameters()).thenReturn(parameters);
+        when(engine.getHandshakeSession()).thenReturn(session);
+        when(session.getPeerHost()).thenReturn(peerHost);
+        return engine;
+    }
+}
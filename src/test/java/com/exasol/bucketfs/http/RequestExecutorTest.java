@@ -0,0 +1,230 @@
+package com.exasol.bucketfs.http;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.*;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class RequestExecutorTest {
+    private static final URI URI = java.net.URI.create("http://localhost:2580/default/file.txt");
+    private final HttpClient client = mock(HttpClient.class);
+    private final RequestExecutor executor = new RequestExecutor(this.client);
+
+    @Test
+    void testSendsSynchronouslyWithoutTotalTimeout() throws Exception {
+        final HttpResponse<String> response = mockResponse();
+        when(this.client.send(any(), any())).thenAnswer(invocation -> response);
+        assertThat(this.executor.send(HttpRequest.newBuilder(URI), BodyHandlers.ofString(), RequestTimeouts.none()),
+                sameInstance(response));
+        verify(this.client, never()).sendAsync(any(), any());
+    }
+
+    @Test
+    void testSetsFirstByteTimeoutOnRequest() throws Exception {
+        this.executor.send(HttpRequest.newBuilder(URI), BodyHandlers.ofString(),
+                RequestTimeouts.none().withFirstByteTimeout(Duration.ofSeconds(3)));
+        assertThat(captureSentRequest().timeout(), equalTo(Optional.of(Duration.ofSeconds(3))));
+    }
+
+    @Test
+    void testTotalTimeoutCancelsRequest() {
+        final CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        when(this.client.sendAsync(any(), any())).thenAnswer(invocation -> pending);
+        final HttpTimeoutException exception = assertThrows(HttpTimeoutException.class,
+                () -> this.executor.send(HttpRequest.newBuilder(URI), BodyHandlers.ofString(),
+                        RequestTimeouts.none().withTotalTimeout(Duration.ofMillis(50))));
+        assertThat(exception.getMessage(), equalTo("E-BFSJ-52: Request http://localhost:2580/default/file.txt GET"
+                + " did not complete within PT0.05S."));
+        assertThat(pending.isCancelled(), equalTo(true));
+    }
+
+    @Test
+    void testTotalTimeoutReturnsResponse() throws Exception {
+        final HttpResponse<String> response = mockResponse();
+        when(this.client.sendAsync(any(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(response));
+        assertThat(this.executor.send(HttpRequest.newBuilder(URI), BodyHandlers.ofString(),
+                RequestTimeouts.none().withTotalTimeout(Duration.ofSeconds(10))), sameInstance(response));
+    }
+
+    @Test
+    void testAsynchronousIoExceptionIsUnwrapped() {
+        final ConnectException cause = new ConnectException("refused");
+        when(this.client.sendAsync(any(), any()))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(cause));
+        final IOException exception = assertThrows(IOException.class,
+                () -> this.executor.send(HttpRequest.newBuilder(URI), BodyHandlers.ofString(),
+                        RequestTimeouts.none().withTotalTimeout(Duration.ofSeconds(10))));
+        assertThat(exception, sameInstance(cause));
+    }
+
+    @Test
+    void testExpiredDeadlineFailsWithoutSending() {
+        final Deadline.Scope scope = Deadline.after(Duration.ZERO).activate();
+        try {
+            assertThrowsWithMessage(HttpTimeoutException.class,
+                    () -> this.executor.send(HttpRequest.newBuilder(URI), BodyHandlers.ofString(),
+                            RequestTimeouts.none()),
+                    "E-BFSJ-51: Deadline expired before sending request http://localhost:2580/default/file.txt GET.");
+        } finally {
+            scope.close();
+        }
+        verifyNoInteractions(this.client);
+    }
+
+    @Test
+    void testDeadlineLimitsTimeouts() throws Exception {
+        final HttpResponse<String> response = mockResponse();
+        when(this.client.sendAsync(any(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(response));
+        final Deadline.Scope scope = Deadline.after(Duration.ofSeconds(5)).activate();
+        try {
+            this.executor.send(HttpRequest.newBuilder(URI), BodyHandlers.ofString(),
+                    RequestTimeouts.none().withFirstByteTimeout(Duration.ofMinutes(1)));
+        } finally {
+            scope.close();
+        }
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(this.client).sendAsync(request.capture(), any());
+        assertThat(request.getValue().timeout().orElseThrow(), lessThanOrEqualTo(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testSendsRequestToSelectedNode() throws Exception {
+        final NodeSelector selector = new NodeSelector(List.of("node-1", "node-2"),
+                NodeSelector.Strategy.ROUND_ROBIN, 1, Duration.ofMinutes(1));
+        final HttpResponse<String> response = mockResponse();
+        when(response.statusCode()).thenReturn(200);
+        when(this.client.send(any(), any())).thenAnswer(invocation -> response);
+        RequestExecutor.builder(this.client).nodeSelector(selector).build().send(HttpRequest.newBuilder(URI),
+                BodyHandlers.ofString(), RequestTimeouts.none());
+        assertThat(captureSentRequest().uri(), equalTo(java.net.URI.create("http://node-1:2580/default/file.txt")));
+    }
+
+    @Test
+    void testServerErrorEjectsNode() throws Exception {
+        final NodeSelector selector = new NodeSelector(List.of("node-1", "node-2"),
+                NodeSelector.Strategy.ROUND_ROBIN, 1, Duration.ofMinutes(1));
+        final HttpResponse<String> response = mockResponse();
+        when(response.statusCode()).thenReturn(503);
+        when(this.client.send(any(), any())).thenAnswer(invocation -> response);
+        RequestExecutor.builder(this.client).nodeSelector(selector).build().send(HttpRequest.newBuilder(URI),
+                BodyHandlers.ofString(), RequestTimeouts.none());
+        assertThat(selector.getNodes().get(0).isAvailable(), equalTo(false));
+    }
+
+    @Test
+    void testConnectionFailureEjectsNode() throws Exception {
+        final NodeSelector selector = new NodeSelector(List.of("node-1", "node-2"),
+                NodeSelector.Strategy.ROUND_ROBIN, 1, Duration.ofMinutes(1));
+        when(this.client.send(any(), any())).thenThrow(new ConnectException("refused"));
+        final RequestExecutor balancingExecutor = RequestExecutor.builder(this.client).nodeSelector(selector).build();
+        assertThrows(ConnectException.class, () -> balancingExecutor.send(HttpRequest.newBuilder(URI),
+                BodyHandlers.ofString(), RequestTimeouts.none()));
+        assertThat(selector.getNodes().get(0).isAvailable(), equalTo(false));
+        assertThat(selector.getNodes().get(0).getOutstandingRequests(), equalTo(0));
+    }
+
+    @Test
+    void testHedgedRequestReturnsFastResponseWithoutHedging() throws Exception {
+        final HttpResponse<String> response = mockResponse();
+        when(this.client.sendAsync(any(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(response));
+        final RequestExecutor hedgingExecutor = RequestExecutor.builder(this.client)
+                .hedgingPolicy(HedgingPolicy.afterDelay(Duration.ofSeconds(10), 1.0)).build();
+        assertThat(hedgingExecutor.sendHedged(HttpRequest.newBuilder(URI), BodyHandlers.ofString(),
+                RequestTimeouts.none()), sameInstance(response));
+        verify(this.client, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testSlowRequestIsHedged() throws Exception {
+        final CompletableFuture<HttpResponse<String>> stalled = new CompletableFuture<>();
+        final HttpResponse<String> hedgeResponse = mockResponse();
+        when(this.client.sendAsync(any(), any())) //
+                .thenAnswer(invocation -> stalled) //
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(hedgeResponse));
+        final RequestExecutor hedgingExecutor = RequestExecutor.builder(this.client)
+                .hedgingPolicy(HedgingPolicy.afterDelay(Duration.ofMillis(10), 1.0)).build();
+        assertThat(hedgingExecutor.sendHedged(HttpRequest.newBuilder(URI), BodyHandlers.ofString(),
+                RequestTimeouts.none()), sameInstance(hedgeResponse));
+        assertThat(stalled.isCancelled(), equalTo(true));
+    }
+
+    @Test
+    void testHedgeRespectsBudget() {
+        final CompletableFuture<HttpResponse<String>> stalled = new CompletableFuture<>();
+        when(this.client.sendAsync(any(), any())).thenAnswer(invocation -> stalled);
+        final RequestExecutor hedgingExecutor = RequestExecutor.builder(this.client)
+                .hedgingPolicy(HedgingPolicy.afterDelay(Duration.ofMillis(10), 0.5)).build();
+        assertThrows(HttpTimeoutException.class, () -> hedgingExecutor.sendHedged(HttpRequest.newBuilder(URI),
+                BodyHandlers.ofString(), RequestTimeouts.none().withTotalTimeout(Duration.ofMillis(50))));
+        verify(this.client, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testHedgeGoesToNextNode() throws Exception {
+        final NodeSelector selector = new NodeSelector(List.of("node-1", "node-2"),
+                NodeSelector.Strategy.ROUND_ROBIN, 1, Duration.ofMinutes(1));
+        final CompletableFuture<HttpResponse<String>> stalled = new CompletableFuture<>();
+        final HttpResponse<String> hedgeResponse = mockResponse();
+        when(hedgeResponse.statusCode()).thenReturn(200);
+        when(this.client.sendAsync(any(), any())) //
+                .thenAnswer(invocation -> stalled) //
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(hedgeResponse));
+        RequestExecutor.builder(this.client).nodeSelector(selector)
+                .hedgingPolicy(HedgingPolicy.afterDelay(Duration.ofMillis(10), 1.0)).build()
+                .sendHedged(HttpRequest.newBuilder(URI), BodyHandlers.ofString(), RequestTimeouts.none());
+        final ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(this.client, times(2)).sendAsync(requests.capture(), any());
+        assertThat(requests.getAllValues().get(1).uri().getHost(), equalTo("node-2"));
+        assertThat(selector.getNodes().get(0).getOutstandingRequests(), equalTo(0));
+    }
+
+    @Test
+    void testOpenCircuitFailsWithoutSending() throws Exception {
+        final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.builder().minimumCalls(1).build();
+        final HttpResponse<String> response = mockResponse();
+        when(response.statusCode()).thenReturn(503);
+        when(this.client.send(any(), any())).thenAnswer(invocation -> response);
+        final RequestExecutor guardedExecutor = RequestExecutor.builder(this.client).circuitBreakers(circuitBreakers)
+                .build();
+        guardedExecutor.send(HttpRequest.newBuilder(URI), BodyHandlers.ofString(), RequestTimeouts.none());
+        final CircuitOpenException exception = assertThrows(CircuitOpenException.class,
+                () -> guardedExecutor.send(HttpRequest.newBuilder(URI), BodyHandlers.ofString(),
+                        RequestTimeouts.none()));
+        assertThat(exception.getEndpoint(), equalTo("localhost:2580"));
+        verify(this.client, times(1)).send(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> mockResponse() {
+        return mock(HttpResponse.class);
+    }
+
+    private HttpRequest captureSentRequest() throws Exception {
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(this.client).send(request.capture(), any());
+        return request.getValue();
+    }
+}
@@ -0,0 +1,96 @@
+package com.exasol.bucketfs.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.*;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.exasol.bucketfs.http.SubjectAltName.Type;
+
+/**
+ * Measures the trust check of a server certificate during the TLS handshake with and without additional subject
+ * alternative names and with a pinned certificate.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.exasol.bucketfs.http.SubjectAltNameTrustManagerBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubjectAltNameTrustManagerBenchmark {
+    private static final List<SubjectAltName> ALT_NAMES = List.of(new SubjectAltName(Type.HOSTNAME, "localhost"),
+            new SubjectAltName(Type.IP, "127.0.0.1"));
+    private X509Certificate[] chain;
+    private X509ExtendedTrustManager plainTrustManager;
+    private X509ExtendedTrustManager altNameTrustManager;
+    private X509ExtendedTrustManager pinnedTrustManager;
+
+    @Setup
+    public void createTrustManagers() throws IOException, GeneralSecurityException {
+        final X509Certificate certificate = readCertificate();
+        this.chain = new X509Certificate[] { certificate };
+        final KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        keyStore.load(null);
+        keyStore.setCertificateEntry("caCert", certificate);
+        final TrustManagerFactory factory = TrustManagerFactory
+                .getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        factory.init(keyStore);
+        this.plainTrustManager = (X509ExtendedTrustManager) factory.getTrustManagers()[0];
+        this.altNameTrustManager = (X509ExtendedTrustManager) SubjectAltNameTrustManager
+                .wrap(this.plainTrustManager, ALT_NAMES);
+        this.pinnedTrustManager = (X509ExtendedTrustManager) SubjectAltNameTrustManager
+                .wrap(new PinnedCertificateTrustManager(certificate), ALT_NAMES);
+    }
+
+    private static X509Certificate readCertificate() throws IOException, CertificateException {
+        try (InputStream stream = SubjectAltNameTrustManagerBenchmark.class
+                .getResourceAsStream("/certificates/self-signed.pem")) {
+            return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(stream);
+        }
+    }
+
+    @Benchmark
+    public X509Certificate[] withoutAlternativeNames() throws CertificateException {
+        this.plainTrustManager.checkServerTrusted(this.chain, "RSA");
+        return this.chain;
+    }
+
+    @Benchmark
+    public X509Certificate[] withAlternativeNames() throws CertificateException {
+        this.altNameTrustManager.checkServerTrusted(this.chain, "RSA");
+        return this.chain;
+    }
+
+    @Benchmark
+    public X509Certificate[] pinnedWithAlternativeNames() throws CertificateException {
+        this.pinnedTrustManager.checkServerTrusted(this.chain, "RSA");
+        return this.chain;
+    }
+
+    // Behavior before caching: a new wrapper for each handshake that collects the names again.
+    @Benchmark
+    public Object newFixedCertificatePerHandshake() throws CertificateException {
+        final FixedSANCertificate certificate = new FixedSANCertificate(this.chain[0], ALT_NAMES);
+        this.plainTrustManager.checkServerTrusted(new X509Certificate[] { certificate }, "RSA");
+        return certificate.getSubjectAlternativeNames();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SubjectAltNameTrustManagerBenchmark.class.getSimpleName()).build())
+                .run();
+    }
+}
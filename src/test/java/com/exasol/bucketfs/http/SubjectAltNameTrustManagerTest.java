@@ -8,6 +8,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -85,6 +87,32 @@ class SubjectAltNameTrustManagerTest {
         return arg.getValue();
     }
 
+    @Test
+    void checkServerTrustedReusesFixedCertificate(@Mock final X509Certificate cert1Mock) throws CertificateException {
+        final X509ExtendedTrustManager testee = testee(ALT_NAME_HOST);
+        testee.checkServerTrusted(new X509Certificate[] { cert1Mock }, "authType");
+        testee.checkServerTrusted(new X509Certificate[] { cert1Mock }, "authType");
+        final ArgumentCaptor<X509Certificate[]> arg = ArgumentCaptor.forClass(X509Certificate[].class);
+        verify(delegateMock, times(2)).checkServerTrusted(arg.capture(), same("authType"));
+        assertThat(arg.getAllValues().get(1)[0], sameInstance(arg.getAllValues().get(0)[0]));
+    }
+
+    @Test
+    void checkServerTrustedEvictsLeastRecentlyUsedCertificate() throws CertificateException {
+        final X509ExtendedTrustManager testee = testee(ALT_NAME_HOST);
+        final X509Certificate first = mock(X509Certificate.class);
+        testee.checkServerTrusted(new X509Certificate[] { first }, "authType");
+        for (int i = 0; i < SubjectAltNameTrustManager.MAX_CACHED_CERTIFICATES; ++i) {
+            testee.checkServerTrusted(new X509Certificate[] { mock(X509Certificate.class) }, "authType");
+        }
+        testee.checkServerTrusted(new X509Certificate[] { first }, "authType");
+        final ArgumentCaptor<X509Certificate[]> arg = ArgumentCaptor.forClass(X509Certificate[].class);
+        verify(delegateMock, times(SubjectAltNameTrustManager.MAX_CACHED_CERTIFICATES + 2))
+                .checkServerTrusted(arg.capture(), same("authType"));
+        final List<X509Certificate[]> chains = arg.getAllValues();
+        assertThat(chains.get(chains.size() - 1)[0], not(sameInstance(chains.get(0)[0])));
+    }
+
     @Test
     void checkServerTrusted(@Mock final X509Certificate cert1Mock) throws CertificateException {
         final X509Certificate[] chain = new X509Certificate[] { cert1Mock };
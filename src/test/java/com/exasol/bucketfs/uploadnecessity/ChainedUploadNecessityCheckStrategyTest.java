@@ -0,0 +1,123 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static com.exasol.bucketfs.uploadnecessity.UploadNecessityCheckStage.Decision.SKIP;
+import static com.exasol.bucketfs.uploadnecessity.UploadNecessityCheckStage.Decision.UNDECIDED;
+import static com.exasol.bucketfs.uploadnecessity.UploadNecessityCheckStage.Decision.UPLOAD;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.exasol.bucketfs.ReadOnlyBucket;
+import com.exasol.bucketfs.uploadnecessity.ChainedUploadNecessityCheckStrategy.StageStatistics;
+
+class ChainedUploadNecessityCheckStrategyTest {
+    private final ReadOnlyBucket bucket = mock(ReadOnlyBucket.class);
+
+    @Test
+    void testFirstDefinitiveDecisionWins() throws Exception {
+        final UploadNecessityCheckStage first = stage("first", Map.of("a.jar", UNDECIDED));
+        final UploadNecessityCheckStage second = stage("second", Map.of("a.jar", SKIP));
+        final UploadNecessityCheckStage third = mock(UploadNecessityCheckStage.class);
+        final ChainedUploadNecessityCheckStrategy chain = ChainedUploadNecessityCheckStrategy.of(first, second,
+                third);
+        assertThat(chain.isUploadNecessary(Path.of("a.jar"), "a.jar", this.bucket), equalTo(false));
+        verify(third, never()).check(any(), any(), any());
+    }
+
+    @Test
+    void testUploadsIfNoStageDecides() throws Exception {
+        final ChainedUploadNecessityCheckStrategy chain = ChainedUploadNecessityCheckStrategy
+                .of(stage("only", Map.of("a.jar", UNDECIDED)));
+        assertThat(chain.isUploadNecessary(Path.of("a.jar"), "a.jar", this.bucket), equalTo(true));
+    }
+
+    @Test
+    void testFilterPassesOnlyUndecidedFilesToNextStage() throws Exception {
+        final UploadNecessityCheckStage first = stage("first",
+                Map.of("upload.jar", UPLOAD, "skip.jar", UNDECIDED, "keep.jar", UNDECIDED));
+        final UploadNecessityCheckStage second = stage("second", Map.of("skip.jar", SKIP, "keep.jar", UPLOAD));
+        final ChainedUploadNecessityCheckStrategy chain = ChainedUploadNecessityCheckStrategy.of(first, second);
+        final Map<Path, String> plannedUploads = plannedUploads("upload.jar", "skip.jar", "keep.jar");
+        assertThat(new ArrayList<>(chain.filterNecessaryUploads(plannedUploads, this.bucket).values()),
+                equalTo(List.of("upload.jar", "keep.jar")));
+        verify(second, never()).check(Path.of("upload.jar"), "upload.jar", this.bucket);
+    }
+
+    @Test
+    void testCountsDecisionsPerStage() throws Exception {
+        final UploadNecessityCheckStage first = stage("first",
+                Map.of("a.jar", UPLOAD, "b.jar", UNDECIDED, "c.jar", UNDECIDED));
+        final UploadNecessityCheckStage second = stage("second", Map.of("b.jar", SKIP, "c.jar", UPLOAD));
+        final ChainedUploadNecessityCheckStrategy chain = ChainedUploadNecessityCheckStrategy.of(first, second);
+        chain.filterNecessaryUploads(plannedUploads("a.jar", "b.jar"), this.bucket);
+        chain.isUploadNecessary(Path.of("c.jar"), "c.jar", this.bucket);
+        final List<StageStatistics> statistics = chain.getStatistics();
+        assertThat(describe(statistics), equalTo(List.of("first 1/0/2", "second 1/1/0")));
+        assertThat(statistics.get(0).getHits(), equalTo(1L));
+    }
+
+    @Test
+    void testResetStatistics() throws Exception {
+        final ChainedUploadNecessityCheckStrategy chain = ChainedUploadNecessityCheckStrategy
+                .of(stage("only", Map.of("a.jar", UPLOAD)));
+        chain.isUploadNecessary(Path.of("a.jar"), "a.jar", this.bucket);
+        chain.resetStatistics();
+        assertThat(describe(chain.getStatistics()), equalTo(List.of("only 0/0/0")));
+    }
+
+    @Test
+    void testStrategyStageDecidesDefinitively() throws Exception {
+        final UploadNecessityCheckStrategy strategy = mock(UploadNecessityCheckStrategy.class);
+        final Map<Path, String> plannedUploads = plannedUploads("a.jar", "b.jar");
+        when(strategy.filterNecessaryUploads(plannedUploads, this.bucket))
+                .thenReturn(Map.of(Path.of("b.jar"), "b.jar"));
+        assertThat(UploadNecessityCheckStage.of(strategy).checkAll(plannedUploads, this.bucket),
+                equalTo(Map.of(Path.of("a.jar"), SKIP, Path.of("b.jar"), UPLOAD)));
+    }
+
+    @Test
+    void testEmptyChainFails() {
+        assertThrowsWithMessage(IllegalArgumentException.class,
+                () -> new ChainedUploadNecessityCheckStrategy(List.of()),
+                "E-BFSJ-44: Chain of upload necessity checks is empty. Specify at least one stage.");
+    }
+
+    private static List<String> describe(final List<StageStatistics> statistics) {
+        final List<String> descriptions = new ArrayList<>();
+        for (final StageStatistics stage : statistics) {
+            descriptions.add(stage.getStageName() + " " + stage.getUploadDecisions() + "/" + stage.getSkipDecisions()
+                    + "/" + stage.getUndecided());
+        }
+        return descriptions;
+    }
+
+    private static Map<Path, String> plannedUploads(final String... names) {
+        final Map<Path, String> plannedUploads = new LinkedHashMap<>();
+        for (final String name : names) {
+            plannedUploads.put(Path.of(name), name);
+        }
+        return plannedUploads;
+    }
+
+    private UploadNecessityCheckStage stage(final String name,
+            final Map<String, UploadNecessityCheckStage.Decision> decisions) throws Exception {
+        final UploadNecessityCheckStage stage = mock(UploadNecessityCheckStage.class);
+        when(stage.getName()).thenReturn(name);
+        when(stage.checkAll(any(), any())).thenCallRealMethod();
+        for (final Map.Entry<String, UploadNecessityCheckStage.Decision> decision : decisions.entrySet()) {
+            when(stage.check(Path.of(decision.getKey()), decision.getKey(), this.bucket))
+                    .thenReturn(decision.getValue());
+        }
+        return stage;
+    }
+}
@@ -0,0 +1,192 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.*;
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChecksumUdfTest {
+    private Connection connection;
+    private Statement statement;
+    private PreparedStatement scriptQuery;
+    private ResultSet scriptResult;
+    private PreparedStatement checksumStatement;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        this.connection = mock(Connection.class);
+        this.statement = mock(Statement.class);
+        this.scriptQuery = mock(PreparedStatement.class);
+        this.scriptResult = mock(ResultSet.class);
+        this.checksumStatement = mock(PreparedStatement.class);
+        when(this.connection.createStatement()).thenReturn(this.statement);
+        when(this.connection.prepareStatement(contains("EXA_ALL_SCRIPTS"))).thenReturn(this.scriptQuery);
+        when(this.connection.prepareStatement(contains("(?)"))).thenReturn(this.checksumStatement);
+        when(this.scriptQuery.executeQuery()).thenReturn(this.scriptResult);
+        final ResultSet checksumResult = mock(ResultSet.class);
+        when(this.checksumStatement.executeQuery()).thenReturn(checksumResult);
+        when(checksumResult.getString(1)).thenReturn("abc");
+    }
+
+    @Test
+    void testInstallsOnlyOnceForMultipleChecksums() throws SQLException {
+        try (final ChecksumUdf udf = new ChecksumUdf(this.connection)) {
+            udf.getChecksum("/buckets/bfsdefault/default/a.jar");
+            udf.getChecksum("/buckets/bfsdefault/default/b.jar");
+            assertThat(udf.getChecksum("/buckets/bfsdefault/default/c.jar"), equalTo("abc"));
+        }
+        verify(this.statement).executeUpdate(contains("CREATE OR REPLACE PYTHON3 SCALAR SCRIPT"));
+        verify(this.connection, times(1)).prepareStatement(contains("(?)"));
+        verify(this.checksumStatement, times(3)).executeQuery();
+    }
+
+    @Test
+    void testGetChecksumsUsesSingleQuery() throws SQLException {
+        final PreparedStatement batchStatement = mockBatchStatement();
+        final ResultSet batchResult = mock(ResultSet.class);
+        when(batchStatement.executeQuery()).thenReturn(batchResult);
+        when(batchResult.next()).thenReturn(true, true, false);
+        when(batchResult.getString(1)).thenReturn("/a.jar", "/b.jar");
+        when(batchResult.getString(2)).thenReturn("checksum-a", "checksum-b");
+        try (final ChecksumUdf udf = new ChecksumUdf(this.connection)) {
+            assertThat(udf.getChecksums(List.of("/a.jar", "/b.jar", "/a.jar")),
+                    equalTo(Map.of("/a.jar", "checksum-a", "/b.jar", "checksum-b")));
+        }
+        verify(this.connection).prepareStatement(contains("FROM (VALUES (?), (?)) AS T(P)"));
+        verify(batchStatement).setString(1, "/a.jar");
+        verify(batchStatement).setString(2, "/b.jar");
+        verify(batchStatement, times(1)).executeQuery();
+    }
+
+    @Test
+    void testGetChecksumsSplitsLargeBatches() throws SQLException {
+        final PreparedStatement batchStatement = mockBatchStatement();
+        when(batchStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        final List<String> paths = new ArrayList<>();
+        for (int i = 0; i < (ChecksumUdf.MAX_PATHS_PER_QUERY + 1); ++i) {
+            paths.add("/file" + i);
+        }
+        try (final ChecksumUdf udf = new ChecksumUdf(this.connection)) {
+            udf.getChecksums(paths);
+        }
+        verify(batchStatement, times(2)).executeQuery();
+    }
+
+    @Test
+    void testGetFingerprintsPassesBlockSize() throws SQLException {
+        final PreparedStatement batchStatement = mockBatchStatement();
+        final ResultSet batchResult = mock(ResultSet.class);
+        when(batchStatement.executeQuery()).thenReturn(batchResult);
+        when(batchResult.next()).thenReturn(true, false);
+        when(batchResult.getString(1)).thenReturn("/a.jar");
+        when(batchResult.getString(2)).thenReturn("fingerprint-a");
+        try (final ChecksumUdf udf = new ChecksumUdf(this.connection)) {
+            assertThat(udf.getFingerprints(List.of("/a.jar"), 1048576), equalTo(Map.of("/a.jar", "fingerprint-a")));
+        }
+        verify(this.statement).executeUpdate(contains("SCRIPT BUCKET_FS_JAVA_HELPER.BUCKET_FS_FINGERPRINT("));
+        verify(this.connection).prepareStatement(contains("BUCKET_FS_FINGERPRINT(T.P, 1048576)"));
+    }
+
+    @Test
+    void testDoesNotInstallBeforeFirstChecksum() throws SQLException {
+        new ChecksumUdf(this.connection).close();
+        verify(this.connection, never()).createStatement();
+    }
+
+    @Test
+    void testDropsUdfOnCloseIfInstalled() throws SQLException {
+        final ChecksumUdf udf = new ChecksumUdf(this.connection);
+        udf.getChecksum("/buckets/bfsdefault/default/a.jar");
+        udf.close();
+        verify(this.checksumStatement).close();
+        verify(this.statement).executeUpdate(contains("DROP SCRIPT"));
+        verify(this.statement).executeUpdate(contains("DROP SCHEMA"));
+    }
+
+    @Test
+    void testReusesExistingUdfWithSameContent() throws SQLException {
+        final ChecksumUdf udf = new ChecksumUdf(this.connection);
+        when(this.scriptResult.next()).thenReturn(true);
+        when(this.scriptResult.getString(1)).thenAnswer(invocation -> getInstalledScript());
+        udf.getChecksum("/buckets/bfsdefault/default/a.jar");
+        udf.close();
+        verify(this.statement, never()).executeUpdate(anyString());
+    }
+
+    @Test
+    void testReplacesExistingUdfWithDifferentContent() throws SQLException {
+        when(this.scriptResult.next()).thenReturn(true);
+        when(this.scriptResult.getString(1)).thenReturn("# bucketfs-java content outdated\nimport hashlib");
+        try (final ChecksumUdf udf = new ChecksumUdf(this.connection)) {
+            udf.getChecksum("/buckets/bfsdefault/default/a.jar");
+        }
+        verify(this.statement).executeUpdate(contains("CREATE OR REPLACE PYTHON3 SCALAR SCRIPT"));
+    }
+
+    @Test
+    void testReinstallsIfSharedUdfWasDropped() throws SQLException {
+        when(this.scriptResult.next()).thenReturn(true, false);
+        when(this.scriptResult.getString(1)).thenAnswer(invocation -> getInstalledScript());
+        when(this.checksumStatement.executeQuery()).thenThrow(new SQLException("script not found"))
+                .thenReturn(mock(ResultSet.class));
+        try (final ChecksumUdf udf = new ChecksumUdf(this.connection)) {
+            udf.getChecksum("/buckets/bfsdefault/default/a.jar");
+        }
+        verify(this.statement).executeUpdate(contains("CREATE OR REPLACE PYTHON3 SCALAR SCRIPT"));
+        verify(this.statement).executeUpdate(contains("DROP SCRIPT"));
+    }
+
+    @Test
+    void testUsesSeparateUdfPerAlgorithm() throws SQLException {
+        try (final ChecksumUdf udf = new ChecksumUdf(this.connection, ChecksumAlgorithm.CRC32)) {
+            udf.getChecksum("/buckets/bfsdefault/default/a.jar");
+        }
+        verify(this.statement).executeUpdate(contains("SCRIPT BUCKET_FS_JAVA_HELPER.BUCKET_FS_CHECKSUM_CRC32("));
+        verify(this.statement).executeUpdate(contains("zlib.crc32"));
+        verify(this.connection).prepareStatement("SELECT BUCKET_FS_JAVA_HELPER.BUCKET_FS_CHECKSUM_CRC32(?)");
+    }
+
+    @Test
+    void testDefaultAlgorithmKeepsUdfName() throws SQLException {
+        try (final ChecksumUdf udf = new ChecksumUdf(this.connection)) {
+            udf.getChecksum("/buckets/bfsdefault/default/a.jar");
+        }
+        verify(this.statement).executeUpdate(contains("SCRIPT BUCKET_FS_JAVA_HELPER.BUCKET_FS_CHECKSUM("));
+        verify(this.statement).executeUpdate(contains("hashlib.sha512()"));
+    }
+
+    private PreparedStatement mockBatchStatement() throws SQLException {
+        final PreparedStatement batchStatement = mock(PreparedStatement.class);
+        when(this.connection.prepareStatement(contains("VALUES"))).thenReturn(batchStatement);
+        return batchStatement;
+    }
+
+    // Capture the script text the UDF would install, including its content marker.
+    private String getInstalledScript() throws SQLException {
+        final Connection installingConnection = mock(Connection.class);
+        final Statement installingStatement = mock(Statement.class);
+        final PreparedStatement query = mock(PreparedStatement.class);
+        final ResultSet emptyResult = mock(ResultSet.class);
+        when(installingConnection.createStatement()).thenReturn(installingStatement);
+        when(installingConnection.prepareStatement(anyString())).thenReturn(query);
+        when(query.executeQuery()).thenReturn(emptyResult);
+        final StringBuilder script = new StringBuilder();
+        when(installingStatement.executeUpdate(contains("SCRIPT"))).thenAnswer(invocation -> {
+            script.append((String) invocation.getArgument(0));
+            return 0;
+        });
+        new ChecksumUdf(installingConnection).getChecksum("any");
+        return script.toString();
+    }
+}
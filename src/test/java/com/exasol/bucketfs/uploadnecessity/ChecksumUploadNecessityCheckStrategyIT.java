@@ -3,6 +3,7 @@ package com.exasol.bucketfs.uploadnecessity;
 import static com.exasol.bucketfs.BucketConstants.DEFAULT_BUCKET;
 import static com.exasol.bucketfs.BucketConstants.DEFAULT_BUCKETFS;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -14,7 +15,9 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.*;
 import java.util.concurrent.TimeoutException;
+import java.util.zip.CRC32;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
@@ -35,7 +38,8 @@ class ChecksumUploadNecessityCheckStrategyIT extends AbstractBucketIT {
     }
 
     @AfterAll
-    static void afterAll() throws SQLException {
+    static void afterAll() throws SQLException, BucketAccessException {
+        uploadCheck.close();
         connection.close();
     }
 
@@ -73,6 +77,75 @@ class ChecksumUploadNecessityCheckStrategyIT extends AbstractBucketIT {
         assertThat(checksum, equalTo(toHex(checksumBuilder.digest())));
     }
 
+    @Test
+    void testGetSha512Checksums()
+            throws NoSuchAlgorithmException, BucketAccessException, TimeoutException, InterruptedException {
+        final String firstFile = getUniqueFileName();
+        final String secondFile = getUniqueFileName();
+        this.bucket.uploadStringContent("first", firstFile);
+        this.bucket.uploadStringContent("second", secondFile);
+        final Map<String, String> checksums = uploadCheck.getChecksums(List.of(firstFile, secondFile), this.bucket);
+        assertThat(checksums, equalTo(Map.of(firstFile, sha512("first"), secondFile, sha512("second"))));
+    }
+
+    @Test
+    void testGetCrc32Checksum() throws BucketAccessException, TimeoutException, InterruptedException {
+        final String testFile = getUniqueFileName();
+        this.bucket.uploadStringContent("test", testFile);
+        final CRC32 crc = new CRC32();
+        crc.update("test".getBytes());
+        try (final ChecksumUploadNecessityCheckStrategy crcCheck = ChecksumUploadNecessityCheckStrategy.builder()
+                .sqlConnection(connection).checksumAlgorithm(ChecksumAlgorithm.CRC32).build()) {
+            assertThat(crcCheck.getChecksum(testFile, this.bucket), equalTo(String.format("%08x", crc.getValue())));
+        }
+    }
+
+    @Test
+    void testFilterNecessaryUploads(@TempDir final Path tempDir)
+            throws IOException, BucketAccessException, TimeoutException, InterruptedException {
+        final String twoMbString = "a".repeat(2000000);
+        final String unchangedFile = getUniqueFileName();
+        final String changedFile = getUniqueFileName();
+        final String newFile = getUniqueFileName();
+        final Map<Path, String> plannedUploads = new LinkedHashMap<>();
+        for (final String fileName : List.of(unchangedFile, changedFile, newFile)) {
+            final Path localFile = tempDir.resolve(fileName);
+            Files.writeString(localFile, twoMbString);
+            plannedUploads.put(localFile, fileName);
+        }
+        this.bucket.uploadFile(tempDir.resolve(unchangedFile), unchangedFile);
+        this.bucket.uploadStringContent("other", changedFile);
+        assertThat(uploadCheck.filterNecessaryUploads(plannedUploads, this.bucket).values(),
+                contains(changedFile, newFile));
+    }
+
+    @Test
+    void testDirectoryManifest() throws Exception {
+        final String directory = getUniqueFileName();
+        try (final DirectoryManifestCache cache = new DirectoryManifestCache(connection)) {
+            final SyncAwareBucket writeBucket = getBucket();
+            writeBucket.addChangeListener(cache);
+            writeBucket.uploadStringContent("first", directory + "/a.txt");
+            writeBucket.uploadStringContent("second", directory + "/sub/b.txt");
+            final DirectoryManifest initial = cache.getManifest(writeBucket, directory);
+            writeBucket.uploadStringContent("changed", directory + "/a.txt");
+            final DirectoryManifest refreshed = cache.getManifest(writeBucket, directory);
+            assertAll(
+                    () -> assertThat(initial.getEntry(directory + "/a.txt").orElseThrow().getChecksum(),
+                            equalTo(sha512("first"))),
+                    () -> assertThat(refreshed.getEntry(directory + "/a.txt").orElseThrow().getChecksum(),
+                            equalTo(sha512("changed"))),
+                    () -> assertThat(refreshed.getEntry(directory + "/sub/b.txt").orElseThrow().getSize(),
+                            equalTo(6L)));
+        }
+    }
+
+    private String sha512(final String content) throws NoSuchAlgorithmException {
+        final MessageDigest checksumBuilder = MessageDigest.getInstance("SHA-512");
+        checksumBuilder.update(content.getBytes());
+        return toHex(checksumBuilder.digest());
+    }
+
     @Test
     void testGetChecksumOfNonExistingFile() {
         final String nunExistingFileName = getUniqueFileName();
@@ -0,0 +1,172 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.exasol.bucketfs.ReadOnlyBucket;
+
+class ChecksumUploadNecessityCheckStrategyTest {
+    private static final int TWO_MEGABYTES = 2000000;
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testFilterNecessaryUploadsListsBucketOnce() throws Exception {
+        final Connection connection = mock(Connection.class);
+        final ReadOnlyBucket bucket = mock(ReadOnlyBucket.class);
+        when(bucket.listAllFilePaths()).thenReturn(Set.of("dir/small.jar"));
+        final Map<Path, String> plannedUploads = new LinkedHashMap<>();
+        for (int i = 0; i < 5; ++i) {
+            final Path file = Files.write(this.tempDir.resolve("large-" + i + ".jar"), new byte[TWO_MEGABYTES]);
+            plannedUploads.put(file, "dir/");
+        }
+        plannedUploads.put(Files.write(this.tempDir.resolve("small.jar"), new byte[10]), "dir/");
+        try (final ChecksumUploadNecessityCheckStrategy strategy = new ChecksumUploadNecessityCheckStrategy(
+                connection)) {
+            assertThat(strategy.filterNecessaryUploads(plannedUploads, bucket), equalTo(plannedUploads));
+        }
+        verify(bucket, times(1)).listAllFilePaths();
+        verify(bucket, never()).listContents(anyString());
+        verifyNoInteractions(connection);
+    }
+
+    @Test
+    void testIsUploadNecessaryForFileInMissingDirectory() throws Exception {
+        final Connection connection = mock(Connection.class);
+        final ReadOnlyBucket bucket = mock(ReadOnlyBucket.class);
+        when(bucket.listAllFilePaths()).thenReturn(Set.of());
+        final Path file = Files.write(this.tempDir.resolve("large.jar"), new byte[TWO_MEGABYTES]);
+        try (final ChecksumUploadNecessityCheckStrategy strategy = new ChecksumUploadNecessityCheckStrategy(
+                connection)) {
+            assertThat(strategy.isUploadNecessary(file, "new/directory/large.jar", bucket), equalTo(true));
+        }
+        verifyNoInteractions(connection);
+    }
+
+    @Test
+    void testDifferentFingerprintRequiresUploadWithoutFullChecksum() throws Exception {
+        final Path file = Files.write(this.tempDir.resolve("large.jar"), new byte[TWO_MEGABYTES]);
+        final ReadOnlyBucket bucket = mockBucketContaining("large.jar");
+        try (final ChecksumUploadNecessityCheckStrategy strategy = sampledStrategy(false)) {
+            mockRemoteFingerprint(strategy, "different");
+            assertThat(strategy.filterNecessaryUploads(Map.of(file, "large.jar"), bucket),
+                    equalTo(Map.of(file, "large.jar")));
+            verify(strategy, never()).getChecksums(argThat(files -> !files.isEmpty()), any());
+        }
+    }
+
+    @Test
+    void testMatchingFingerprintSkipsUpload() throws Exception {
+        final Path file = Files.write(this.tempDir.resolve("large.jar"), new byte[TWO_MEGABYTES]);
+        final ReadOnlyBucket bucket = mockBucketContaining("large.jar");
+        try (final ChecksumUploadNecessityCheckStrategy strategy = sampledStrategy(false)) {
+            mockRemoteFingerprint(strategy, localFingerprint(file));
+            assertThat(strategy.isUploadNecessary(file, "large.jar", bucket), equalTo(false));
+            assertThat(strategy.filterNecessaryUploads(Map.of(file, "large.jar"), bucket), equalTo(Map.of()));
+        }
+    }
+
+    @Test
+    void testStrictVerificationComparesFullChecksumForMatchingFingerprint() throws Exception {
+        final Path file = Files.write(this.tempDir.resolve("large.jar"), new byte[TWO_MEGABYTES]);
+        final ReadOnlyBucket bucket = mockBucketContaining("large.jar");
+        try (final ChecksumUploadNecessityCheckStrategy strategy = sampledStrategy(true)) {
+            mockRemoteFingerprint(strategy, localFingerprint(file));
+            doReturn(Map.of("large.jar", "changed")).when(strategy).getChecksums(argThat(files -> !files.isEmpty()), any());
+            assertThat(strategy.filterNecessaryUploads(Map.of(file, "large.jar"), bucket),
+                    equalTo(Map.of(file, "large.jar")));
+        }
+    }
+
+    @Test
+    void testRemovesUdfAfterEachCheckByDefault() throws Exception {
+        final Connection connection = mockUdfConnection();
+        final Statement statement = connection.createStatement();
+        final ReadOnlyBucket bucket = mock(ReadOnlyBucket.class);
+        final ChecksumUploadNecessityCheckStrategy strategy = new ChecksumUploadNecessityCheckStrategy(connection);
+        strategy.getChecksum("a.jar", bucket);
+        strategy.getChecksum("b.jar", bucket);
+        verify(statement, times(2)).executeUpdate(contains("CREATE OR REPLACE PYTHON3 SCALAR SCRIPT"));
+        verify(statement, times(2)).executeUpdate(contains("DROP SCRIPT"));
+    }
+
+    @Test
+    void testKeepsUdfInstalledUntilClose() throws Exception {
+        final Connection connection = mockUdfConnection();
+        final Statement statement = connection.createStatement();
+        final ReadOnlyBucket bucket = mock(ReadOnlyBucket.class);
+        try (final ChecksumUploadNecessityCheckStrategy strategy = ChecksumUploadNecessityCheckStrategy.builder()
+                .sqlConnection(connection).keepUdfInstalled(true).build()) {
+            strategy.getChecksum("a.jar", bucket);
+            strategy.getChecksum("b.jar", bucket);
+            verify(statement, never()).executeUpdate(contains("DROP SCRIPT"));
+        }
+        verify(statement, times(1)).executeUpdate(contains("CREATE OR REPLACE PYTHON3 SCALAR SCRIPT"));
+        verify(statement, times(1)).executeUpdate(contains("DROP SCRIPT"));
+    }
+
+    @Test
+    void testGetChecksumsLeavesOutFilesWithoutChecksum() throws Exception {
+        final ReadOnlyBucket bucket = mock(ReadOnlyBucket.class);
+        when(bucket.getPathInUdf(anyString())).thenAnswer(invocation -> "/buckets/" + invocation.getArgument(0));
+        try (final ChecksumUploadNecessityCheckStrategy strategy = new ChecksumUploadNecessityCheckStrategy(
+                mockUdfConnection())) {
+            assertThat(strategy.getChecksums(List.of("missing.jar"), bucket), equalTo(Map.of()));
+        }
+    }
+
+    private static Connection mockUdfConnection() throws SQLException {
+        final Connection connection = mock(Connection.class);
+        final Statement statement = mock(Statement.class);
+        final PreparedStatement scriptQuery = mock(PreparedStatement.class);
+        final PreparedStatement checksumStatement = mock(PreparedStatement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(contains("EXA_ALL_SCRIPTS"))).thenReturn(scriptQuery);
+        when(connection.prepareStatement(contains("(?)"))).thenReturn(checksumStatement);
+        when(scriptQuery.executeQuery()).thenReturn(mock(ResultSet.class));
+        when(checksumStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        return connection;
+    }
+
+    private ChecksumUploadNecessityCheckStrategy sampledStrategy(final boolean strict) {
+        return spy(ChecksumUploadNecessityCheckStrategy.builder().sqlConnection(mock(Connection.class))
+                .sampledFingerprintThreshold(TWO_MEGABYTES).strictVerification(strict).build());
+    }
+
+    private static ReadOnlyBucket mockBucketContaining(final String... files) throws Exception {
+        final ReadOnlyBucket bucket = mock(ReadOnlyBucket.class);
+        when(bucket.listAllFilePaths()).thenReturn(Set.of(files));
+        return bucket;
+    }
+
+    private static void mockRemoteFingerprint(final ChecksumUploadNecessityCheckStrategy strategy,
+            final String fingerprint) throws Exception {
+        doReturn(Map.of("large.jar", fingerprint)).when(strategy).getFingerprints(any(), any());
+    }
+
+    private static String localFingerprint(final Path file) throws Exception {
+        return new LocalFileHasher(ChecksumAlgorithm.SHA_512, ForkJoinPool.commonPool()).fingerprint(file,
+                ChecksumUploadNecessityCheckStrategy.SAMPLE_BLOCK_SIZE);
+    }
+}
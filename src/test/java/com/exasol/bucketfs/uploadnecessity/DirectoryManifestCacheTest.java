@@ -0,0 +1,161 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static com.exasol.bucketfs.testutil.ExceptionAssertions.assertThrowsWithMessage;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.exasol.bucketfs.BucketAccessException;
+import com.exasol.bucketfs.ReadOnlyBucket;
+
+@ExtendWith(MockitoExtension.class)
+class DirectoryManifestCacheTest {
+    private static final String ROOT_IN_UDF = "/buckets/bfsdefault/default/jars";
+    private static final Instant MODIFIED = Instant.parse("2025-10-20T10:00:00Z");
+
+    @Mock
+    private ChecksumUdf checksumUdfMock;
+    @Mock
+    private ReadOnlyBucket bucketMock;
+    @Mock
+    private ReadOnlyBucket otherClusterBucketMock;
+    private DirectoryManifestCache cache;
+
+    @BeforeEach
+    void beforeEach() {
+        stubBucket(this.bucketMock, "cluster-1");
+        this.cache = new DirectoryManifestCache(this.checksumUdfMock);
+    }
+
+    private static void stubBucket(final ReadOnlyBucket bucket, final String host) {
+        when(bucket.getProtocol()).thenReturn("https");
+        when(bucket.getHost()).thenReturn(host);
+        when(bucket.getPort()).thenReturn(2581);
+        when(bucket.getFullyQualifiedBucketName()).thenReturn("bfsdefault/default");
+        when(bucket.getPathInUdf(anyString())).thenCallRealMethod();
+        when(bucket.getPathInUdf()).thenReturn("/buckets/bfsdefault/default");
+    }
+
+    @Test
+    void testFirstRequestCalculatesAllChecksumsInOneCall() throws Exception {
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, true))
+                .thenReturn(List.of(entry("a.jar", 10, "checksum-a"), entry("sub/b.jar", 20, "checksum-b")));
+        final DirectoryManifest manifest = this.cache.getManifest(this.bucketMock, "/jars/");
+        assertThat(manifest.getEntry("jars/sub/b.jar").map(DirectoryManifest.Entry::getChecksum),
+                equalTo(Optional.of("checksum-b")));
+        assertThat(manifest.getEntries(), hasSize(2));
+    }
+
+    @Test
+    void testRefreshOnlyRecalculatesChangedEntries() throws Exception {
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, true))
+                .thenReturn(List.of(entry("a.jar", 10, "checksum-a"), entry("b.jar", 20, "checksum-b")));
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, false))
+                .thenReturn(List.of(entry("a.jar", 10, null), entry("b.jar", 21, null), entry("c.jar", 30, null)));
+        when(this.checksumUdfMock.getChecksums(Set.of(ROOT_IN_UDF + "/b.jar", ROOT_IN_UDF + "/c.jar")))
+                .thenReturn(Map.of(ROOT_IN_UDF + "/b.jar", "checksum-b2", ROOT_IN_UDF + "/c.jar", "checksum-c"));
+        this.cache.getManifest(this.bucketMock, "jars");
+        final DirectoryManifest manifest = this.cache.getManifest(this.bucketMock, "jars");
+        assertThat(checksums(manifest), contains("checksum-a", "checksum-b2", "checksum-c"));
+    }
+
+    @Test
+    void testRefreshDropsDeletedEntries() throws Exception {
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, true))
+                .thenReturn(List.of(entry("a.jar", 10, "checksum-a"), entry("b.jar", 20, "checksum-b")));
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, false)).thenReturn(List.of(entry("a.jar", 10, null)));
+        when(this.checksumUdfMock.getChecksums(Set.of())).thenReturn(Map.of());
+        this.cache.getManifest(this.bucketMock, "jars");
+        final DirectoryManifest manifest = this.cache.getManifest(this.bucketMock, "jars");
+        assertThat(checksums(manifest), contains("checksum-a"));
+    }
+
+    @Test
+    void testInvalidatedEntryIsRecalculatedEvenIfMetadataIsUnchanged() throws Exception {
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, true))
+                .thenReturn(List.of(entry("a.jar", 10, "checksum-a"), entry("b.jar", 20, "checksum-b")));
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, false))
+                .thenReturn(List.of(entry("a.jar", 10, null), entry("b.jar", 20, null)));
+        when(this.checksumUdfMock.getChecksums(Set.of(ROOT_IN_UDF + "/a.jar")))
+                .thenReturn(Map.of(ROOT_IN_UDF + "/a.jar", "checksum-a2"));
+        this.cache.getManifest(this.bucketMock, "jars");
+        this.cache.onChange(this.bucketMock, "/jars/a.jar");
+        final DirectoryManifest manifest = this.cache.getManifest(this.bucketMock, "jars");
+        assertThat(checksums(manifest), contains("checksum-a2", "checksum-b"));
+    }
+
+    @Test
+    void testInvalidateIgnoresOtherDirectories() throws Exception {
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, true)).thenReturn(List.of(entry("a.jar", 10, "c")));
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, false)).thenReturn(List.of(entry("a.jar", 10, null)));
+        when(this.checksumUdfMock.getChecksums(Set.of())).thenReturn(Map.of());
+        this.cache.getManifest(this.bucketMock, "jars");
+        this.cache.invalidate(this.bucketMock, "jars2/a.jar");
+        this.cache.getManifest(this.bucketMock, "jars");
+        verify(this.checksumUdfMock, never()).getChecksums(Set.of(ROOT_IN_UDF + "/a.jar"));
+    }
+
+    @Test
+    void testClearForgetsSnapshots() throws Exception {
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, true)).thenReturn(List.of(entry("a.jar", 10, "c")));
+        this.cache.getManifest(this.bucketMock, "jars");
+        this.cache.clear();
+        this.cache.getManifest(this.bucketMock, "jars");
+        verify(this.checksumUdfMock, never()).listDirectory(ROOT_IN_UDF, false);
+        verify(this.checksumUdfMock, never()).getChecksums(anyCollection());
+    }
+
+    @Test
+    void testBucketsWithSameNameOnDifferentClustersDoNotShareManifests() throws Exception {
+        stubBucket(this.otherClusterBucketMock, "cluster-2");
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, true)).thenReturn(List.of(entry("a.jar", 10, "c")));
+        this.cache.getManifest(this.bucketMock, "jars");
+        this.cache.getManifest(this.otherClusterBucketMock, "jars");
+        verify(this.checksumUdfMock, times(2)).listDirectory(ROOT_IN_UDF, true);
+        verify(this.checksumUdfMock, never()).listDirectory(ROOT_IN_UDF, false);
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedManifests() throws Exception {
+        final DirectoryManifestCache smallCache = new DirectoryManifestCache(this.checksumUdfMock, 1);
+        when(this.checksumUdfMock.listDirectory(anyString(), eq(true))).thenReturn(List.of(entry("a.jar", 10, "c")));
+        smallCache.getManifest(this.bucketMock, "jars");
+        smallCache.getManifest(this.bucketMock, "libs");
+        smallCache.getManifest(this.bucketMock, "jars");
+        verify(this.checksumUdfMock, times(2)).listDirectory(ROOT_IN_UDF, true);
+        verify(this.checksumUdfMock, never()).listDirectory(anyString(), eq(false));
+    }
+
+    @Test
+    void testGetManifestWrapsSqlException() throws Exception {
+        when(this.checksumUdfMock.listDirectory(ROOT_IN_UDF, true)).thenThrow(new SQLException("mock"));
+        assertThrowsWithMessage(BucketAccessException.class, () -> this.cache.getManifest(this.bucketMock, "jars"),
+                equalTo("E-BFSJ-39: Failed to read manifest of directory 'jars' in BucketFS."));
+    }
+
+    private static DirectoryManifest.Entry entry(final String path, final long size, final String checksum) {
+        return new DirectoryManifest.Entry(path, size, MODIFIED, checksum);
+    }
+
+    private static List<String> checksums(final DirectoryManifest manifest) {
+        final List<String> checksums = new ArrayList<>();
+        manifest.getEntries().forEach(entry -> checksums.add(entry.getChecksum()));
+        return checksums;
+    }
+}
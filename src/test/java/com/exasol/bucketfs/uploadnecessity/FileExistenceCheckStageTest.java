@@ -0,0 +1,42 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static com.exasol.bucketfs.uploadnecessity.UploadNecessityCheckStage.Decision.UNDECIDED;
+import static com.exasol.bucketfs.uploadnecessity.UploadNecessityCheckStage.Decision.UPLOAD;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.exasol.bucketfs.ReadOnlyBucket;
+
+class FileExistenceCheckStageTest {
+    private final ReadOnlyBucket bucket = mock(ReadOnlyBucket.class);
+    private final FileExistenceCheckStage stage = new FileExistenceCheckStage();
+
+    @Test
+    void testCheckAllListsBucketOnce() throws Exception {
+        when(this.bucket.listAllFilePaths()).thenReturn(Set.of("dir/existing.jar", "other.jar"));
+        final Map<Path, String> plannedUploads = new LinkedHashMap<>();
+        plannedUploads.put(Path.of("existing.jar"), "dir/existing.jar");
+        plannedUploads.put(Path.of("other.jar"), "/other.jar");
+        plannedUploads.put(Path.of("missing.jar"), "dir/missing.jar");
+        plannedUploads.put(Path.of("local/existing.jar"), "dir/");
+        assertThat(this.stage.checkAll(plannedUploads, this.bucket),
+                equalTo(Map.of(Path.of("existing.jar"), UNDECIDED, Path.of("other.jar"), UNDECIDED,
+                        Path.of("missing.jar"), UPLOAD, Path.of("local/existing.jar"), UNDECIDED)));
+        verify(this.bucket, times(1)).listAllFilePaths();
+    }
+
+    @Test
+    void testCheckSingleFile() throws Exception {
+        when(this.bucket.listAllFilePaths()).thenReturn(Set.of());
+        assertThat(this.stage.check(Path.of("a.jar"), "a.jar", this.bucket), equalTo(UPLOAD));
+    }
+}
@@ -0,0 +1,128 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalChecksumCacheTest {
+    private static final String ALGORITHM = "SHA-512";
+
+    @TempDir
+    private Path tempDir;
+    private final AtomicInteger calculations = new AtomicInteger();
+
+    @Test
+    void testUnchangedFileIsCalculatedOnlyOnce() throws IOException {
+        final Path file = createFile("a.jar", "content");
+        final LocalChecksumCache cache = LocalChecksumCache.inMemory();
+        cache.getChecksum(file, ALGORITHM, this::countingCalculator);
+        final String checksum = cache.getChecksum(file, ALGORITHM, this::countingCalculator);
+        assertThat(checksum, equalTo("checksum-1"));
+        assertThat(this.calculations.get(), equalTo(1));
+    }
+
+    @Test
+    void testChangedFileIsRecalculated() throws IOException {
+        final Path file = createFile("a.jar", "content");
+        final LocalChecksumCache cache = LocalChecksumCache.inMemory();
+        cache.getChecksum(file, ALGORITHM, this::countingCalculator);
+        Files.writeString(file, "changed content");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2022-01-01T00:00:00Z")));
+        assertThat(cache.getChecksum(file, ALGORITHM, this::countingCalculator), equalTo("checksum-2"));
+        assertThat(cache.size(), equalTo(1));
+    }
+
+    @Test
+    void testChangedModificationTimeCausesRecalculation() throws IOException {
+        final Path file = createFile("a.jar", "content");
+        final LocalChecksumCache cache = LocalChecksumCache.inMemory();
+        cache.getChecksum(file, ALGORITHM, this::countingCalculator);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2020-01-01T00:00:00Z")));
+        cache.getChecksum(file, ALGORITHM, this::countingCalculator);
+        assertThat(this.calculations.get(), equalTo(2));
+    }
+
+    @Test
+    void testAlgorithmIsPartOfTheKey() throws IOException {
+        final Path file = createFile("a.jar", "content");
+        final LocalChecksumCache cache = LocalChecksumCache.inMemory();
+        cache.getChecksum(file, ALGORITHM, this::countingCalculator);
+        cache.getChecksum(file, "SHA-256", this::countingCalculator);
+        assertThat(this.calculations.get(), equalTo(2));
+    }
+
+    @Test
+    void testChecksumIsNotCachedIfFileChangesDuringCalculation() throws IOException {
+        final Path file = createFile("a.jar", "content");
+        final LocalChecksumCache cache = LocalChecksumCache.inMemory();
+        cache.getChecksum(file, ALGORITHM, path -> {
+            Files.writeString(path, "modified while reading");
+            return "outdated";
+        });
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    void testChecksumIsNotCachedIfFileWasModifiedRecently() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("a.jar"), "content");
+        final LocalChecksumCache cache = LocalChecksumCache.inMemory();
+        cache.getChecksum(file, ALGORITHM, this::countingCalculator);
+        assertThat(cache.getChecksum(file, ALGORITHM, this::countingCalculator), equalTo("checksum-2"));
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    void testPersistsAcrossInstances() throws IOException {
+        final Path file = createFile("a.jar", "content");
+        final Path cacheFile = this.tempDir.resolve("cache/checksums.bin");
+        final LocalChecksumCache firstRun = LocalChecksumCache.open(cacheFile);
+        firstRun.getChecksum(file, ALGORITHM, this::countingCalculator);
+        firstRun.save();
+        final LocalChecksumCache secondRun = LocalChecksumCache.open(cacheFile);
+        assertThat(secondRun.getChecksum(file, ALGORITHM, this::countingCalculator), equalTo("checksum-1"));
+        assertThat(this.calculations.get(), equalTo(1));
+    }
+
+    @Test
+    void testIgnoresUnreadableCacheFile() throws IOException {
+        final Path file = createFile("a.jar", "content");
+        final Path cacheFile = createFile("checksums.bin", "not a cache");
+        final LocalChecksumCache cache = LocalChecksumCache.open(cacheFile);
+        assertThat(cache.size(), equalTo(0));
+        assertThat(cache.getChecksum(file, ALGORITHM, this::countingCalculator), equalTo("checksum-1"));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedEntries() throws IOException {
+        final LocalChecksumCache cache = LocalChecksumCache.open(this.tempDir.resolve("checksums.bin"), 2);
+        final Path first = createFile("a.jar", "a");
+        final Path second = createFile("b.jar", "b");
+        final Path third = createFile("c.jar", "c");
+        cache.getChecksum(first, ALGORITHM, this::countingCalculator);
+        cache.getChecksum(second, ALGORITHM, this::countingCalculator);
+        cache.getChecksum(first, ALGORITHM, this::countingCalculator);
+        cache.getChecksum(third, ALGORITHM, this::countingCalculator);
+        cache.getChecksum(first, ALGORITHM, this::countingCalculator);
+        assertThat(cache.size(), equalTo(2));
+        assertThat(this.calculations.get(), equalTo(3));
+    }
+
+    private String countingCalculator(final Path file) {
+        return "checksum-" + this.calculations.incrementAndGet();
+    }
+
+    private Path createFile(final String name, final String content) throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve(name), content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2021-01-01T00:00:00Z")));
+        return file;
+    }
+}
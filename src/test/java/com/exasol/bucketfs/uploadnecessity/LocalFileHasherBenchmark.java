@@ -0,0 +1,102 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static com.exasol.bucketfs.uploadnecessity.ByteArrayToHexConverter.toHex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the previous stream based hashing of local files with {@link LocalFileHasher}.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.exasol.bucketfs.uploadnecessity.LocalFileHasherBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalFileHasherBenchmark {
+    private static final int FILE_COUNT = 8;
+    @Param({ "1048576", "67108864" })
+    private int fileSize;
+    @Param({ "SHA_512", "SHA_256", "MD5", "CRC32" })
+    private ChecksumAlgorithm algorithm;
+    private Path directory;
+    private List<Path> files;
+    private LocalFileHasher hasher;
+
+    @Setup
+    public void createFiles() throws IOException {
+        this.directory = Files.createTempDirectory("hasher-benchmark");
+        this.files = new ArrayList<>();
+        final Random random = new Random(42);
+        final byte[] content = new byte[this.fileSize];
+        for (int i = 0; i < FILE_COUNT; ++i) {
+            random.nextBytes(content);
+            this.files.add(Files.write(this.directory.resolve("file-" + i + ".bin"), content));
+        }
+        this.hasher = new LocalFileHasher(this.algorithm, ForkJoinPool.commonPool());
+    }
+
+    @TearDown
+    public void deleteFiles() throws IOException {
+        for (final Path file : this.files) {
+            Files.delete(file);
+        }
+        Files.delete(this.directory);
+    }
+
+    @Benchmark
+    public List<String> streamWithSmallBuffer() throws IOException, NoSuchAlgorithmException {
+        final List<String> checksums = new ArrayList<>();
+        for (final Path file : this.files) {
+            checksums.add(hashWithDigestInputStream(file));
+        }
+        return checksums;
+    }
+
+    @Benchmark
+    public List<String> channelSequential() throws IOException {
+        final List<String> checksums = new ArrayList<>();
+        for (final Path file : this.files) {
+            checksums.add(this.hasher.hash(file));
+        }
+        return checksums;
+    }
+
+    @Benchmark
+    public Map<Path, String> channelParallel() throws IOException {
+        return this.hasher.hashAll(this.files, this.hasher::hash);
+    }
+
+    // Implementation used by ChecksumUploadNecessityCheckStrategy before LocalFileHasher
+    private static String hashWithDigestInputStream(final Path file) throws IOException, NoSuchAlgorithmException {
+        final MessageDigest checksumBuilder = MessageDigest.getInstance("SHA-512");
+        try (final InputStream inputStream = Files.newInputStream(file);
+                final DigestInputStream checksumBuildingStream = new DigestInputStream(inputStream, checksumBuilder)) {
+            final byte[] buffer = new byte[1000];
+            while (checksumBuildingStream.read(buffer) != -1) {
+                // nothing to do. Just read to run through the stream.
+            }
+        }
+        return toHex(checksumBuilder.digest());
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LocalFileHasherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
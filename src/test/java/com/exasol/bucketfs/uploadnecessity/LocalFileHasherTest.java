@@ -0,0 +1,130 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static com.exasol.bucketfs.uploadnecessity.ByteArrayToHexConverter.toHex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalFileHasherTest {
+    @TempDir
+    private Path tempDir;
+    private final LocalFileHasher hasher = new LocalFileHasher(ChecksumAlgorithm.SHA_512, new ForkJoinPool(4));
+
+    @Test
+    void testHashEmptyFile() throws Exception {
+        assertHashMatches(new byte[0]);
+    }
+
+    @Test
+    void testHashFileSpanningMultipleBuffers() throws Exception {
+        assertHashMatches(randomBytes(LocalFileHasher.BUFFER_SIZE * 2 + 17));
+    }
+
+    @Test
+    void testHashMemoryMappedFile() throws Exception {
+        assertHashMatches(randomBytes((int) LocalFileHasher.MAPPING_THRESHOLD + 1));
+    }
+
+    @Test
+    void testHashAllFilesInParallel() throws Exception {
+        final Map<Path, String> expected = new HashMap<>();
+        for (int i = 0; i < 10; ++i) {
+            final byte[] content = randomBytes(1000 + i);
+            expected.put(Files.write(this.tempDir.resolve("file-" + i), content), sha512(content));
+        }
+        assertThat(this.hasher.hashAll(expected.keySet(), this.hasher::hash), equalTo(expected));
+    }
+
+    @Test
+    void testHashAllPropagatesIoException() throws Exception {
+        final List<Path> files = List.of(Files.write(this.tempDir.resolve("existing"), new byte[] { 1 }),
+                this.tempDir.resolve("missing"));
+        assertThrows(NoSuchFileException.class, () -> this.hasher.hashAll(files, this.hasher::hash));
+    }
+
+    @Test
+    void testHashWithCrc32() throws Exception {
+        final byte[] content = randomBytes(LocalFileHasher.BUFFER_SIZE + 3);
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        final Path file = Files.write(this.tempDir.resolve("file"), content);
+        final LocalFileHasher crcHasher = new LocalFileHasher(ChecksumAlgorithm.CRC32, ForkJoinPool.commonPool());
+        assertThat(crcHasher.hash(file), equalTo(String.format("%08x", crc.getValue())));
+    }
+
+    @Test
+    void testHashWithMd5() throws Exception {
+        final byte[] content = randomBytes(100);
+        final Path file = Files.write(this.tempDir.resolve("file"), content);
+        final LocalFileHasher md5Hasher = new LocalFileHasher(ChecksumAlgorithm.MD5, ForkJoinPool.commonPool());
+        assertThat(md5Hasher.hash(file), equalTo(toHex(MessageDigest.getInstance("MD5").digest(content))));
+    }
+
+    @Test
+    void testCrc32OfEmptyFileHasEightDigits() throws Exception {
+        final Path file = Files.write(this.tempDir.resolve("file"), new byte[0]);
+        final LocalFileHasher crcHasher = new LocalFileHasher(ChecksumAlgorithm.CRC32, ForkJoinPool.commonPool());
+        assertThat(crcHasher.hash(file), equalTo("00000000"));
+    }
+
+    @Test
+    void testFingerprintOfSmallFileCoversWholeFile() throws Exception {
+        final byte[] content = randomBytes(100);
+        final Path file = Files.write(this.tempDir.resolve("file"), content);
+        final MessageDigest digest = MessageDigest.getInstance("SHA-512");
+        digest.update(ByteBuffer.allocate(Long.BYTES).putLong(content.length).array());
+        digest.update(content);
+        assertThat(this.hasher.fingerprint(file, 64), equalTo(toHex(digest.digest())));
+    }
+
+    @Test
+    void testFingerprintOfLargeFileCoversStartMiddleAndEnd() throws Exception {
+        final int blockSize = 16;
+        final byte[] content = randomBytes(1000);
+        final Path file = Files.write(this.tempDir.resolve("file"), content);
+        final MessageDigest digest = MessageDigest.getInstance("SHA-512");
+        digest.update(ByteBuffer.allocate(Long.BYTES).putLong(content.length).array());
+        digest.update(content, 0, blockSize);
+        digest.update(content, (content.length - blockSize) / 2, blockSize);
+        digest.update(content, content.length - blockSize, blockSize);
+        assertThat(this.hasher.fingerprint(file, blockSize), equalTo(toHex(digest.digest())));
+    }
+
+    @Test
+    void testFingerprintIgnoresChangesBetweenSampledBlocks() throws Exception {
+        final byte[] content = randomBytes(1000);
+        final Path original = Files.write(this.tempDir.resolve("original"), content);
+        content[100] ^= 1;
+        final Path changed = Files.write(this.tempDir.resolve("changed"), content);
+        assertThat(this.hasher.fingerprint(changed, 16), equalTo(this.hasher.fingerprint(original, 16)));
+    }
+
+    private void assertHashMatches(final byte[] content) throws IOException, NoSuchAlgorithmException {
+        final Path file = Files.write(this.tempDir.resolve("file"), content);
+        assertThat(this.hasher.hash(file), equalTo(sha512(content)));
+    }
+
+    private static byte[] randomBytes(final int size) {
+        final byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha512(final byte[] content) throws NoSuchAlgorithmException {
+        return toHex(MessageDigest.getInstance("SHA-512").digest(content));
+    }
+}
@@ -0,0 +1,114 @@
+package com.exasol.bucketfs.uploadnecessity;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.exasol.bucketfs.BucketAccessException;
+import com.exasol.bucketfs.ReadOnlyBucket;
+
+class SizeFirstUploadNecessityCheckStrategyTest {
+    @TempDir
+    private Path tempDir;
+    private ReadOnlyBucket bucket;
+    private UploadNecessityCheckStrategy sameSizeStrategy;
+    private SizeFirstUploadNecessityCheckStrategy strategy;
+
+    @BeforeEach
+    void beforeEach() {
+        this.bucket = mock(ReadOnlyBucket.class);
+        this.sameSizeStrategy = mock(UploadNecessityCheckStrategy.class);
+        this.strategy = new SizeFirstUploadNecessityCheckStrategy(this.sameSizeStrategy);
+    }
+
+    @Test
+    void testUploadsMissingFile() throws Exception {
+        final Path file = createFile("a.jar", 10);
+        when(this.bucket.getFileSize("a.jar")).thenReturn(OptionalLong.empty());
+        assertThat(this.strategy.isUploadNecessary(file, "a.jar", this.bucket), equalTo(true));
+        verify(this.sameSizeStrategy, never()).isUploadNecessary(any(), any(), any());
+    }
+
+    @Test
+    void testUploadsFileWithDifferentSize() throws Exception {
+        final Path file = createFile("a.jar", 10);
+        when(this.bucket.getFileSize("a.jar")).thenReturn(OptionalLong.of(11));
+        assertThat(this.strategy.isUploadNecessary(file, "a.jar", this.bucket), equalTo(true));
+        verify(this.sameSizeStrategy, never()).isUploadNecessary(any(), any(), any());
+    }
+
+    @Test
+    void testDelegatesFileWithSameSize() throws Exception {
+        final Path file = createFile("a.jar", 10);
+        when(this.bucket.getFileSize("a.jar")).thenReturn(OptionalLong.of(10));
+        when(this.sameSizeStrategy.isUploadNecessary(file, "a.jar", this.bucket)).thenReturn(false);
+        assertThat(this.strategy.isUploadNecessary(file, "a.jar", this.bucket), equalTo(false));
+    }
+
+    @Test
+    void testAppendsFileNameToDirectory() throws Exception {
+        final Path file = createFile("a.jar", 10);
+        when(this.bucket.getFileSize("dir/a.jar")).thenReturn(OptionalLong.empty());
+        assertThat(this.strategy.isUploadNecessary(file, "dir/", this.bucket), equalTo(true));
+    }
+
+    @Test
+    void testFilterPassesOnlyFilesWithSameSize() throws Exception {
+        final Path same = createFile("same.jar", 10);
+        final Path unchanged = createFile("unchanged.jar", 10);
+        final Path different = createFile("different.jar", 10);
+        final Path missing = createFile("missing.jar", 10);
+        final Map<Path, String> plannedUploads = new LinkedHashMap<>();
+        plannedUploads.put(same, "same.jar");
+        plannedUploads.put(unchanged, "unchanged.jar");
+        plannedUploads.put(different, "different.jar");
+        plannedUploads.put(missing, "missing.jar");
+        when(this.bucket.getFileSize("same.jar")).thenReturn(OptionalLong.of(10));
+        when(this.bucket.getFileSize("unchanged.jar")).thenReturn(OptionalLong.of(10));
+        when(this.bucket.getFileSize("different.jar")).thenReturn(OptionalLong.of(20));
+        when(this.bucket.getFileSize("missing.jar")).thenReturn(OptionalLong.empty());
+        final Map<Path, String> sameSizeUploads = new LinkedHashMap<>();
+        sameSizeUploads.put(same, "same.jar");
+        sameSizeUploads.put(unchanged, "unchanged.jar");
+        when(this.sameSizeStrategy.filterNecessaryUploads(sameSizeUploads, this.bucket))
+                .thenReturn(Map.of(same, "same.jar"));
+        assertThat(new ArrayList<>(this.strategy.filterNecessaryUploads(plannedUploads, this.bucket).keySet()),
+                equalTo(List.of(same, different, missing)));
+    }
+
+    @Test
+    void testFilterSkipsDelegateIfAllSizesDiffer() throws Exception {
+        final Path file = createFile("a.jar", 10);
+        when(this.bucket.getFileSize("a.jar")).thenReturn(OptionalLong.empty());
+        assertThat(this.strategy.filterNecessaryUploads(Map.of(file, "a.jar"), this.bucket),
+                equalTo(Map.of(file, "a.jar")));
+        verify(this.sameSizeStrategy, never()).filterNecessaryUploads(any(), any());
+    }
+
+    @Test
+    void testMissingLocalFileFails() throws BucketAccessException {
+        when(this.bucket.getFileSize("a.jar")).thenReturn(OptionalLong.of(10));
+        final Path missingFile = this.tempDir.resolve("missing.jar");
+        final BucketAccessException exception = assertThrows(BucketAccessException.class,
+                () -> this.strategy.isUploadNecessary(missingFile, "a.jar", this.bucket));
+        assertThat(exception.getMessage(), startsWith("E-BFSJ-43"));
+    }
+
+    private Path createFile(final String name, final int size) throws Exception {
+        return Files.write(this.tempDir.resolve(name), new byte[size]);
+    }
+}